@@ -0,0 +1,90 @@
+package org.pac4j.benchmarks;
+
+import lombok.val;
+import org.pac4j.core.adapter.FrameworkAdapter;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.credentials.MockCredentials;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.Pac4jConstants;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Helpers to build the benchmarked configurations.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class BenchmarkConfigs {
+
+    /** The callback URL of the indirect clients. */
+    public static final String CALLBACK_URL = "http://localhost:8080/callback";
+
+    /** The identity provider login URL. */
+    public static final String LOGIN_URL = "http://idp.example.com/login";
+
+    /** The name of the benchmarked indirect client. */
+    public static final String INDIRECT_CLIENT_NAME = "IndirectClient";
+
+    private BenchmarkConfigs() {}
+
+    /**
+     * Build a configuration with the given clients, padded with idle indirect clients up to the expected number of clients.
+     *
+     * @param nbClients the total number of clients
+     * @param clients the benchmarked clients
+     * @return the configuration
+     */
+    public static Config buildConfig(final int nbClients, final Client... clients) {
+        final List<Client> list = new ArrayList<>(List.of(clients));
+        for (var i = list.size(); i < nbClients; i++) {
+            list.add(new MockIndirectClient("Tenant" + i, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile()));
+        }
+        val config = new Config(new Clients(CALLBACK_URL, list));
+        config.setWebContextFactory(p -> ((BenchmarkParameters) p).webContext());
+        config.setSessionStoreFactory(p -> ((BenchmarkParameters) p).sessionStore());
+        config.setHttpActionAdapter((action, context) -> action);
+        FrameworkAdapter.INSTANCE.applyDefaultSettingsIfUndefined(config);
+        return config;
+    }
+
+    /**
+     * Build the benchmarked indirect client: it redirects to the identity provider and returns a profile on callback.
+     *
+     * @return the indirect client
+     */
+    public static MockIndirectClient buildIndirectClient() {
+        val profile = new CommonProfile();
+        profile.setId("callbackUser");
+        return new MockIndirectClient(INDIRECT_CLIENT_NAME, new FoundAction(LOGIN_URL), Optional.of(new MockCredentials()), profile);
+    }
+
+    /**
+     * Build the session content for a user authenticated by the indirect client.
+     *
+     * @param nbProfiles the number of profiles
+     * @return the session content
+     */
+    public static Map<String, Object> buildAuthenticatedSession(final int nbProfiles) {
+        final Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        for (var i = 0; i < nbProfiles; i++) {
+            val profile = new CommonProfile();
+            profile.setId("user" + i);
+            profile.setClientName(i == 0 ? INDIRECT_CLIENT_NAME : INDIRECT_CLIENT_NAME + i);
+            profile.addRole("USER");
+            profile.addAttribute("email", "user" + i + "@example.com");
+            profiles.put(profile.getClientName(), profile);
+        }
+        final Map<String, Object> session = new LinkedHashMap<>();
+        session.put(Pac4jConstants.USER_PROFILES, profiles);
+        return session;
+    }
+}
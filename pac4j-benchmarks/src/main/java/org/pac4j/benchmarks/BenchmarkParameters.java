@@ -0,0 +1,16 @@
+package org.pac4j.benchmarks;
+
+import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+
+/**
+ * The framework parameters of a benchmarked call: they simply carry the in-memory web context and session store.
+ *
+ * @param webContext the web context
+ * @param sessionStore the session store
+ * @author agent
+ * @since 6.0.0
+ */
+public record BenchmarkParameters(WebContext webContext, SessionStore sessionStore) implements FrameworkParameters {
+}
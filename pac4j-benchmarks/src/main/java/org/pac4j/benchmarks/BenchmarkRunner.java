@@ -0,0 +1,40 @@
+package org.pac4j.benchmarks;
+
+import lombok.val;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>Run the pac4j benchmarks with the GC profiler, so that the allocation rate is reported
+ * next to the throughput and the latency percentiles of each scenario.</p>
+ *
+ * <p>Build with <code>mvn -pl pac4j-benchmarks -am package -DskipTests</code>, then run
+ * <code>java -jar pac4j-benchmarks/target/benchmarks.jar [regexp] [JMH options]</code>,
+ * for example: <code>java -jar pac4j-benchmarks/target/benchmarks.jar SecurityLogic -p nbClients=500</code>.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    /**
+     * Run the benchmarks.
+     *
+     * @param args the standard JMH command line options
+     * @throws CommandLineOptionException if the options are invalid
+     * @throws RunnerException if the benchmarks fail
+     */
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        val options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
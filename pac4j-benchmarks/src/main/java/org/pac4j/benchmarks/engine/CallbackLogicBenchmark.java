@@ -0,0 +1,72 @@
+package org.pac4j.benchmarks.engine;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.benchmarks.BenchmarkConfigs;
+import org.pac4j.benchmarks.BenchmarkParameters;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.engine.DefaultCallbackLogic;
+import org.pac4j.core.util.Pac4jConstants;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link DefaultCallbackLogic#perform}: the profile is created by the indirect client and saved in session.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallbackLogicBenchmark {
+
+    /** The total number of clients defined in the configuration. */
+    @Param({"10", "500"})
+    public int nbClients;
+
+    /** Whether the session is renewed after the login. */
+    @Param({"true", "false"})
+    public boolean renewSession;
+
+    private Config config;
+
+    private final DefaultCallbackLogic logic = new DefaultCallbackLogic();
+
+    /**
+     * Build the configuration.
+     */
+    @Setup
+    public void setup() {
+        config = BenchmarkConfigs.buildConfig(nbClients, BenchmarkConfigs.buildIndirectClient());
+    }
+
+    /**
+     * Finish one login.
+     *
+     * @return the result of the callback logic
+     */
+    @Benchmark
+    public Object perform() {
+        val context = MockWebContext.create().setPath("/callback")
+            .addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, BenchmarkConfigs.INDIRECT_CLIENT_NAME);
+        val sessionStore = new MockSessionStore();
+        sessionStore.set(context, Pac4jConstants.REQUESTED_URL, "http://localhost:8080/protected");
+        return logic.perform(config, null, renewSession, null, new BenchmarkParameters(context, sessionStore));
+    }
+}
@@ -0,0 +1,75 @@
+package org.pac4j.benchmarks.engine;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.benchmarks.BenchmarkConfigs;
+import org.pac4j.benchmarks.BenchmarkParameters;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.engine.DefaultLogoutLogic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link DefaultLogoutLogic#perform}: local logout with session destruction.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogoutLogicBenchmark {
+
+    /** The total number of clients defined in the configuration. */
+    @Param({"10", "500"})
+    public int nbClients;
+
+    /** The number of profiles in session. */
+    @Param({"1", "5"})
+    public int nbProfiles;
+
+    private Config config;
+
+    private Map<String, Object> session;
+
+    private final DefaultLogoutLogic logic = new DefaultLogoutLogic();
+
+    /**
+     * Build the configuration and the authenticated session.
+     */
+    @Setup
+    public void setup() {
+        config = BenchmarkConfigs.buildConfig(nbClients, BenchmarkConfigs.buildIndirectClient());
+        session = BenchmarkConfigs.buildAuthenticatedSession(nbProfiles);
+    }
+
+    /**
+     * Log out one user.
+     *
+     * @return the result of the logout logic
+     */
+    @Benchmark
+    public Object perform() {
+        val context = MockWebContext.create().setPath("/logout");
+        val sessionStore = new MockSessionStore(new HashMap<>(session));
+        sessionStore.getSessionId(context, true);
+        return logic.perform(config, "/", null, true, true, false, new BenchmarkParameters(context, sessionStore));
+    }
+}
@@ -0,0 +1,121 @@
+package org.pac4j.benchmarks.engine;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.benchmarks.BenchmarkConfigs;
+import org.pac4j.benchmarks.BenchmarkParameters;
+import org.pac4j.core.client.direct.AnonymousClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.engine.DefaultSecurityLogic;
+import org.pac4j.core.engine.SecurityGrantedAccessAdapter;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.http.client.direct.DirectBasicAuthClient;
+import org.pac4j.http.client.direct.HeaderClient;
+import org.pac4j.http.credentials.authenticator.test.SimpleTestTokenAuthenticator;
+import org.pac4j.http.credentials.authenticator.test.SimpleTestUsernamePasswordAuthenticator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link DefaultSecurityLogic#perform}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityLogicBenchmark {
+
+    private static final String HEADER_NAME = "X-Token";
+
+    private static final String BASIC_AUTH_HEADER = HttpConstants.BASIC_HEADER_PREFIX
+        + Base64.getEncoder().encodeToString("jdoe:jdoe".getBytes(StandardCharsets.UTF_8));
+
+    private static final SecurityGrantedAccessAdapter GRANTED = (context, sessionStore, profiles) -> profiles;
+
+    /** The security scenario. */
+    @Param({"anonymous", "header", "basicAuth", "indirectRedirect", "sessionHit1", "sessionHit5"})
+    public String scenario;
+
+    /** The total number of clients defined in the configuration. */
+    @Param({"10", "500"})
+    public int nbClients;
+
+    private Config config;
+
+    private String clients;
+
+    private MockSessionStore sessionStore;
+
+    private final DefaultSecurityLogic logic = new DefaultSecurityLogic();
+
+    /**
+     * Build the configuration of the scenario.
+     */
+    @Setup
+    public void setup() {
+        sessionStore = new MockSessionStore();
+        switch (scenario) {
+            case "anonymous" -> {
+                config = BenchmarkConfigs.buildConfig(nbClients, new AnonymousClient());
+                clients = "AnonymousClient";
+            }
+            case "header" -> {
+                config = BenchmarkConfigs.buildConfig(nbClients, new HeaderClient(HEADER_NAME, new SimpleTestTokenAuthenticator()));
+                clients = "HeaderClient";
+            }
+            case "basicAuth" -> {
+                config = BenchmarkConfigs.buildConfig(nbClients,
+                    new DirectBasicAuthClient(new SimpleTestUsernamePasswordAuthenticator()));
+                clients = "DirectBasicAuthClient";
+            }
+            case "indirectRedirect" -> {
+                config = BenchmarkConfigs.buildConfig(nbClients, BenchmarkConfigs.buildIndirectClient());
+                clients = BenchmarkConfigs.INDIRECT_CLIENT_NAME;
+            }
+            case "sessionHit1", "sessionHit5" -> {
+                config = BenchmarkConfigs.buildConfig(nbClients, BenchmarkConfigs.buildIndirectClient());
+                clients = BenchmarkConfigs.INDIRECT_CLIENT_NAME;
+                val nbProfiles = "sessionHit1".equals(scenario) ? 1 : 5;
+                sessionStore = new MockSessionStore(BenchmarkConfigs.buildAuthenticatedSession(nbProfiles));
+                sessionStore.getSessionId(null, true);
+            }
+            default -> throw new TechnicalException("Unsupported scenario: " + scenario);
+        }
+    }
+
+    /**
+     * Secure one request.
+     *
+     * @return the result of the security logic
+     */
+    @Benchmark
+    public Object perform() {
+        val context = MockWebContext.create().setPath("/protected").setFullRequestURL("http://localhost:8080/protected");
+        if ("header".equals(scenario)) {
+            context.addRequestHeader(HEADER_NAME, "token");
+        } else if ("basicAuth".equals(scenario)) {
+            context.addRequestHeader(HttpConstants.AUTHORIZATION_HEADER, BASIC_AUTH_HEADER);
+        }
+        return logic.perform(config, GRANTED, clients, null, null, new BenchmarkParameters(context, sessionStore));
+    }
+}
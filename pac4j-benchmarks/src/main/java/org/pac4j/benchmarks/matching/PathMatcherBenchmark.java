@@ -0,0 +1,134 @@
+package org.pac4j.benchmarks.matching;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.matching.matcher.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks {@link PathMatcher#matches} against the former scan of the excluded paths and regular expressions.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathMatcherBenchmark {
+
+    /** The number of excluded branches (and of excluded paths). */
+    @Param({"10", "300"})
+    public int nbBranches;
+
+    /** The request path: in an excluded branch, an excluded path, matched by a regular expression or secured. */
+    @Param({"branch", "path", "regex", "secured"})
+    public String request;
+
+    private PathMatcher pathMatcher;
+
+    private RegexScanPathMatcher regexScanPathMatcher;
+
+    private CallContext ctx;
+
+    /**
+     * Build the matchers and the request.
+     */
+    @Setup
+    public void setup() {
+        pathMatcher = new PathMatcher();
+        regexScanPathMatcher = new RegexScanPathMatcher();
+        for (var i = 0; i < nbBranches; i++) {
+            pathMatcher.excludeBranch("/static/module" + i);
+            pathMatcher.excludePath("/health/check" + i);
+            regexScanPathMatcher.excludeBranch("/static/module" + i);
+            regexScanPathMatcher.excludePath("/health/check" + i);
+        }
+        for (val regex : List.of("^/img/.*\\.(png|gif)$", "^/fonts/.*$", "^/.*\\.map$")) {
+            pathMatcher.excludeRegex(regex);
+            regexScanPathMatcher.excludeRegex(regex);
+        }
+        val path = switch (request) {
+            case "branch" -> "/static/module" + (nbBranches - 1) + "/js/app.js";
+            case "path" -> "/health/check" + (nbBranches / 2);
+            case "regex" -> "/img/logo/header.png";
+            default -> "/api/users/42/profile";
+        };
+        ctx = new CallContext(MockWebContext.create().setPath(path), new MockSessionStore());
+    }
+
+    /**
+     * Match with the compiled path matcher.
+     *
+     * @return whether the request must be secured
+     */
+    @Benchmark
+    public boolean compiled() {
+        return pathMatcher.matches(ctx);
+    }
+
+    /**
+     * Match with the former implementation.
+     *
+     * @return whether the request must be secured
+     */
+    @Benchmark
+    public boolean regexScan() {
+        return regexScanPathMatcher.matches(ctx.webContext().getPath());
+    }
+
+    /**
+     * The former implementation: a set of exact paths and a scan of all the regular expressions.
+     */
+    private static final class RegexScanPathMatcher {
+
+        private final Set<String> excludedPaths = new HashSet<>();
+
+        private final List<Pattern> excludedPatterns = new ArrayList<>();
+
+        void excludePath(final String path) {
+            excludedPaths.add(path);
+        }
+
+        void excludeBranch(final String path) {
+            excludedPatterns.add(Pattern.compile("^" + path + "(/.*)?$"));
+        }
+
+        void excludeRegex(final String regex) {
+            excludedPatterns.add(Pattern.compile(regex));
+        }
+
+        boolean matches(final String requestPath) {
+            if (excludedPaths.contains(requestPath)) {
+                return false;
+            }
+            for (val pattern : excludedPatterns) {
+                if (pattern.matcher(requestPath).matches()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.pac4j.benchmarks.util;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.Gender;
+import org.pac4j.core.profile.definition.CommonProfileDefinition;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.JsonSerializer;
+import org.pac4j.core.util.serializer.ProfileSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link ProfileSerializer} against the {@link JavaSerializer} and the {@link JsonSerializer} for a typical profile.
+ * The serialized sizes are available through {@link #serializedSize(String)}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileSerializerBenchmark {
+
+    /** The serializer: java, json or binary. */
+    @Param({"java", "json", "binary"})
+    public String serializer;
+
+    private Serializer currentSerializer;
+
+    private CommonProfile profile;
+
+    private byte[] serialized;
+
+    /**
+     * Build the serializer and the profile.
+     */
+    @Setup
+    public void setup() {
+        currentSerializer = buildSerializer(serializer);
+        profile = buildProfile();
+        serialized = currentSerializer.serializeToBytes(profile);
+    }
+
+    /**
+     * Serialize the profile.
+     *
+     * @return the serialized profile
+     */
+    @Benchmark
+    public byte[] serialize() {
+        return currentSerializer.serializeToBytes(profile);
+    }
+
+    /**
+     * Deserialize the profile.
+     *
+     * @return the deserialized profile
+     */
+    @Benchmark
+    public Object deserialize() {
+        return currentSerializer.deserializeFromBytes(serialized);
+    }
+
+    /**
+     * Return the size of the serialized profile for a serializer.
+     *
+     * @param name the serializer name
+     * @return the size in bytes
+     */
+    public static int serializedSize(final String name) {
+        return buildSerializer(name).serializeToBytes(buildProfile()).length;
+    }
+
+    private static Serializer buildSerializer(final String name) {
+        return switch (name) {
+            case "java" -> new JavaSerializer();
+            case "json" -> new JsonSerializer(CommonProfile.class);
+            default -> new ProfileSerializer();
+        };
+    }
+
+    private static CommonProfile buildProfile() {
+        val profile = new CommonProfile();
+        profile.setId("00u1a2b3c4d5e6f7g8h9");
+        profile.setClientName("OidcClient");
+        profile.addRoles(List.of("ROLE_USER", "ROLE_ADMIN"));
+        profile.addAttribute(CommonProfileDefinition.EMAIL, "jerome@pac4j.org");
+        profile.addAttribute(CommonProfileDefinition.FIRST_NAME, "Jerome");
+        profile.addAttribute(CommonProfileDefinition.FAMILY_NAME, "Leleu");
+        profile.addAttribute(CommonProfileDefinition.DISPLAY_NAME, "Jerome Leleu");
+        profile.addAttribute(CommonProfileDefinition.GENDER, Gender.MALE);
+        profile.addAttribute(CommonProfileDefinition.LOCALE, Locale.FRANCE);
+        profile.addAttribute(CommonProfileDefinition.PICTURE_URL, URI.create("https://www.pac4j.org/img/logo.png"));
+        profile.addAttribute("groups", List.of("engineering", "security", "oss"));
+        profile.addAttribute("email_verified", true);
+        profile.addAttribute("updated_at", 1_700_000_000L);
+        return profile;
+    }
+}
@@ -0,0 +1,73 @@
+package org.pac4j.benchmarks.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pac4j.core.util.generator.RandomValueGenerator;
+import org.pac4j.core.util.generator.SecureRandomValueGenerator;
+import org.pac4j.core.util.generator.ValueGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link SecureRandomValueGenerator} against the {@link RandomValueGenerator} under concurrent generations
+ * (use <code>-t 1</code> for the uncontended case).
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ValueGeneratorBenchmark {
+
+    /** The size of the generated values: OAuth state, CSRF token, PKCE code verifier. */
+    @Param({"10", "32", "50"})
+    public int size;
+
+    private ValueGenerator randomValueGenerator;
+
+    private ValueGenerator secureRandomValueGenerator;
+
+    /**
+     * Build the generators.
+     */
+    @Setup
+    public void setup() {
+        randomValueGenerator = new RandomValueGenerator(size);
+        secureRandomValueGenerator = new SecureRandomValueGenerator(size);
+    }
+
+    /**
+     * Generate with the UUID-based generator.
+     *
+     * @return the generated value
+     */
+    @Benchmark
+    public String uuid() {
+        return randomValueGenerator.generateValue(null);
+    }
+
+    /**
+     * Generate with the striped DRBG generator.
+     *
+     * @return the generated value
+     */
+    @Benchmark
+    public String stripedDrbg() {
+        return secureRandomValueGenerator.generateValue(null);
+    }
+}
@@ -60,7 +60,10 @@ public final class CasProxyReceptor extends IndirectClient {
                 throw new OkAction(Pac4jConstants.EMPTY_STRING);
             }
 
-            this.store.set(proxyGrantingTicketIou.get(), proxyGrantingTicket.get());
+            if (!this.store.setIfAbsent(proxyGrantingTicketIou.get(), proxyGrantingTicket.get())) {
+                logger.warn("A proxyGrantingTicket is already stored for the proxyGrantingTicketIou: {} -> ignored",
+                    proxyGrantingTicketIou.get());
+            }
 
             logger.debug("Found pgtIou and pgtId for CAS proxy receptor -> returns ok");
             throw new OkAction("<?xml version=\"1.0\"?>\n<casClient:proxySuccess xmlns:casClient=\"http://www.yale.edu/tp/casClient\" />");
@@ -0,0 +1,63 @@
+package org.pac4j.core.authorization.authorizer;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenSigner;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.List;
+
+import static org.pac4j.core.context.WebContextHelper.*;
+
+/**
+ * Authorizer that checks the stateless CSRF tokens generated by the
+ * {@link org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator}: nothing is read from or written into the web session.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+@Slf4j
+public class HmacCsrfAuthorizer extends CsrfAuthorizer {
+
+    @ToString.Exclude
+    private HmacCsrfTokenSigner signer;
+
+    /**
+     * <p>Constructor for HmacCsrfAuthorizer.</p>
+     *
+     * @param signer the token signer
+     */
+    public HmacCsrfAuthorizer(final HmacCsrfTokenSigner signer) {
+        this.signer = signer;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
+        val checkRequest = isCheckAllRequests() || isPost(context) || isPut(context) || isPatch(context) || isDelete(context);
+        if (checkRequest) {
+            CommonHelper.assertNotNull("signer", signer);
+            val parameterToken = context.getRequestParameter(getParameterName()).orElse(null);
+            val headerToken = context.getRequestHeader(getHeaderName()).orElse(null);
+            LOGGER.debug("parameterToken: {}", parameterToken);
+            LOGGER.debug("headerToken: {}", headerToken);
+            val sessionId = sessionStore.getSessionId(context, false).orElse(null);
+            val now = System.currentTimeMillis() / 1000;
+            // both tokens are always verified
+            val isGoodToken = signer.verify(parameterToken, sessionId, now) | signer.verify(headerToken, sessionId, now);
+            if (!isGoodToken) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
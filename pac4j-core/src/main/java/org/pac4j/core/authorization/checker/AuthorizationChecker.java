@@ -31,4 +31,36 @@ public interface AuthorizationChecker {
      */
     boolean isAuthorized(WebContext context, SessionStore sessionStore, List<UserProfile> profiles, String authorizerNames,
                          Map<String, Authorizer> authorizersMap, List<Client> clients);
+
+    /**
+     * Compile the authorizer names into a checker dedicated to them.
+     *
+     * By default, the authorizer names are evaluated again on each call.
+     *
+     * @param authorizerNames the authorizers
+     * @param authorizersMap the map of authorizers
+     * @return the compiled checker
+     */
+    default Compiled compile(final String authorizerNames, final Map<String, Authorizer> authorizersMap) {
+        return (context, sessionStore, profiles, clients) ->
+            isAuthorized(context, sessionStore, profiles, authorizerNames, authorizersMap, clients);
+    }
+
+    /**
+     * An authorization checker compiled for some given authorizers.
+     */
+    @FunctionalInterface
+    interface Compiled {
+
+        /**
+         * Check whether the user is authorized.
+         *
+         * @param context the web context
+         * @param sessionStore the session store
+         * @param profiles the profile
+         * @param clients the clients
+         * @return whether the user is authorized.
+         */
+        boolean isAuthorized(WebContext context, SessionStore sessionStore, List<UserProfile> profiles, List<Client> clients);
+    }
 }
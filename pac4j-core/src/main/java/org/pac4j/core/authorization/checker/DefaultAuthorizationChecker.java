@@ -9,12 +9,14 @@ import org.pac4j.core.client.direct.AnonymousClient;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.NamedRegistry;
 import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -38,6 +40,16 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
     /** Constant <code>IS_REMEMBERED_AUTHORIZER</code> */
     protected static final Authorizer IS_REMEMBERED_AUTHORIZER = new IsRememberedAuthorizer();
 
+    /** The built-in authorizers by name. */
+    public static final Map<String, Authorizer> DEFAULT_AUTHORIZERS = Map.of(
+        DefaultAuthorizers.CSRF_CHECK, CSRF_AUTHORIZER,
+        DefaultAuthorizers.IS_ANONYMOUS, IS_ANONYMOUS_AUTHORIZER,
+        DefaultAuthorizers.IS_AUTHENTICATED, IS_AUTHENTICATED_AUTHORIZER,
+        DefaultAuthorizers.IS_FULLY_AUTHENTICATED, IS_FULLY_AUTHENTICATED_AUTHORIZER,
+        DefaultAuthorizers.IS_REMEMBERED, IS_REMEMBERED_AUTHORIZER);
+
+    private static final NamedRegistry<Authorizer> DEFAULT_AUTHORIZERS_REGISTRY = NamedRegistry.of(Map.of(), DEFAULT_AUTHORIZERS);
+
     /** {@inheritDoc} */
     @Override
     public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
@@ -47,6 +59,49 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         return isAuthorized(context, sessionStore, profiles, authorizers);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The authorizers are computed once for each client-dependent variant (indirect and/or anonymous clients).
+     * They are evaluated again on each call if this checker is not {@link #isCompilable() compilable}.
+     */
+    @Override
+    public Compiled compile(final String authorizersValue, final Map<String, Authorizer> authorizersMap) {
+        if (!isCompilable()) {
+            return AuthorizationChecker.super.compile(authorizersValue, authorizersMap);
+        }
+        val dynamic = isBlank(authorizersValue) || authorizersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT);
+        val variants = new AtomicReferenceArray<List<Authorizer>>(4);
+        return (context, sessionStore, profiles, clients) -> {
+            var variant = 0;
+            if (dynamic) {
+                if (containsClientType(clients, IndirectClient.class)) {
+                    variant |= 1;
+                }
+                if (containsClientType(clients, AnonymousClient.class)) {
+                    variant |= 2;
+                }
+            }
+            var authorizers = variants.get(variant);
+            if (authorizers == null) {
+                authorizers = List.copyOf(computeAuthorizers(context, profiles, authorizersValue, authorizersMap, clients));
+                variants.set(variant, authorizers);
+            }
+            return isAuthorized(context, sessionStore, profiles, authorizers);
+        };
+    }
+
+    /**
+     * Whether the authorizers computed by the protected methods can be cached by {@link #compile(String, Map)}, which assumes
+     * that they only depend on the types of the clients. It is only the case for this class by default:
+     * subclasses must override this method to return <code>true</code> if their computations satisfy the same condition.
+     *
+     * @return whether this checker can be compiled
+     */
+    protected boolean isCompilable() {
+        return getClass() == DefaultAuthorizationChecker.class;
+    }
+
     /**
      * <p>computeAuthorizers.</p>
      *
@@ -122,32 +177,23 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
     /**
      * <p>retrieveAuthorizer.</p>
      *
+     * The lookup is performed in constant time when the authorizers map is a {@link NamedRegistry}
+     * (like {@link org.pac4j.core.config.Config#getAuthorizersRegistry()}).
+     *
      * @param authorizerName a {@link String} object
      * @param authorizersMap a {@link Map} object
      * @return a {@link Authorizer} object
      */
     protected Authorizer retrieveAuthorizer(final String authorizerName, final Map<String, Authorizer> authorizersMap) {
-        Authorizer authorizer = null;
+        if (authorizersMap instanceof NamedRegistry<Authorizer> registry) {
+            return registry.lookup(authorizerName);
+        }
         for (val entry : authorizersMap.entrySet()) {
             if (areEqualsIgnoreCaseAndTrim(entry.getKey(), authorizerName)) {
-                authorizer = entry.getValue();
-                break;
-            }
-        }
-        if (authorizer == null) {
-            if (DefaultAuthorizers.CSRF_CHECK.equalsIgnoreCase(authorizerName)) {
-                return CSRF_AUTHORIZER;
-            } else if (DefaultAuthorizers.IS_ANONYMOUS.equalsIgnoreCase(authorizerName)) {
-                return IS_ANONYMOUS_AUTHORIZER;
-            } else if (DefaultAuthorizers.IS_AUTHENTICATED.equalsIgnoreCase(authorizerName)) {
-                return IS_AUTHENTICATED_AUTHORIZER;
-            } else if (DefaultAuthorizers.IS_FULLY_AUTHENTICATED.equalsIgnoreCase(authorizerName)) {
-                return IS_FULLY_AUTHENTICATED_AUTHORIZER;
-            } else if (DefaultAuthorizers.IS_REMEMBERED.equalsIgnoreCase(authorizerName)) {
-                return IS_REMEMBERED_AUTHORIZER;
+                return entry.getValue();
             }
         }
-        return authorizer;
+        return DEFAULT_AUTHORIZERS_REGISTRY.lookup(authorizerName);
     }
 
     /**
@@ -12,6 +12,8 @@ import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.credentials.authenticator.Authenticator;
 import org.pac4j.core.credentials.extractor.CredentialsExtractor;
 import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.metrics.MetricsHelper;
+import org.pac4j.core.metrics.Pac4jMetrics;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.creator.AuthenticatorProfileCreator;
 import org.pac4j.core.profile.creator.ProfileCreator;
@@ -22,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is the default implementation of an authentication client (whatever the mechanism).
@@ -70,13 +73,19 @@ public abstract class BaseClient extends InitializableObject implements Client {
     @Override
     public Optional<Credentials> getCredentials(final CallContext ctx) {
         init();
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
         try {
             val credentials = this.credentialsExtractor.extract(ctx).orElse(null);
             checkCredentials(ctx, credentials);
+            outcome = MetricsHelper.outcome(credentials != null);
             return Optional.ofNullable(credentials);
         } catch (CredentialsException e) {
+            outcome = Pac4jMetrics.Outcome.FAILURE;
             logger.info("Failed to retrieve credentials: {}", e.getMessage());
             logger.debug("Failed to retrieve redentials", e);
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.CREDENTIALS_EXTRACTION, getName(), outcome, t0);
         }
         return Optional.empty();
     }
@@ -86,12 +95,15 @@ public abstract class BaseClient extends InitializableObject implements Client {
     public final Optional<Credentials> validateCredentials(final CallContext ctx, final Credentials credentials) {
         if (credentials != null) {
             init();
-            val t0 = System.currentTimeMillis();
+            val t0 = System.nanoTime();
+            var outcome = Pac4jMetrics.Outcome.ERROR;
             try {
-                return internalValidateCredentials(ctx, credentials);
+                val newCredentials = internalValidateCredentials(ctx, credentials);
+                outcome = MetricsHelper.outcome(newCredentials.isPresent());
+                return newCredentials;
             } finally {
-                val t1 = System.currentTimeMillis();
-                logger.debug("Credentials validation took: {} ms", t1 - t0);
+                MetricsHelper.record(Pac4jMetrics.Phase.CREDENTIALS_VALIDATION, getName(), outcome, t0);
+                logger.debug("Credentials validation took: {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
             }
         }
         return Optional.empty();
@@ -139,13 +151,30 @@ public abstract class BaseClient extends InitializableObject implements Client {
             }
         }
 
-        var profile = this.profileCreator.create(ctx, credentials);
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        Optional<UserProfile> profile;
+        try {
+            profile = this.profileCreator.create(ctx, credentials);
+            outcome = MetricsHelper.outcome(profile.isPresent());
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.PROFILE_CREATION, getName(), outcome, t0);
+        }
         logger.debug("profile: {}", profile);
         if (profile.isPresent()) {
             profile.get().setClientName(getName());
-            if (this.authorizationGenerators != null) {
-                for (val authorizationGenerator : this.authorizationGenerators) {
-                    profile = authorizationGenerator.generate(ctx, profile.get());
+            if (ctx.isDetached()) {
+                logger.debug("Detached context: the authorization generators are not run");
+            } else if (this.authorizationGenerators != null && !this.authorizationGenerators.isEmpty()) {
+                val t1 = System.nanoTime();
+                outcome = Pac4jMetrics.Outcome.ERROR;
+                try {
+                    for (val authorizationGenerator : this.authorizationGenerators) {
+                        profile = authorizationGenerator.generate(ctx, profile.get());
+                    }
+                    outcome = MetricsHelper.outcome(profile.isPresent());
+                } finally {
+                    MetricsHelper.record(Pac4jMetrics.Phase.AUTHORIZATION_GENERATION, getName(), outcome, t1);
                 }
             }
         }
@@ -62,6 +62,11 @@ public interface Client {
     /**
      * Renew the user profile.
      *
+     * When the profile is renewed in the background (see {@link org.pac4j.core.profile.ProfileRenewalCoordinator}),
+     * the context is {@link CallContext#detached()}: it has no web context and no session store, so the renewal
+     * (including its profile creation) must not use them. The authorization generators are not run for a detached context:
+     * the renewed profile keeps the roles of the current profile.
+     *
      * @param ctx the current context
      * @param profile the user profile
      * @return the renewed user profile (optional).
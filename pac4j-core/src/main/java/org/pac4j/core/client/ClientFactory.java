@@ -0,0 +1,19 @@
+package org.pac4j.core.client;
+
+/**
+ * Build a client on demand (see {@link Clients#addLazyClient(String, ClientFactory)}).
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@FunctionalInterface
+public interface ClientFactory {
+
+    /**
+     * <p>newClient.</p>
+     *
+     * @param name the name of the client
+     * @return a {@link Client} object
+     */
+    Client newClient(String name);
+}
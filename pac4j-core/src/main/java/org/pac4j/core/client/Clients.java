@@ -1,24 +1,37 @@
 package org.pac4j.core.client;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.authorization.generator.AuthorizationGenerator;
+import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.credentials.authenticator.BlockingOffloadAuthenticator;
+import org.pac4j.core.credentials.authenticator.LocalCachingAuthenticator;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.http.ajax.AjaxRequestResolver;
 import org.pac4j.core.http.callback.CallbackUrlResolver;
 import org.pac4j.core.http.url.UrlResolver;
+import org.pac4j.core.profile.creator.AuthenticatorProfileCreator;
+import org.pac4j.core.profile.creator.BlockingOffloadProfileCreator;
+import org.pac4j.core.util.BlockingOffloader;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * <p>This class is made to group multiple clients, generally on one callback url.</p>
  *
- * <p>Clients can be changed at any time.</p>
+ * <p>Clients can be changed at any time: the clients are held in immutable snapshots, read without locking and replaced
+ * atomically by the changes ({@link #addClient(Client)}, {@link #removeClient(String)}, {@link #replaceClient(Client)}).</p>
+ *
+ * <p>Clients can also be registered lazily ({@link #addLazyClient(String, ClientFactory)}): they are only built and
+ * initialized when they are first searched by their names, and they may be evicted later
+ * (see {@link LazyClientRegistry}).</p>
  *
  * @author Jerome Leleu
  * @since 1.3.0
@@ -29,11 +42,17 @@ import java.util.*;
 @ToString
 public class Clients extends InitializableObject {
 
-    private volatile List<Client> clients = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile Snapshot snapshot = new Snapshot(List.of(), null, 0);
 
-    private Map<String, Client> clientsMap;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final List<Client> clientsView = new ClientsView();
 
-    private volatile Integer oldClientsHash;
+    @ToString.Exclude
+    private final LazyClientRegistry lazyClients = new LazyClientRegistry();
 
     private String callbackUrl;
 
@@ -47,6 +66,13 @@ public class Clients extends InitializableObject {
 
     private String defaultSecurityClients;
 
+    /** The maximum number of concurrent blocking calls per client (0 if the blocking calls are not offloaded). */
+    @Setter(AccessLevel.NONE)
+    private int maxConcurrentBlockingCalls;
+
+    @Setter(AccessLevel.NONE)
+    private long blockingCallsDeadlineInMilliseconds;
+
     /**
      * <p>Constructor for Clients.</p>
      */
@@ -100,7 +126,7 @@ public class Clients extends InitializableObject {
             return true;
         }
 
-        return oldClientsHash == null || oldClientsHash.intValue() != clients.hashCode();
+        return snapshot.clientsMap() == null;
     }
 
     /**
@@ -111,35 +137,93 @@ public class Clients extends InitializableObject {
      */
     @Override
     protected void internalInit(final boolean forceReinit) {
-        clientsMap = new HashMap<>();
-        for (val client : this.clients) {
-            val name = client.getName();
-            CommonHelper.assertNotBlank("name", name);
-            val lowerTrimmedName = name.toLowerCase().trim();
-            if (clientsMap.containsKey(lowerTrimmedName)) {
-                throw new TechnicalException("Duplicate name in clients: " + name);
+        val current = snapshot;
+        final Map<String, Client> clientsMap = new HashMap<>();
+        for (val client : current.clients()) {
+            register(clientsMap, client);
+            configure(client);
+        }
+        publish(current.clients(), clientsMap);
+    }
+
+    static String normalizeName(final String name) {
+        return name.toLowerCase().trim();
+    }
+
+    private void register(final Map<String, Client> clientsMap, final Client client) {
+        val name = client.getName();
+        CommonHelper.assertNotBlank("name", name);
+        val lowerTrimmedName = normalizeName(name);
+        if (clientsMap.containsKey(lowerTrimmedName) || lazyClients.contains(name)) {
+            throw new TechnicalException("Duplicate name in clients: " + name);
+        }
+        clientsMap.put(lowerTrimmedName, client);
+    }
+
+    private void configure(final Client client) {
+        if (client instanceof IndirectClient indirectClient) {
+            if (this.callbackUrl != null && indirectClient.getCallbackUrl() == null) {
+                indirectClient.setCallbackUrl(this.callbackUrl);
             }
-            clientsMap.put(lowerTrimmedName, client);
-            if (client instanceof IndirectClient indirectClient) {
-                if (this.callbackUrl != null && indirectClient.getCallbackUrl() == null) {
-                    indirectClient.setCallbackUrl(this.callbackUrl);
-                }
-                if (this.urlResolver != null && indirectClient.getUrlResolver() == null) {
-                    indirectClient.setUrlResolver(this.urlResolver);
-                }
-                if (this.callbackUrlResolver != null && indirectClient.getCallbackUrlResolver() == null) {
-                    indirectClient.setCallbackUrlResolver(this.callbackUrlResolver);
-                }
-                if (this.ajaxRequestResolver != null && indirectClient.getAjaxRequestResolver() == null) {
-                    indirectClient.setAjaxRequestResolver(this.ajaxRequestResolver);
-                }
+            if (this.urlResolver != null && indirectClient.getUrlResolver() == null) {
+                indirectClient.setUrlResolver(this.urlResolver);
+            }
+            if (this.callbackUrlResolver != null && indirectClient.getCallbackUrlResolver() == null) {
+                indirectClient.setCallbackUrlResolver(this.callbackUrlResolver);
             }
-            val baseClient = (BaseClient) client;
-            if (!authorizationGenerators.isEmpty()) {
-                baseClient.addAuthorizationGenerators(this.authorizationGenerators);
+            if (this.ajaxRequestResolver != null && indirectClient.getAjaxRequestResolver() == null) {
+                indirectClient.setAjaxRequestResolver(this.ajaxRequestResolver);
             }
         }
-        this.oldClientsHash = this.clients.hashCode();
+        val baseClient = (BaseClient) client;
+        for (val authorizationGenerator : this.authorizationGenerators) {
+            if (!baseClient.getAuthorizationGenerators().contains(authorizationGenerator)) {
+                baseClient.addAuthorizationGenerator(authorizationGenerator);
+            }
+        }
+        if (this.maxConcurrentBlockingCalls > 0) {
+            offloadBlockingCalls(baseClient);
+        }
+    }
+
+    private void offloadBlockingCalls(final BaseClient client) {
+        client.init();
+        val offloader = new BlockingOffloader(client.getName(), BlockingOffloader.defaultExecutor(),
+            this.maxConcurrentBlockingCalls, this.blockingCallsDeadlineInMilliseconds);
+        val authenticator = client.getAuthenticator();
+        if (authenticator instanceof LocalCachingAuthenticator localCachingAuthenticator) {
+            // the cache hits are not offloaded
+            localCachingAuthenticator.setDelegate(offload(localCachingAuthenticator.getDelegate(), offloader));
+        } else {
+            client.setAuthenticator(offload(authenticator, offloader));
+        }
+        val profileCreator = client.getProfileCreator();
+        if (profileCreator != null && profileCreator != AuthenticatorProfileCreator.INSTANCE
+            && !(profileCreator instanceof BlockingOffloadProfileCreator)) {
+            client.setProfileCreator(new BlockingOffloadProfileCreator(profileCreator, offloader));
+        }
+    }
+
+    private static Authenticator offload(final Authenticator authenticator, final BlockingOffloader offloader) {
+        if (authenticator == null || authenticator == Authenticator.ALWAYS_VALIDATE
+            || authenticator instanceof BlockingOffloadAuthenticator) {
+            return authenticator;
+        }
+        return new BlockingOffloadAuthenticator(authenticator, offloader);
+    }
+
+    private void publish(final List<Client> clients, final Map<String, Client> clientsMap) {
+        this.snapshot = new Snapshot(Collections.unmodifiableList(clients),
+            clientsMap != null ? Collections.unmodifiableMap(clientsMap) : null, snapshot.version() + 1);
+    }
+
+    private Snapshot initializedSnapshot() {
+        var current = snapshot;
+        while (current.clientsMap() == null) {
+            init();
+            current = snapshot;
+        }
+        return current;
     }
 
     /**
@@ -150,31 +234,173 @@ public class Clients extends InitializableObject {
      */
     public Optional<Client> findClient(final String name) {
         CommonHelper.assertNotBlank("name", name);
-        init();
 
-        val foundClient = clientsMap.get(name.toLowerCase().trim());
+        var foundClient = initializedSnapshot().clientsMap().get(normalizeName(name));
+        if (foundClient == null && !lazyClients.isEmpty()) {
+            foundClient = lazyClients.get(name, this::configure);
+        }
         LOGGER.debug("Found client: {} for name: {}", foundClient, name);
         return Optional.ofNullable(foundClient);
     }
 
     /**
-     * Find all the clients (initialized).
+     * Find all the clients (initialized), except the lazy clients.
      *
-     * @return all the clients (initialized)
+     * @return all the clients (initialized), as an immutable list
      */
     public List<Client> findAllClients() {
-        init();
+        return initializedSnapshot().clients();
+    }
+
+    /**
+     * Add a client. If the clients are already initialized, only the new client is initialized.
+     *
+     * @param client a {@link Client} object
+     */
+    public synchronized void addClient(final Client client) {
+        CommonHelper.assertNotNull("client", client);
+        if (lazyClients.contains(client.getName())) {
+            throw new TechnicalException("Duplicate name in clients: " + client.getName());
+        }
+        val current = snapshot;
+        final List<Client> clients = new ArrayList<>(current.clients());
+        clients.add(client);
+        if (current.clientsMap() == null) {
+            publish(clients, null);
+        } else {
+            final Map<String, Client> clientsMap = new HashMap<>(current.clientsMap());
+            register(clientsMap, client);
+            configure(client);
+            publish(clients, clientsMap);
+        }
+    }
+
+    /**
+     * Run the blocking authenticators and profile creators of the clients on the default executor of the
+     * {@link BlockingOffloader} (virtual threads if available), with a bulkhead and a deadline per client.
+     *
+     * <p>This applies to the current clients, to the clients added or replaced later and to the lazy clients (when they
+     * are built). The clients are initialized first, so that their authenticators and profile creators are defined.</p>
+     *
+     * <p>The offloaded authenticators and profile creators must not use the web context or the session store, as they may
+     * still run after the deadline (see {@link BlockingOffloadAuthenticator}).</p>
+     *
+     * @param maxConcurrentCallsPerClient the maximum number of concurrent blocking calls per client
+     * @param deadlineInMilliseconds the deadline of each blocking call
+     */
+    public synchronized void offloadBlockingCalls(final int maxConcurrentCallsPerClient, final long deadlineInMilliseconds) {
+        CommonHelper.assertTrue(maxConcurrentCallsPerClient > 0, "maxConcurrentCallsPerClient must be greater than 0");
+        CommonHelper.assertTrue(deadlineInMilliseconds > 0, "deadlineInMilliseconds must be greater than 0");
+        this.maxConcurrentBlockingCalls = maxConcurrentCallsPerClient;
+        this.blockingCallsDeadlineInMilliseconds = deadlineInMilliseconds;
+        for (val client : findAllClients()) {
+            offloadBlockingCalls((BaseClient) client);
+        }
+        lazyClients.forEachInitializedClient(client -> offloadBlockingCalls((BaseClient) client));
+    }
+
+    /**
+     * Register a client built and initialized on first use, which may be evicted when not used.
+     *
+     * @param name the name of the client
+     * @param factory the factory of the client, which must build a client with this name
+     */
+    public synchronized void addLazyClient(final String name, final ClientFactory factory) {
+        CommonHelper.assertNotBlank("name", name);
+        val lowerTrimmedName = normalizeName(name);
+        for (val client : snapshot.clients()) {
+            if (client.getName() != null && normalizeName(client.getName()).equals(lowerTrimmedName)) {
+                throw new TechnicalException("Duplicate name in clients: " + name);
+            }
+        }
+        lazyClients.register(name, factory);
+    }
 
-        return getClients();
+    /**
+     * Remove a client (possibly lazy) by its name.
+     *
+     * @param name the name of the client
+     * @return whether a client has been removed
+     */
+    public synchronized boolean removeClient(final String name) {
+        CommonHelper.assertNotBlank("name", name);
+        val current = snapshot;
+        val lowerTrimmedName = normalizeName(name);
+        final List<Client> clients = new ArrayList<>(current.clients());
+        if (!clients.removeIf(client -> client.getName() != null && normalizeName(client.getName()).equals(lowerTrimmedName))) {
+            return lazyClients.remove(name);
+        }
+        if (current.clientsMap() == null) {
+            publish(clients, null);
+        } else {
+            final Map<String, Client> clientsMap = new HashMap<>(current.clientsMap());
+            clientsMap.remove(lowerTrimmedName);
+            publish(clients, clientsMap);
+        }
+        return true;
     }
 
     /**
-     * <p>addClient.</p>
+     * Replace the client (possibly lazy) with the same name (or add the client if there is none).
+     * If the clients are already initialized, only the new client is initialized.
      *
      * @param client a {@link Client} object
      */
-    public void addClient(final Client client) {
-        this.clients.add(client);
+    public synchronized void replaceClient(final Client client) {
+        CommonHelper.assertNotNull("client", client);
+        CommonHelper.assertNotBlank("name", client.getName());
+        lazyClients.remove(client.getName());
+        val current = snapshot;
+        val lowerTrimmedName = normalizeName(client.getName());
+        final List<Client> clients = new ArrayList<>(current.clients());
+        var replaced = false;
+        for (var i = 0; i < clients.size(); i++) {
+            val name = clients.get(i).getName();
+            if (name != null && normalizeName(name).equals(lowerTrimmedName)) {
+                clients.set(i, client);
+                replaced = true;
+                break;
+            }
+        }
+        if (!replaced) {
+            clients.add(client);
+        }
+        if (current.clientsMap() == null) {
+            publish(clients, null);
+        } else {
+            configure(client);
+            final Map<String, Client> clientsMap = new HashMap<>(current.clientsMap());
+            clientsMap.put(lowerTrimmedName, client);
+            publish(clients, clientsMap);
+        }
+    }
+
+    /**
+     * Return the clients as a copy-on-write list: its reads are lock-free and its changes are taken into account
+     * at the next search (all the clients are then initialized again).
+     *
+     * @return the clients
+     */
+    public List<Client> getClients() {
+        return clientsView;
+    }
+
+    /**
+     * Return the clients indexed by their (lower-cased and trimmed) names, or <code>null</code> if not initialized.
+     *
+     * @return the clients map
+     */
+    public Map<String, Client> getClientsMap() {
+        return snapshot.clientsMap();
+    }
+
+    /**
+     * Return the version of the clients, increased at each change.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return snapshot.version();
     }
 
     /**
@@ -184,7 +410,9 @@ public class Clients extends InitializableObject {
      */
     public void setClients(final List<Client> clients) {
         CommonHelper.assertNotNull("clients", clients);
-        this.clients = clients;
+        synchronized (this) {
+            publish(new ArrayList<>(clients), null);
+        }
     }
 
     /**
@@ -194,7 +422,7 @@ public class Clients extends InitializableObject {
      */
     public void setClients(final Client... clients) {
         CommonHelper.assertNotNull("clients", clients);
-        setClients(new ArrayList<>(Arrays.asList(clients)));
+        setClients(Arrays.asList(clients));
     }
 
     /**
@@ -235,4 +463,71 @@ public class Clients extends InitializableObject {
         CommonHelper.assertNotNull("authorizationGenerator", authorizationGenerator);
         this.authorizationGenerators.add(authorizationGenerator);
     }
+
+    /**
+     * An immutable state of the clients: the clients map is <code>null</code> until the clients are initialized.
+     */
+    private record Snapshot(List<Client> clients, Map<String, Client> clientsMap, long version) {}
+
+    /**
+     * The list view of the clients: each change publishes a new snapshot to initialize.
+     */
+    private final class ClientsView extends AbstractList<Client> implements RandomAccess {
+
+        @Override
+        public Client get(final int index) {
+            return snapshot.clients().get(index);
+        }
+
+        @Override
+        public int size() {
+            return snapshot.clients().size();
+        }
+
+        @Override
+        public Iterator<Client> iterator() {
+            return snapshot.clients().iterator();
+        }
+
+        @Override
+        public Client set(final int index, final Client client) {
+            synchronized (Clients.this) {
+                final List<Client> clients = new ArrayList<>(snapshot.clients());
+                val previous = clients.set(index, client);
+                publish(clients, null);
+                return previous;
+            }
+        }
+
+        @Override
+        public void add(final int index, final Client client) {
+            synchronized (Clients.this) {
+                final List<Client> clients = new ArrayList<>(snapshot.clients());
+                clients.add(index, client);
+                publish(clients, null);
+            }
+        }
+
+        @Override
+        public Client remove(final int index) {
+            synchronized (Clients.this) {
+                final List<Client> clients = new ArrayList<>(snapshot.clients());
+                val previous = clients.remove(index);
+                publish(clients, null);
+                return previous;
+            }
+        }
+
+        @Override
+        public boolean removeIf(final Predicate<? super Client> filter) {
+            synchronized (Clients.this) {
+                final List<Client> clients = new ArrayList<>(snapshot.clients());
+                if (clients.removeIf(filter)) {
+                    publish(clients, null);
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package org.pac4j.core.client;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initialize all the clients in parallel (instead of on the first request using each of them), for example at startup,
+ * so that the metadata downloads, keystores loading... are not paid by the first logins.
+ *
+ * <p>The clients are initialized on a bounded executor ({@link #parallelism} threads or the provided {@link #executor}),
+ * each one within {@link #timeoutInMilliseconds} (from the start of its initialization). The failures are collected by
+ * client name (a timed out client is still initialized in the background) and the {@link #getReadiness()} future
+ * completes with them once all the clients are done.
+ * A failed client is initialized again on its next use, as usual.</p>
+ *
+ * <p>The lazy clients (see {@link LazyClientRegistry}) are not warmed up.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@Setter
+@Accessors(chain = true)
+@ToString(onlyExplicitlyIncluded = true)
+public class ClientsWarmUp {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    @ToString.Include
+    private final Clients clients;
+
+    @ToString.Include
+    private int parallelism = 4;
+
+    @ToString.Include
+    private long timeoutInMilliseconds = 30_000;
+
+    /** The executor to use instead of a dedicated one (not shut down after the warm-up). */
+    private Executor executor;
+
+    @Setter(AccessLevel.NONE)
+    private final CompletableFuture<Map<String, Throwable>> readiness = new CompletableFuture<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * <p>Constructor for ClientsWarmUp.</p>
+     *
+     * @param clients the clients
+     */
+    public ClientsWarmUp(final Clients clients) {
+        CommonHelper.assertNotNull("clients", clients);
+        this.clients = clients;
+    }
+
+    /**
+     * Start the warm-up (only once): the clients are initialized in the background.
+     *
+     * @return the readiness future, completed with the failures by client name (empty if all the clients are initialized)
+     */
+    public CompletableFuture<Map<String, Throwable>> start() {
+        if (!started.compareAndSet(false, true)) {
+            return readiness;
+        }
+        CommonHelper.assertTrue(parallelism > 0, "parallelism must be greater than 0");
+        CommonHelper.assertTrue(timeoutInMilliseconds > 0, "timeoutInMilliseconds must be greater than 0");
+
+        final ExecutorService dedicatedExecutor;
+        final Executor currentExecutor;
+        if (executor != null) {
+            dedicatedExecutor = null;
+            currentExecutor = executor;
+        } else {
+            dedicatedExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                val thread = new Thread(runnable, "pac4j-warmup-" + THREAD_NUMBER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            currentExecutor = dedicatedExecutor;
+        }
+
+        val startTime = System.currentTimeMillis();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try {
+            for (val client : clients.findAllClients()) {
+                if (client instanceof InitializableObject initializableObject && !initializableObject.isInitialized()) {
+                    val initialization = new CompletableFuture<Void>();
+                    currentExecutor.execute(() -> {
+                        // the timeout starts with the initialization, not while the task is waiting for a thread
+                        initialization.orTimeout(timeoutInMilliseconds, TimeUnit.MILLISECONDS);
+                        try {
+                            initializableObject.init();
+                            initialization.complete(null);
+                        } catch (final RuntimeException | Error e) {
+                            initialization.completeExceptionally(e);
+                        }
+                    });
+                    futures.add(initialization.whenComplete((v, e) -> {
+                        if (e != null) {
+                            val cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                            LOGGER.warn("Cannot warm up client: {}", client.getName(), cause);
+                            failures.put(client.getName(), cause);
+                        }
+                    }));
+                }
+            }
+        } catch (final RuntimeException e) {
+            failures.put(Clients.class.getSimpleName(), e);
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handle((v, e) -> {
+            if (dedicatedExecutor != null) {
+                dedicatedExecutor.shutdown();
+            }
+            LOGGER.info("{} client(s) warmed up in {} ms, {} failure(s)", futures.size(), System.currentTimeMillis() - startTime,
+                failures.size());
+            return readiness.complete(Collections.unmodifiableMap(failures));
+        });
+        return readiness;
+    }
+
+    /**
+     * Whether the warm-up is finished (successfully or not).
+     *
+     * @return whether the warm-up is finished
+     */
+    public boolean isReady() {
+        return readiness.isDone();
+    }
+
+    /**
+     * Return the failures (so far) by client name.
+     *
+     * @return the failures
+     */
+    public Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+}
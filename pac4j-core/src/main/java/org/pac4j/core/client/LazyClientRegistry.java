@@ -0,0 +1,267 @@
+package org.pac4j.core.client;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The clients built and initialized on first use (for example, one client per tenant): only their names and factories
+ * are registered upfront.
+ *
+ * <p>At most {@link #maxInitializedClients} clients are kept initialized: beyond, the least recently used clients are
+ * evicted, as well as the clients not used for more than {@link #idleTimeoutInMilliseconds}. An evicted client is built
+ * and initialized again at its next use.</p>
+ *
+ * <p>The eviction only runs when a client is built: without new clients, the idle clients stay initialized until
+ * {@link #evict()} is called, for example periodically by a scheduled task.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@Setter
+@ToString
+public class LazyClientRegistry {
+
+    private int maxInitializedClients = 1000;
+
+    /** The idle timeout (0 or negative for none). */
+    private long idleTimeoutInMilliseconds = TimeUnit.HOURS.toMillis(1);
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final Map<String, Definition> definitions = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final AtomicInteger nbInitializedClients = new AtomicInteger();
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Register a client definition.
+     *
+     * @param name the name of the client
+     * @param factory the factory of the client
+     */
+    void register(final String name, final ClientFactory factory) {
+        CommonHelper.assertNotBlank("name", name);
+        CommonHelper.assertNotNull("factory", factory);
+        if (definitions.putIfAbsent(Clients.normalizeName(name), new Definition(name, factory)) != null) {
+            throw new TechnicalException("Duplicate name in clients: " + name);
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Remove a client definition (and its client).
+     *
+     * @param name the name of the client
+     * @return whether a definition has been removed
+     */
+    boolean remove(final String name) {
+        val definition = definitions.remove(Clients.normalizeName(name));
+        if (definition == null) {
+            return false;
+        }
+        synchronized (definition) {
+            definition.removed = true;
+        }
+        unload(definition);
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Return the client for the given name, building and initializing it if necessary.
+     *
+     * @param name the name of the client
+     * @param configurer the configuration to apply to a new client before its initialization
+     * @return the client or <code>null</code> if there is no definition for this name
+     */
+    Client get(final String name, final Consumer<Client> configurer) {
+        val definition = definitions.get(Clients.normalizeName(name));
+        if (definition == null) {
+            return null;
+        }
+        var client = definition.client;
+        var created = false;
+        if (client == null) {
+            synchronized (definition) {
+                client = definition.client;
+                if (client == null) {
+                    if (definition.removed) {
+                        return null;
+                    }
+                    client = newClient(definition, configurer);
+                    definition.client = client;
+                    nbInitializedClients.incrementAndGet();
+                    created = true;
+                }
+            }
+        }
+        definition.lastAccess = System.nanoTime();
+        if (created) {
+            evict();
+        }
+        return client;
+    }
+
+    private static Client newClient(final Definition definition, final Consumer<Client> configurer) {
+        LOGGER.debug("Building client: {}", definition.name);
+        val client = definition.factory.newClient(definition.name);
+        CommonHelper.assertNotNull("client", client);
+        if (!Clients.normalizeName(definition.name).equals(Clients.normalizeName(client.getName()))) {
+            throw new TechnicalException("The client built for: " + definition.name + " is named: " + client.getName());
+        }
+        configurer.accept(client);
+        if (client instanceof InitializableObject initializableObject) {
+            initializableObject.init();
+        }
+        return client;
+    }
+
+    /**
+     * Whether a client definition is registered for this name.
+     *
+     * @param name the name of the client
+     * @return whether the client is defined
+     */
+    public boolean contains(final String name) {
+        return name != null && definitions.containsKey(Clients.normalizeName(name));
+    }
+
+    /**
+     * Whether no client definition is registered.
+     *
+     * @return whether there is no definition
+     */
+    public boolean isEmpty() {
+        return definitions.isEmpty();
+    }
+
+    /**
+     * Return the number of client definitions.
+     *
+     * @return the number of definitions
+     */
+    public int getNbClients() {
+        return definitions.size();
+    }
+
+    /**
+     * Return the number of clients currently initialized.
+     *
+     * @return the number of initialized clients
+     */
+    public int getNbInitializedClients() {
+        return nbInitializedClients.get();
+    }
+
+    /**
+     * Return the version of the client definitions, increased each time a definition is registered or removed: what has been
+     * computed from the names of the lazy clients (like the security plans) must be computed again when it changes.
+     * Building or evicting a client does not change the version: the lazy clients must be resolved by name on each use.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Apply an action to the clients currently initialized.
+     *
+     * @param action the action
+     */
+    void forEachInitializedClient(final Consumer<Client> action) {
+        for (val definition : definitions.values()) {
+            val client = definition.client;
+            if (client != null) {
+                action.accept(client);
+            }
+        }
+    }
+
+    /**
+     * Evict the idle clients and the least recently used clients beyond {@link #maxInitializedClients}.
+     * It is called each time a client is built and can be scheduled to evict the idle clients in the meantime.
+     *
+     * @return the number of evicted clients
+     */
+    public synchronized int evict() {
+        var nbEvicted = 0;
+        if (idleTimeoutInMilliseconds > 0) {
+            val now = System.nanoTime();
+            val idleTimeout = TimeUnit.MILLISECONDS.toNanos(idleTimeoutInMilliseconds);
+            for (val definition : definitions.values()) {
+                if (definition.client != null && now - definition.lastAccess > idleTimeout && unload(definition)) {
+                    nbEvicted++;
+                }
+            }
+        }
+        while (nbInitializedClients.get() > maxInitializedClients) {
+            Definition leastRecentlyUsed = null;
+            for (val definition : definitions.values()) {
+                if (definition.client != null && (leastRecentlyUsed == null || definition.lastAccess < leastRecentlyUsed.lastAccess)) {
+                    leastRecentlyUsed = definition;
+                }
+            }
+            if (leastRecentlyUsed == null || !unload(leastRecentlyUsed)) {
+                break;
+            }
+            nbEvicted++;
+        }
+        if (nbEvicted > 0) {
+            LOGGER.debug("{} client(s) evicted, {} remaining", nbEvicted, nbInitializedClients.get());
+        }
+        return nbEvicted;
+    }
+
+    private boolean unload(final Definition definition) {
+        synchronized (definition) {
+            if (definition.client == null) {
+                return false;
+            }
+            LOGGER.debug("Evicting client: {}", definition.name);
+            definition.client = null;
+            nbInitializedClients.decrementAndGet();
+            return true;
+        }
+    }
+
+    private static final class Definition {
+
+        private final String name;
+
+        private final ClientFactory factory;
+
+        private volatile Client client;
+
+        // in nanoseconds
+        private volatile long lastAccess;
+
+        private boolean removed;
+
+        private Definition(final String name, final ClientFactory factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+}
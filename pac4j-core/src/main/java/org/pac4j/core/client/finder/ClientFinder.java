@@ -24,4 +24,32 @@ public interface ClientFinder {
      * @return a {@link List} object
      */
     List<Client> find(Clients clients, WebContext context, String clientNames);
+
+    /**
+     * Compile the client names into a finder dedicated to them.
+     *
+     * By default, the client names are evaluated again on each call.
+     *
+     * @param clients the clients
+     * @param clientNames the client names
+     * @return the compiled finder
+     */
+    default Compiled compile(final Clients clients, final String clientNames) {
+        return context -> find(clients, context, clientNames);
+    }
+
+    /**
+     * A client finder compiled for some given clients and client names.
+     */
+    @FunctionalInterface
+    interface Compiled {
+
+        /**
+         * Find the clients for the current request.
+         *
+         * @param context the web context
+         * @return the clients
+         */
+        List<Client> find(WebContext context);
+    }
 }
@@ -6,21 +6,37 @@ import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
 import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.http.callback.PathParameterCallbackUrlResolver;
+import org.pac4j.core.http.callback.QueryParameterCallbackUrlResolver;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Find the right client on the callback.
  *
+ * The indirect clients using the {@link QueryParameterCallbackUrlResolver} or the {@link PathParameterCallbackUrlResolver}
+ * are indexed by their names, so that they are found by a lookup of the client name parameter or the last path segment.
+ * The indirect clients using other callback URL resolvers are checked one by one. The index is built again when the
+ * clients change.
+ *
+ * The lazy clients are searched by the default client name parameter or the last path segment.
+ *
  * @author Jerome Leleu
  * @since 3.0.0
  */
 @Slf4j
 public class DefaultCallbackClientFinder implements ClientFinder {
 
+    private volatile CallbackIndex index;
+
     /**
      * <p>Constructor for DefaultCallbackClientFinder.</p>
      */
@@ -30,18 +46,38 @@ public class DefaultCallbackClientFinder implements ClientFinder {
     @Override
     public List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
 
-        List<Client> result = new ArrayList<>();
-        List<Client> indirectClients = new ArrayList<>();
+        val currentIndex = getIndex(clients);
+        final List<IndexedClient> matches = new ArrayList<>();
 
-        for (val client : clients.findAllClients()) {
-            if (client instanceof IndirectClient indirectClient) {
-                indirectClients.add(client);
-                indirectClient.init();
-                if (indirectClient.getCallbackUrlResolver().matches(indirectClient.getName(), context)) {
-                    result.add(indirectClient);
-                }
+        for (val entry : currentIndex.byParameter().entrySet()) {
+            val name = context.getRequestParameter(entry.getKey());
+            if (name.isPresent()) {
+                addMatch(matches, entry.getValue().get(normalize(name.get())));
+            }
+        }
+        if (!currentIndex.byPath().isEmpty()) {
+            val path = context.getPath();
+            if (path != null) {
+                addMatch(matches, currentIndex.byPath().get(normalize(path.substring(path.lastIndexOf('/') + 1))));
+            }
+        }
+        for (val indexedClient : currentIndex.others()) {
+            val indirectClient = indexedClient.client();
+            if (indirectClient.getCallbackUrlResolver().matches(indirectClient.getName(), context)) {
+                matches.add(indexedClient);
             }
         }
+        if (matches.size() > 1) {
+            // keep the order of the clients
+            matches.sort(Comparator.comparingInt(IndexedClient::position));
+        }
+        final List<Client> result = new ArrayList<>(matches.size());
+        for (val match : matches) {
+            result.add(match.client());
+        }
+        if (result.isEmpty() && !clients.getLazyClients().isEmpty()) {
+            findLazyClient(clients, context).ifPresent(result::add);
+        }
         LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
 
         // fallback: no client found and we have a default client, use it
@@ -53,11 +89,95 @@ public class DefaultCallbackClientFinder implements ClientFinder {
             }
         }
         // fallback: no client found and we only have one indirect client, use it
-        if (result.isEmpty() && indirectClients.size() == 1) {
-            LOGGER.debug("Defaulting to the only client: {}", indirectClients.get(0));
-            result.addAll(indirectClients);
+        if (result.isEmpty() && currentIndex.nbIndirectClients() == 1) {
+            val onlyClient = currentIndex.onlyClient();
+            LOGGER.debug("Defaulting to the only client: {}", onlyClient);
+            result.add(onlyClient);
         }
 
         return result;
     }
+
+    private static Optional<Client> findLazyClient(final Clients clients, final WebContext context) {
+        val names = new ArrayList<String>(2);
+        context.getRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER).ifPresent(names::add);
+        val path = context.getPath();
+        if (path != null) {
+            names.add(path.substring(path.lastIndexOf('/') + 1));
+        }
+        for (val name : names) {
+            if (clients.getLazyClients().contains(name)) {
+                val client = clients.findClient(name);
+                if (client.isPresent() && client.get() instanceof IndirectClient indirectClient
+                    && indirectClient.getCallbackUrlResolver().matches(indirectClient.getName(), context)) {
+                    return client;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void addMatch(final List<IndexedClient> matches, final IndexedClient indexedClient) {
+        if (indexedClient != null) {
+            indexedClient.client().init();
+            matches.add(indexedClient);
+        }
+    }
+
+    private CallbackIndex getIndex(final Clients clients) {
+        // the clients are returned as a new immutable list after each change
+        val allClients = clients.findAllClients();
+        val currentIndex = index;
+        if (currentIndex != null && currentIndex.allClients() == allClients) {
+            return currentIndex;
+        }
+        val newIndex = buildIndex(allClients);
+        index = newIndex;
+        return newIndex;
+    }
+
+    private static CallbackIndex buildIndex(final List<Client> allClients) {
+        final Map<String, Map<String, IndexedClient>> byParameter = new HashMap<>();
+        final Map<String, IndexedClient> byPath = new HashMap<>();
+        final List<IndexedClient> others = new ArrayList<>();
+        var nbIndirectClients = 0;
+        IndirectClient onlyClient = null;
+        for (val client : allClients) {
+            if (client instanceof IndirectClient indirectClient) {
+                indirectClient.init();
+                val indexedClient = new IndexedClient(indirectClient, nbIndirectClients++);
+                onlyClient = indirectClient;
+                val resolver = indirectClient.getCallbackUrlResolver();
+                val name = indirectClient.getName();
+                // subclasses may match differently
+                if (resolver != null && resolver.getClass() == QueryParameterCallbackUrlResolver.class && name != null) {
+                    val parameter = ((QueryParameterCallbackUrlResolver) resolver).getClientNameParameter();
+                    byParameter.computeIfAbsent(parameter, k -> new HashMap<>()).putIfAbsent(normalize(name), indexedClient);
+                } else if (resolver != null && resolver.getClass() == PathParameterCallbackUrlResolver.class && name != null) {
+                    byPath.putIfAbsent(normalize(name), indexedClient);
+                } else {
+                    others.add(indexedClient);
+                }
+            }
+        }
+        LOGGER.debug("Callback index built for {} clients: {} by parameter, {} by path, {} to check one by one", nbIndirectClients,
+            byParameter.values().stream().mapToInt(Map::size).sum(), byPath.size(), others.size());
+        return new CallbackIndex(allClients, byParameter, byPath, others, nbIndirectClients, onlyClient);
+    }
+
+    private static String normalize(final String name) {
+        val trimmed = name.trim();
+        val chars = new char[trimmed.length()];
+        for (var i = 0; i < chars.length; i++) {
+            // same rules as String.equalsIgnoreCase
+            chars[i] = Character.toLowerCase(Character.toUpperCase(trimmed.charAt(i)));
+        }
+        return new String(chars);
+    }
+
+    private record IndexedClient(IndirectClient client, int position) {}
+
+    private record CallbackIndex(List<Client> allClients, Map<String, Map<String, IndexedClient>> byParameter,
+                                 Map<String, IndexedClient> byPath, List<IndexedClient> others, int nbIndirectClients,
+                                 IndirectClient onlyClient) {}
 }
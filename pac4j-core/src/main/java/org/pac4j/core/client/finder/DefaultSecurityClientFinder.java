@@ -12,7 +12,11 @@ import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -33,21 +37,7 @@ public class DefaultSecurityClientFinder implements ClientFinder {
     public List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
         final List<Client> result = new ArrayList<>();
 
-        var securityClientNames = clientNames;
-        // we don't have defined clients to secure the URL, use the general default security ones from the Clients if they exist
-        // we check the nullity and not the blankness to allow the blank string to mean no client
-        // so no clients parameter -> use the default security ones; clients=blank string -> no clients defined
-        LOGGER.debug("Provided clientNames: {}", securityClientNames);
-        if (securityClientNames == null) {
-            securityClientNames = clients.getDefaultSecurityClients();
-            LOGGER.debug("Default security clients: {}", securityClientNames);
-            // still no clients defined and we only have one client, use it
-            if (securityClientNames == null && clients.findAllClients().size() == 1) {
-                securityClientNames = clients.getClients().get(0).getName();
-                LOGGER.debug("Only client: {}", securityClientNames);
-            }
-        }
-
+        val securityClientNames = computeSecurityClientNames(clients, clientNames);
         if (CommonHelper.isNotBlank(securityClientNames)) {
             val names = Arrays.asList(securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR));
             val clientOnRequest = context.getRequestParameter(clientNameParameter);
@@ -82,4 +72,107 @@ public class DefaultSecurityClientFinder implements ClientFinder {
         LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
         return result;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The client names are resolved once, except the names of the lazy clients which are resolved on each call
+     * (as they may be evicted and built again): only the client provided on the request is checked on each call.
+     */
+    @Override
+    public Compiled compile(final Clients clients, final String clientNames) {
+        val securityClientNames = computeSecurityClientNames(clients, clientNames);
+        val lazyClients = clients.getLazyClients();
+        // the clients (or the names of the lazy clients) in their order of definition
+        final List<Object> allowedClients = new ArrayList<>();
+        final Set<String> lazyNames = new HashSet<>();
+        if (CommonHelper.isNotBlank(securityClientNames)) {
+            for (val name : securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR)) {
+                if (lazyClients.contains(name)) {
+                    if (lazyNames.add(normalize(name))) {
+                        allowedClients.add(name);
+                    }
+                } else {
+                    val client = clients.findClient(name);
+                    if (client.isPresent() && !allowedClients.contains(client.get())) {
+                        allowedClients.add(client.get());
+                    }
+                }
+            }
+        }
+        LOGGER.debug("compiled clients: {}", allowedClients.stream()
+            .map(client -> client instanceof Client c ? c.getName() : client).collect(Collectors.toList()));
+        // the clients returned when a client is provided on the request
+        val singletons = new IdentityHashMap<Client, List<Client>>();
+        final List<Client> staticClients = new ArrayList<>();
+        for (val client : allowedClients) {
+            if (client instanceof Client c) {
+                singletons.put(c, List.of(c));
+                staticClients.add(c);
+            }
+        }
+        val allClients = lazyNames.isEmpty() ? List.copyOf(staticClients) : null;
+
+        return context -> {
+            if (allClients != null && allClients.isEmpty()) {
+                return allClients;
+            }
+            val clientOnRequest = context.getRequestParameter(clientNameParameter);
+            if (clientOnRequest.isPresent()) {
+                LOGGER.debug("clientNameOnRequest: {}", clientOnRequest);
+                if (lazyNames.contains(normalize(clientOnRequest.get()))) {
+                    return clients.findClient(clientOnRequest.get()).map(List::of).orElse(List.of());
+                }
+                val client = clients.findClient(clientOnRequest.get());
+                if (client.isPresent()) {
+                    val result = singletons.get(client.get());
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                return List.of();
+            }
+            if (allClients != null) {
+                return allClients;
+            }
+            final List<Client> result = new ArrayList<>(allowedClients.size());
+            for (val client : allowedClients) {
+                if (client instanceof Client c) {
+                    result.add(c);
+                } else {
+                    clients.findClient((String) client).ifPresent(result::add);
+                }
+            }
+            return result;
+        };
+    }
+
+    private static String normalize(final String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Compute the names of the clients securing the URL.
+     *
+     * @param clients the clients
+     * @param clientNames the client names
+     * @return the client names to use
+     */
+    protected String computeSecurityClientNames(final Clients clients, final String clientNames) {
+        var securityClientNames = clientNames;
+        // we don't have defined clients to secure the URL, use the general default security ones from the Clients if they exist
+        // we check the nullity and not the blankness to allow the blank string to mean no client
+        // so no clients parameter -> use the default security ones; clients=blank string -> no clients defined
+        LOGGER.debug("Provided clientNames: {}", securityClientNames);
+        if (securityClientNames == null) {
+            securityClientNames = clients.getDefaultSecurityClients();
+            LOGGER.debug("Default security clients: {}", securityClientNames);
+            // still no clients defined and we only have one client, use it
+            if (securityClientNames == null && clients.findAllClients().size() == 1) {
+                securityClientNames = clients.getClients().get(0).getName();
+                LOGGER.debug("Only client: {}", securityClientNames);
+            }
+        }
+        return securityClientNames;
+    }
 }
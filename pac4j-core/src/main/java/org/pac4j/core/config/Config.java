@@ -1,24 +1,44 @@
 package org.pac4j.core.config;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.With;
 import lombok.experimental.Accessors;
+import lombok.val;
 import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.authorization.authorizer.DefaultAuthorizers;
+import org.pac4j.core.authorization.authorizer.HmacCsrfAuthorizer;
+import org.pac4j.core.authorization.checker.AuthorizationChecker;
+import org.pac4j.core.authorization.checker.DefaultAuthorizationChecker;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
+import org.pac4j.core.client.ClientsWarmUp;
+import org.pac4j.core.client.finder.ClientFinder;
 import org.pac4j.core.context.WebContextFactory;
 import org.pac4j.core.context.session.SessionStoreFactory;
 import org.pac4j.core.engine.*;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
+import org.pac4j.core.matching.checker.DefaultMatchingChecker;
+import org.pac4j.core.matching.checker.MatchingChecker;
+import org.pac4j.core.matching.matcher.DefaultMatchers;
 import org.pac4j.core.matching.matcher.Matcher;
+import org.pac4j.core.matching.matcher.csrf.CsrfTokenGeneratorMatcher;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenSigner;
+import org.pac4j.core.profile.ProfileRenewalCoordinator;
 import org.pac4j.core.profile.factory.ProfileManagerFactory;
+import org.pac4j.core.util.BlockingOffloader;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.NamedRegistry;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The configuration with clients, authorizers, matchers, etc.
@@ -33,6 +53,9 @@ import java.util.Map;
 @Accessors(chain = true)
 public class Config {
 
+    /** The maximum number of cached security plans. */
+    public static final int MAX_SECURITY_PLANS = 1000;
+
     private Clients clients = new Clients();
 
     private Map<String, Authorizer> authorizers = new HashMap<>();
@@ -53,6 +76,18 @@ public class Config {
 
     private HttpActionAdapter httpActionAdapter;
 
+    /** The coordinator of the profile renewals (to configure through its own setters). */
+    private final ProfileRenewalCoordinator profileRenewalCoordinator = new ProfileRenewalCoordinator();
+
+    @Getter(AccessLevel.NONE)
+    private final Map<SecurityPlan.Key, CompiledSecurityPlan> securityPlans = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<NamedRegistry<Authorizer>> authorizersRegistry = new AtomicReference<>();
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<NamedRegistry<Matcher>> matchersRegistry = new AtomicReference<>();
+
     /**
      * <p>Constructor for Config.</p>
      */
@@ -198,6 +233,7 @@ public class Config {
      */
     public Config setClients(final Clients clients) {
         this.clients = clients;
+        clearSecurityPlans();
         return this;
     }
 
@@ -209,6 +245,50 @@ public class Config {
      */
     public Config addClient(final Client client) {
         this.clients.addClient(client);
+        clearSecurityPlans();
+        return this;
+    }
+
+    /**
+     * Initialize all the clients in parallel, in the background (see {@link ClientsWarmUp}).
+     *
+     * @param parallelism the number of clients initialized at the same time
+     * @param timeoutInMilliseconds the timeout of the initialization of each client
+     * @return the started warm-up, to check the readiness and the failures
+     */
+    public ClientsWarmUp warmUpClients(final int parallelism, final long timeoutInMilliseconds) {
+        val warmUp = new ClientsWarmUp(this.clients).setParallelism(parallelism).setTimeoutInMilliseconds(timeoutInMilliseconds);
+        warmUp.start();
+        return warmUp;
+    }
+
+    /**
+     * Run the blocking authenticators and profile creators of the clients on the default executor of the
+     * {@link BlockingOffloader} (virtual threads if available), with a bulkhead and a deadline per client.
+     * This also applies to the clients added later and to the lazy clients (see {@link Clients#offloadBlockingCalls(int, long)}).
+     *
+     * @param maxConcurrentCallsPerClient the maximum number of concurrent blocking calls per client
+     * @param deadlineInMilliseconds the deadline of each blocking call
+     * @return this configuration
+     */
+    public Config offloadBlockingCalls(final int maxConcurrentCallsPerClient, final long deadlineInMilliseconds) {
+        this.clients.offloadBlockingCalls(maxConcurrentCallsPerClient, deadlineInMilliseconds);
+        clearSecurityPlans();
+        return this;
+    }
+
+    /**
+     * Use stateless HMAC-signed CSRF tokens: register a {@link HmacCsrfTokenGenerator} (in a {@link CsrfTokenGeneratorMatcher})
+     * for the {@link DefaultMatchers#CSRF_TOKEN} matcher and a {@link HmacCsrfAuthorizer} for the
+     * {@link DefaultAuthorizers#CSRF_CHECK} authorizer, with the same signer. Nothing is saved in the web session anymore.
+     *
+     * @param signer the signer of the CSRF tokens
+     * @return this configuration
+     */
+    public Config useHmacCsrfTokens(final HmacCsrfTokenSigner signer) {
+        CommonHelper.assertNotNull("signer", signer);
+        addMatcher(DefaultMatchers.CSRF_TOKEN, new CsrfTokenGeneratorMatcher(new HmacCsrfTokenGenerator(signer)));
+        addAuthorizer(DefaultAuthorizers.CSRF_CHECK, new HmacCsrfAuthorizer(signer));
         return this;
     }
 
@@ -221,6 +301,7 @@ public class Config {
     public Config setAuthorizer(final Authorizer authorizer) {
         CommonHelper.assertNotNull("authorizer", authorizer);
         this.authorizers.put(authorizer.getClass().getSimpleName(), authorizer);
+        clearSecurityPlans();
         return this;
     }
 
@@ -233,6 +314,7 @@ public class Config {
     public Config setAuthorizers(final Map<String, Authorizer> authorizers) {
         CommonHelper.assertNotNull("authorizers", authorizers);
         this.authorizers = authorizers;
+        clearSecurityPlans();
         return this;
     }
 
@@ -245,6 +327,7 @@ public class Config {
      */
     public Config addAuthorizer(final String name, final Authorizer authorizer) {
         authorizers.put(name, authorizer);
+        clearSecurityPlans();
         return this;
     }
 
@@ -257,6 +340,7 @@ public class Config {
     public Config setMatcher(final Matcher matcher) {
         CommonHelper.assertNotNull("matcher", matcher);
         this.matchers.put(matcher.getClass().getSimpleName(), matcher);
+        clearSecurityPlans();
         return this;
     }
 
@@ -269,6 +353,7 @@ public class Config {
     public Config setMatchers(final Map<String, Matcher> matchers) {
         CommonHelper.assertNotNull("matchers", matchers);
         this.matchers = matchers;
+        clearSecurityPlans();
         return this;
     }
 
@@ -281,6 +366,7 @@ public class Config {
      */
     public Config addMatcher(final String name, final Matcher matcher) {
         matchers.put(name, matcher);
+        clearSecurityPlans();
         return this;
     }
 
@@ -361,6 +447,84 @@ public class Config {
         return this;
     }
 
+    /**
+     * Get the authorizers indexed by their trimmed and case-insensitive names, merged with the default authorizers.
+     *
+     * The registry is built again when the authorizers of the configuration change. If the map of authorizers is modified directly
+     * (and not through this configuration) without changing its size, {@link #clearSecurityPlans()} must be called.
+     *
+     * @return the authorizers registry
+     */
+    public NamedRegistry<Authorizer> getAuthorizersRegistry() {
+        return currentRegistry(authorizersRegistry, authorizers, DefaultAuthorizationChecker.DEFAULT_AUTHORIZERS);
+    }
+
+    /**
+     * Get the matchers indexed by their trimmed and case-insensitive names, merged with the default matchers.
+     *
+     * The registry is built again when the matchers of the configuration change. If the map of matchers is modified directly
+     * (and not through this configuration) without changing its size, {@link #clearSecurityPlans()} must be called.
+     *
+     * @return the matchers registry
+     */
+    public NamedRegistry<Matcher> getMatchersRegistry() {
+        return currentRegistry(matchersRegistry, matchers, DefaultMatchingChecker.DEFAULT_MATCHERS);
+    }
+
+    private static <V> NamedRegistry<V> currentRegistry(final AtomicReference<NamedRegistry<V>> reference, final Map<String, V> map,
+                                                        final Map<String, V> defaults) {
+        val registry = reference.get();
+        if (registry != null && registry.isBuiltFrom(map)) {
+            return registry;
+        }
+        val newRegistry = NamedRegistry.of(map, defaults);
+        reference.set(newRegistry);
+        return newRegistry;
+    }
+
+    /**
+     * Get the security plan compiled for the given components and <code>clients</code>, <code>authorizers</code>
+     * and <code>matchers</code> configuration.
+     *
+     * The plans are cached and compiled again when the clients, authorizers or matchers of the configuration change.
+     * Beyond {@link #MAX_SECURITY_PLANS} plans, the new ones are not compiled and evaluate the configuration on each request.
+     * If the maps of authorizers or matchers are modified directly (and not through this configuration)
+     * without changing their sizes, {@link #clearSecurityPlans()} must be called.
+     *
+     * @param clientFinder the client finder
+     * @param matchingChecker the matching checker
+     * @param authorizationChecker the authorization checker
+     * @param clients the clients
+     * @param authorizers the authorizers
+     * @param matchers the matchers
+     * @return the security plan
+     */
+    public SecurityPlan getSecurityPlan(final ClientFinder clientFinder, final MatchingChecker matchingChecker,
+                                        final AuthorizationChecker authorizationChecker, final String clients,
+                                        final String authorizers, final String matchers) {
+        val key = new SecurityPlan.Key(clientFinder, matchingChecker, authorizationChecker, clients, authorizers, matchers);
+        val compiled = securityPlans.get(key);
+        if (compiled != null && compiled.isValidFor(this)) {
+            return compiled.plan();
+        }
+        if (compiled == null && securityPlans.size() >= MAX_SECURITY_PLANS) {
+            // too many plans: evaluate the configuration on each request instead of compiling a plan each time
+            return SecurityPlan.uncompiled(this, key);
+        }
+        val newCompiled = new CompiledSecurityPlan(this, SecurityPlan.compile(this, key));
+        securityPlans.put(key, newCompiled);
+        return newCompiled.plan();
+    }
+
+    /**
+     * Clear the compiled security plans and the authorizers and matchers registries.
+     */
+    public void clearSecurityPlans() {
+        securityPlans.clear();
+        authorizersRegistry.set(null);
+        matchersRegistry.set(null);
+    }
+
     /**
      * <p>setSecurityLogicIfUndefined.</p>
      *
@@ -437,4 +601,33 @@ public class Config {
             setHttpActionAdapter(httpActionAdapter);
         }
     }
+
+    /**
+     * A compiled security plan and the state of the configuration it has been compiled against.
+     */
+    private record CompiledSecurityPlan(SecurityPlan plan, Clients clients, Map<String, Client> clientsMap, long lazyClientsVersion,
+                                        String defaultSecurityClients, NamedRegistry<Authorizer> authorizers,
+                                        NamedRegistry<Matcher> matchers) {
+
+        CompiledSecurityPlan(final Config config, final SecurityPlan plan) {
+            this(plan, config.clients, currentClientsMap(config.clients), config.clients.getLazyClients().getVersion(),
+                config.clients.getDefaultSecurityClients(), config.getAuthorizersRegistry(), config.getMatchersRegistry());
+        }
+
+        boolean isValidFor(final Config config) {
+            return config.clients == clients
+                && currentClientsMap(clients) == clientsMap
+                // the lazy clients are resolved by name on each request: only their definitions matter
+                && clients.getLazyClients().getVersion() == lazyClientsVersion
+                && Objects.equals(clients.getDefaultSecurityClients(), defaultSecurityClients)
+                && config.getAuthorizersRegistry() == authorizers
+                && config.getMatchersRegistry() == matchers;
+        }
+
+        private static Map<String, Client> currentClientsMap(final Clients clients) {
+            // the clients are re-initialized (with a new map) when they have changed
+            clients.init();
+            return clients.getClientsMap();
+        }
+    }
 }
@@ -11,7 +11,28 @@ import org.pac4j.core.profile.factory.ProfileManagerFactory;
  */
 public record CallContext(WebContext webContext, SessionStore sessionStore, ProfileManagerFactory profileManagerFactory) {
 
+    private static final CallContext DETACHED = new CallContext(null, null);
+
     public CallContext(final WebContext webContext, final SessionStore sessionStore) {
         this(webContext, sessionStore, ProfileManagerFactory.DEFAULT);
     }
+
+    /**
+     * Return the context of a call outliving its request (like a background renewal of a profile):
+     * it has no web context and no session store.
+     *
+     * @return the detached context
+     */
+    public static CallContext detached() {
+        return DETACHED;
+    }
+
+    /**
+     * Whether this context is the detached context (see {@link #detached()}).
+     *
+     * @return whether this context is detached
+     */
+    public boolean isDetached() {
+        return this == DETACHED;
+    }
 }
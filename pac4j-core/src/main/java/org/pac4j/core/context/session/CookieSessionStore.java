@@ -0,0 +1,510 @@
+package org.pac4j.core.context.session;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.generator.SecureRandomValueGenerator;
+import org.pac4j.core.util.serializer.CompressingSerializer;
+import org.pac4j.core.util.serializer.EncryptingSerializer;
+import org.pac4j.core.util.serializer.ProfileSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Stateless session store: the session data are saved in encrypted and authenticated cookies instead of the web session.
+ *
+ * <p>The session attributes are serialized, compressed and encrypted (by default with the {@link ProfileSerializer},
+ * the {@link CompressingSerializer} and the {@link EncryptingSerializer}), then split in cookies of at most
+ * {@link #maxChunkSize} characters: <code>pac4jSession</code>, <code>pac4jSession.1</code>, <code>pac4jSession.2</code>...
+ * When more than {@link #maxChunks} cookies would be necessary, the attributes are saved in the {@link #overflowStore}
+ * and the cookie only references them (or an exception is raised if no overflow store is defined).</p>
+ *
+ * <p>The cookies are read once per request (the decoded session is saved as a request attribute) and written once,
+ * by the {@link #commit(WebContext)} method, only if the session has changed. The pac4j logics commit the session before
+ * handing over the response: the code changing the session outside of them (for example once the access is granted)
+ * must call {@link #commit(WebContext)} before the response is committed.</p>
+ *
+ * <p>The encrypted payload contains the creation date of the session: the sessions older than {@link #maxLifetime}
+ * are rejected and the entries of the overflow store expire at the same time. As the cookies are the session, a destroyed
+ * session only disappears from the browser: its copied cookies remain valid until the end of its lifetime, unless it is
+ * saved in the overflow store. For the same reason, the session cannot be tracked to be destroyed later (back-channel logout)
+ * unless it is saved in the overflow store.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@ToString(onlyExplicitlyIncluded = true)
+public class CookieSessionStore implements SessionStore {
+
+    /** The name of the request attribute holding the decoded session. */
+    public static final String SESSION_REQUEST_ATTRIBUTE = "pac4jCookieSession";
+
+    private static final String ID_KEY = "$id";
+
+    private static final String OVERFLOW_KEY = "$overflow";
+
+    private static final String ISSUED_AT_KEY = "$iat";
+
+    private static final String CHUNK_SEPARATOR = ".";
+
+    @Getter
+    private final Serializer serializer;
+
+    /** The name of the (first) session cookie. */
+    @Getter
+    @Setter
+    @ToString.Include
+    private String cookieName = "pac4jSession";
+
+    /** The maximum size of the value of each cookie (the browsers limit the cookies to 4096 bytes). */
+    @Getter
+    @Setter
+    @ToString.Include
+    private int maxChunkSize = 3800;
+
+    /** The maximum number of cookies. */
+    @Getter
+    @Setter
+    @ToString.Include
+    private int maxChunks = 4;
+
+    /** The store of the sessions too large to be saved in the cookies (it must support the time to live). */
+    @Getter
+    @ToString.Include
+    private Store<String, Object> overflowStore;
+
+    @Getter
+    @Setter
+    private String path = "/";
+
+    @Getter
+    @Setter
+    private String domain;
+
+    @Getter
+    @Setter
+    private boolean secure = true;
+
+    @Getter
+    @Setter
+    private boolean httpOnly = true;
+
+    @Getter
+    @Setter
+    private String sameSitePolicy = "Lax";
+
+    /** The maximum age of the cookies in seconds (-1 for session cookies). */
+    @Getter
+    @Setter
+    private int maxAge = -1;
+
+    /** The maximum lifetime of a session in seconds, since its creation or renewal. */
+    @Getter
+    @Setter
+    @ToString.Include
+    private int maxLifetime = 8 * 3600;
+
+    /**
+     * <p>Constructor for CookieSessionStore.</p>
+     *
+     * @param keyId the identifier of the encryption key
+     * @param key the encryption key (16, 24 or 32 bytes)
+     */
+    public CookieSessionStore(final String keyId, final byte[] key) {
+        this(new EncryptingSerializer(new CompressingSerializer(new ProfileSerializer()), keyId, key));
+    }
+
+    /**
+     * <p>Constructor for CookieSessionStore.</p>
+     *
+     * @param serializer the serializer of the session, which must encrypt (or at least authenticate) the data
+     */
+    public CookieSessionStore(final Serializer serializer) {
+        CommonHelper.assertNotNull("serializer", serializer);
+        this.serializer = serializer;
+    }
+
+    /**
+     * Define the store of the sessions too large to be saved in the cookies.
+     *
+     * @param overflowStore the overflow store, which must support the time to live (its entries expire with the sessions)
+     */
+    public void setOverflowStore(final Store<String, Object> overflowStore) {
+        CommonHelper.assertTrue(overflowStore == null || overflowStore.isTimeToLiveSupported(),
+            "the overflow store must support the time to live");
+        this.overflowStore = overflowStore;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        val session = getSession(context);
+        if (session.id == null && createSession) {
+            start(session);
+            LOGGER.debug("Create session: {}", session.id);
+        }
+        return Optional.ofNullable(session.id);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        return Optional.ofNullable(getSession(context).attributes.get(key));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        CommonHelper.assertNotBlank("key", key);
+        val session = getSession(context);
+        if (value == null) {
+            if (session.attributes.remove(key) == null) {
+                return;
+            }
+        } else {
+            val previous = session.attributes.put(key, value);
+            // the same mutable instance may have been modified
+            if (Objects.equals(previous, value) && (previous != value || isImmutable(value))) {
+                return;
+            }
+            if (session.id == null) {
+                start(session);
+            }
+        }
+        LOGGER.debug("Session changed for key: {}", key);
+        session.dirty = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean destroySession(final WebContext context) {
+        val session = getSession(context);
+        if (session.overflowed && overflowStore != null) {
+            overflowStore.remove(session.id);
+        }
+        LOGGER.debug("Destroy session: {}", session.id);
+        session.id = null;
+        session.attributes.clear();
+        session.overflowed = false;
+        session.dirty = true;
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        val session = getSession(context);
+        if (session.overflowed) {
+            return Optional.of(session.id);
+        }
+        LOGGER.debug("No trackable session");
+        return Optional.empty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        if (trackableSession instanceof String id && overflowStore != null) {
+            return Optional.of(new OverflowSessionStore(this, id));
+        }
+        return Optional.empty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean renewSession(final WebContext context) {
+        val session = getSession(context);
+        if (session.overflowed && overflowStore != null) {
+            overflowStore.remove(session.id);
+        }
+        val oldId = session.id;
+        start(session);
+        LOGGER.debug("Renew session: {} -> {}", oldId, session.id);
+        return true;
+    }
+
+    /**
+     * Write the session in the response cookies if it has changed during the request.
+     *
+     * @param context the web context
+     */
+    @Override
+    public void commit(final WebContext context) {
+        val attribute = context.getRequestAttribute(SESSION_REQUEST_ATTRIBUTE);
+        if (attribute.isPresent() && ((CookieSession) attribute.get()).dirty) {
+            val session = (CookieSession) attribute.get();
+            // a failed write must not be retried for the same request
+            session.dirty = false;
+            save(context, session);
+        }
+    }
+
+    private void start(final CookieSession session) {
+        session.id = generateId();
+        session.issuedAt = System.currentTimeMillis();
+        session.dirty = true;
+    }
+
+    /**
+     * Get the session of the current request, decoded from the cookies the first time.
+     *
+     * @param context the web context
+     * @return the session
+     */
+    protected CookieSession getSession(final WebContext context) {
+        val attribute = context.getRequestAttribute(SESSION_REQUEST_ATTRIBUTE);
+        if (attribute.isPresent()) {
+            return (CookieSession) attribute.get();
+        }
+        val session = readSession(context);
+        context.setRequestAttribute(SESSION_REQUEST_ATTRIBUTE, session);
+        return session;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CookieSession readSession(final WebContext context) {
+        val session = new CookieSession();
+        final Map<String, String> values = new HashMap<>();
+        for (val cookie : context.getRequestCookies()) {
+            if (cookie.getName().startsWith(cookieName)) {
+                values.put(cookie.getName(), cookie.getValue());
+            }
+        }
+        val data = new StringBuilder();
+        while (values.containsKey(chunkName(session.nbChunks))) {
+            data.append(values.get(chunkName(session.nbChunks)));
+            session.nbChunks++;
+        }
+        if (data.length() == 0) {
+            return session;
+        }
+        Object decoded = null;
+        try {
+            decoded = serializer.deserializeFromBytes(Base64.getUrlDecoder().decode(data.toString()));
+        } catch (final IllegalArgumentException e) {
+            LOGGER.warn("Cannot decode session cookies: {}", e.getMessage());
+        }
+        if (!(decoded instanceof Map)) {
+            LOGGER.warn("Invalid session cookies: ignored");
+            return session;
+        }
+        var attributes = (Map<String, Object>) decoded;
+        val id = (String) attributes.get(ID_KEY);
+        if (!(attributes.get(ISSUED_AT_KEY) instanceof Long issuedAt) || remainingLifetime(issuedAt).isNegative()) {
+            LOGGER.warn("Session: {} expired or without creation date: ignored", id);
+            if (Boolean.TRUE.equals(attributes.get(OVERFLOW_KEY)) && overflowStore != null && id != null) {
+                overflowStore.remove(id);
+            }
+            // the stale cookies are removed
+            session.dirty = true;
+            return session;
+        }
+        if (Boolean.TRUE.equals(attributes.get(OVERFLOW_KEY))) {
+            val stored = overflowStore != null ? overflowStore.get(id) : Optional.empty();
+            if (stored.isEmpty()) {
+                LOGGER.warn("Session: {} not found in the overflow store", id);
+                return session;
+            }
+            attributes = (Map<String, Object>) stored.get();
+            session.overflowed = true;
+        }
+        session.id = id;
+        session.issuedAt = issuedAt;
+        session.attributes.putAll(attributes);
+        session.attributes.remove(ID_KEY);
+        session.attributes.remove(ISSUED_AT_KEY);
+        return session;
+    }
+
+    /**
+     * Write the session in the response cookies (or remove them if the session has been destroyed).
+     *
+     * @param context the web context
+     * @param session the session
+     */
+    protected void save(final WebContext context, final CookieSession session) {
+        var nbChunks = 0;
+        if (session.id != null) {
+            final Map<String, Object> data = new LinkedHashMap<>();
+            data.put(ID_KEY, session.id);
+            data.put(ISSUED_AT_KEY, session.issuedAt);
+            data.putAll(session.attributes);
+            var value = encode(data);
+            val wasOverflowed = session.overflowed;
+            session.overflowed = false;
+            if (value.length() > maxChunkSize * maxChunks) {
+                if (overflowStore == null) {
+                    throw new TechnicalException("Session too large for the cookies (" + value.length()
+                        + " characters) and no overflow store defined");
+                }
+                LOGGER.debug("Session: {} too large ({} characters): saved in the overflow store", session.id, value.length());
+                final Map<String, Object> stored = new LinkedHashMap<>(session.attributes);
+                stored.put(ISSUED_AT_KEY, session.issuedAt);
+                overflowStore.set(session.id, stored, overflowTimeToLive(session.issuedAt));
+                final Map<String, Object> reference = new LinkedHashMap<>();
+                reference.put(ID_KEY, session.id);
+                reference.put(ISSUED_AT_KEY, session.issuedAt);
+                reference.put(OVERFLOW_KEY, Boolean.TRUE);
+                value = encode(reference);
+                session.overflowed = true;
+            } else if (wasOverflowed && overflowStore != null) {
+                overflowStore.remove(session.id);
+            }
+
+            nbChunks = (value.length() + maxChunkSize - 1) / maxChunkSize;
+            for (var i = 0; i < nbChunks; i++) {
+                val chunk = value.substring(i * maxChunkSize, Math.min(value.length(), (i + 1) * maxChunkSize));
+                context.addResponseCookie(buildCookie(chunkName(i), chunk, maxAge));
+            }
+        }
+        for (var i = nbChunks; i < session.nbChunks; i++) {
+            context.addResponseCookie(buildCookie(chunkName(i), "", 0));
+        }
+        session.nbChunks = nbChunks;
+    }
+
+    private String encode(final Map<String, Object> data) {
+        val bytes = serializer.serializeToBytes(data);
+        if (bytes == null) {
+            throw new TechnicalException("Cannot serialize session");
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private Duration remainingLifetime(final long issuedAt) {
+        return Duration.ofMillis(issuedAt + maxLifetime * 1000L - System.currentTimeMillis());
+    }
+
+    private Duration overflowTimeToLive(final long issuedAt) {
+        val remaining = remainingLifetime(issuedAt);
+        return remaining.compareTo(Duration.ofSeconds(1)) < 0 ? Duration.ofSeconds(1) : remaining;
+    }
+
+    private static boolean isImmutable(final Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean;
+    }
+
+    private String chunkName(final int index) {
+        return index == 0 ? cookieName : cookieName + CHUNK_SEPARATOR + index;
+    }
+
+    private Cookie buildCookie(final String name, final String value, final int age) {
+        val cookie = new Cookie(name, value);
+        cookie.setPath(path);
+        cookie.setDomain(domain);
+        cookie.setSecure(secure);
+        cookie.setHttpOnly(httpOnly);
+        cookie.setSameSitePolicy(sameSitePolicy);
+        cookie.setMaxAge(age);
+        return cookie;
+    }
+
+    /**
+     * Generate a new session identifier.
+     *
+     * @return the session identifier
+     */
+    protected String generateId() {
+        return SecureRandomValueGenerator.randomString(32);
+    }
+
+    /**
+     * The session decoded from the cookies of a request.
+     */
+    protected static final class CookieSession {
+
+        private String id;
+
+        private long issuedAt;
+
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+        private int nbChunks;
+
+        private boolean overflowed;
+
+        private boolean dirty;
+    }
+
+    /**
+     * The session store of a session saved in the overflow store, used to destroy it (back-channel logout).
+     */
+    private static final class OverflowSessionStore implements SessionStore {
+
+        private final CookieSessionStore sessionStore;
+
+        private final Store<String, Object> store;
+
+        private final String id;
+
+        private OverflowSessionStore(final CookieSessionStore sessionStore, final String id) {
+            this.sessionStore = sessionStore;
+            this.store = sessionStore.overflowStore;
+            this.id = id;
+        }
+
+        @Override
+        public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+            return Optional.of(id);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Optional<Object> get(final WebContext context, final String key) {
+            return store.get(id).map(attributes -> ((Map<String, Object>) attributes).get(key));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void set(final WebContext context, final String key, final Object value) {
+            val stored = store.get(id);
+            if (stored.isPresent()) {
+                final Map<String, Object> attributes = new LinkedHashMap<>((Map<String, Object>) stored.get());
+                if (value == null) {
+                    attributes.remove(key);
+                } else {
+                    attributes.put(key, value);
+                }
+                if (attributes.get(ISSUED_AT_KEY) instanceof Long issuedAt) {
+                    store.set(id, attributes, sessionStore.overflowTimeToLive(issuedAt));
+                }
+            }
+        }
+
+        @Override
+        public boolean destroySession(final WebContext context) {
+            store.remove(id);
+            return true;
+        }
+
+        @Override
+        public Optional<Object> getTrackableSession(final WebContext context) {
+            return Optional.of(id);
+        }
+
+        @Override
+        public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean renewSession(final WebContext context) {
+            return false;
+        }
+    }
+}
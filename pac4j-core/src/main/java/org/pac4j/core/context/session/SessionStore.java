@@ -71,4 +71,13 @@ public interface SessionStore {
      * @return whether the session store has renewed the session
      */
     boolean renewSession(WebContext context);
+
+    /**
+     * Write the pending changes of the session in the response, for the session stores which defer them until the end
+     * of the request (like the {@link CookieSessionStore}). The logics call it before handing over the response.
+     *
+     * @param context the web context
+     */
+    default void commit(final WebContext context) {
+    }
 }
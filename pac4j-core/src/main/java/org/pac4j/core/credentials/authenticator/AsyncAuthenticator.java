@@ -0,0 +1,60 @@
+package org.pac4j.core.credentials.authenticator;
+
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.util.AsyncHelper;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * An authenticator validating the {@link Credentials} without blocking the calling thread.
+ * The returned stage should complete exceptionally with a {@link org.pac4j.core.exception.CredentialsException}
+ * if the authentication fails.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@FunctionalInterface
+public interface AsyncAuthenticator {
+
+    /**
+     * Validate the credentials asynchronously.
+     *
+     * @param ctx the context
+     * @param credentials the given credentials
+     * @return the stage of the credentials
+     */
+    CompletionStage<Optional<Credentials>> validateAsync(CallContext ctx, Credentials credentials);
+
+    /**
+     * Adapt a (blocking) authenticator: it is run on the given executor, unless it is already asynchronous.
+     *
+     * @param authenticator the authenticator
+     * @param executor the executor running the blocking authenticator
+     * @return the asynchronous authenticator
+     */
+    static AsyncAuthenticator fromBlocking(final Authenticator authenticator, final Executor executor) {
+        CommonHelper.assertNotNull("authenticator", authenticator);
+        if (authenticator instanceof AsyncAuthenticator asyncAuthenticator) {
+            return asyncAuthenticator;
+        }
+        CommonHelper.assertNotNull("executor", executor);
+        return (ctx, credentials) -> CompletableFuture.supplyAsync(() -> authenticator.validate(ctx, credentials), executor);
+    }
+
+    /**
+     * Adapt an asynchronous authenticator to use it where a (blocking) {@link Authenticator} is expected:
+     * the calling thread waits for the result.
+     *
+     * @param asyncAuthenticator the asynchronous authenticator
+     * @return the blocking authenticator
+     */
+    static Authenticator toBlocking(final AsyncAuthenticator asyncAuthenticator) {
+        CommonHelper.assertNotNull("asyncAuthenticator", asyncAuthenticator);
+        return (ctx, credentials) -> AsyncHelper.join(asyncAuthenticator.validateAsync(ctx, credentials));
+    }
+}
@@ -0,0 +1,55 @@
+package org.pac4j.core.credentials.authenticator;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.util.BlockingOffloader;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Authenticator running a blocking delegate (REST, LDAP, CAS ticket validation...) via a {@link BlockingOffloader},
+ * which enforces a maximum number of concurrent calls and a deadline.
+ *
+ * <p>The delegate may still run after the deadline, when the request is over: it must only use the credentials, not the
+ * web context or the session store of the given context.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@ToString
+public class BlockingOffloadAuthenticator implements Authenticator, AsyncAuthenticator {
+
+    private final Authenticator delegate;
+
+    private final BlockingOffloader offloader;
+
+    /**
+     * <p>Constructor for BlockingOffloadAuthenticator.</p>
+     *
+     * @param delegate the blocking authenticator
+     * @param offloader the offloader
+     */
+    public BlockingOffloadAuthenticator(final Authenticator delegate, final BlockingOffloader offloader) {
+        CommonHelper.assertNotNull("delegate", delegate);
+        CommonHelper.assertNotNull("offloader", offloader);
+        this.delegate = delegate;
+        this.offloader = offloader;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<Credentials> validate(final CallContext ctx, final Credentials credentials) {
+        return offloader.call(() -> delegate.validate(ctx, credentials));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Optional<Credentials>> validateAsync(final CallContext ctx, final Credentials credentials) {
+        return offloader.submit(() -> delegate.validate(ctx, credentials));
+    }
+}
@@ -1,5 +1,7 @@
 package org.pac4j.core.credentials.authenticator;
 
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -7,19 +9,46 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.store.Store;
 import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.serializer.JavaSerializer;
 
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * An authenticator that caches the result of an authentication based on the credentials.
  *
  * Add the <code>guava</code> dependency to use this class.
  *
+ * <p>Optionally:</p>
+ * <ul>
+ *     <li>the concurrent authentications of the same credentials which are not cached yet are coalesced: only one call to the
+ *     delegate is performed and its result is shared, the other requests waiting for it at most {@link #coalesceTimeout}
+ *     ({@link #coalesceRequests})</li>
+ *     <li>the cache is keyed on a SHA-256 digest of the credentials instead of the credentials themselves, so that no password or
+ *     token is retained in memory ({@link #hashCredentials}): the credentials other than the username/password and token ones
+ *     must then be serializable</li>
+ *     <li>the authentication failures ({@link CredentialsException}) are cached for a separate and usually shorter time
+ *     ({@link #negativeTimeout})</li>
+ * </ul>
+ *
  * @author Misagh Moayyed
  * @since 1.8
  */
@@ -36,6 +65,30 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
 
     private Store<Credentials, UserProfile> store;
 
+    /** Whether the cache is keyed on a digest of the credentials. */
+    private boolean hashCredentials;
+
+    /** Whether the concurrent authentications of the same credentials are coalesced. */
+    private boolean coalesceRequests;
+
+    /** The maximum time to wait for the in-flight authentication of the same credentials. */
+    private int coalesceTimeout = 30;
+
+    private TimeUnit coalesceTimeUnit = TimeUnit.SECONDS;
+
+    /** The timeout of the cached authentication failures (not cached if zero). */
+    private int negativeTimeout;
+
+    private TimeUnit negativeTimeUnit = TimeUnit.SECONDS;
+
+    private Store<Credentials, String> negativeStore;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final ConcurrentMap<Credentials, CompletableFuture<Optional<UserProfile>>> inflightAuthentications =
+        new ConcurrentHashMap<>();
+
     /**
      * <p>Constructor for LocalCachingAuthenticator.</p>
      */
@@ -73,27 +126,148 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
     public Optional<Credentials> validate(final CallContext ctx, final Credentials credentials) {
         init();
 
-        var optProfile = this.store.get(credentials);
-        if (optProfile.isEmpty()) {
-            LOGGER.debug("No cached credentials found. Delegating authentication to {}...", delegate);
-            delegate.validate(ctx, credentials);
-            val profile = credentials.getUserProfile();
-            LOGGER.debug("Caching credential. Using profile {}...", profile);
-            store.set(credentials, profile);
-        } else {
+        val key = computeKey(credentials);
+        val optProfile = this.store.get(key);
+        if (optProfile.isPresent()) {
             credentials.setUserProfile(optProfile.get());
             LOGGER.debug("Found cached credential. Using cached profile {}...", optProfile.get());
+            return Optional.of(credentials);
+        }
+
+        if (negativeStore != null) {
+            val optFailure = negativeStore.get(key);
+            if (optFailure.isPresent()) {
+                LOGGER.debug("Found cached authentication failure for credential");
+                throw new CredentialsException(optFailure.get());
+            }
+        }
+
+        if (!coalesceRequests) {
+            authenticate(ctx, credentials, key);
+            return Optional.of(credentials);
+        }
+
+        val authentication = new CompletableFuture<Optional<UserProfile>>();
+        val inflightAuthentication = inflightAuthentications.putIfAbsent(key, authentication);
+        if (inflightAuthentication != null) {
+            LOGGER.debug("Waiting for the in-flight authentication of the same credential...");
+            waitFor(inflightAuthentication).ifPresent(credentials::setUserProfile);
+            return Optional.of(credentials);
+        }
+        try {
+            authenticate(ctx, credentials, key);
+            authentication.complete(Optional.ofNullable(credentials.getUserProfile()));
+        } catch (final RuntimeException e) {
+            authentication.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflightAuthentications.remove(key, authentication);
         }
 
         return Optional.of(credentials);
     }
 
+    /**
+     * Authenticate the credentials with the delegate and cache the result.
+     *
+     * @param ctx the context
+     * @param credentials the credentials
+     * @param key the cache key
+     */
+    protected void authenticate(final CallContext ctx, final Credentials credentials, final Credentials key) {
+        LOGGER.debug("No cached credentials found. Delegating authentication to {}...", delegate);
+        try {
+            delegate.validate(ctx, credentials);
+        } catch (final CredentialsException e) {
+            if (negativeStore != null) {
+                LOGGER.debug("Caching authentication failure: {}", e.getMessage());
+                negativeStore.set(key, e.getMessage() != null ? e.getMessage() : Pac4jConstants.EMPTY_STRING);
+            }
+            throw e;
+        }
+        val profile = credentials.getUserProfile();
+        LOGGER.debug("Caching credential. Using profile {}...", profile);
+        store.set(key, profile);
+    }
+
+    private Optional<UserProfile> waitFor(final CompletableFuture<Optional<UserProfile>> authentication) {
+        try {
+            return authentication.get(coalesceTimeout, coalesceTimeUnit);
+        } catch (final TimeoutException e) {
+            throw new TechnicalException("No result of the in-flight authentication of the same credentials after: "
+                + coalesceTimeout + " " + coalesceTimeUnit);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof CredentialsException credentialsException) {
+                throw new CredentialsException(credentialsException.getMessage());
+            } else if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new TechnicalException(e.getCause());
+        }
+    }
+
+    /**
+     * Compute the cache key for the credentials: the credentials themselves or their digest.
+     *
+     * @param credentials the credentials
+     * @return the cache key
+     */
+    protected Credentials computeKey(final Credentials credentials) {
+        if (!hashCredentials) {
+            return credentials;
+        }
+        try {
+            val digest = MessageDigest.getInstance("SHA-256");
+            digest.update(credentials.getClass().getName().getBytes(StandardCharsets.UTF_8));
+            if (credentials instanceof UsernamePasswordCredentials usernamePasswordCredentials) {
+                update(digest, usernamePasswordCredentials.getUsername());
+                update(digest, usernamePasswordCredentials.getPassword());
+            } else if (credentials instanceof TokenCredentials tokenCredentials) {
+                update(digest, tokenCredentials.getToken());
+            } else {
+                val bytes = new JavaSerializer().serializeToBytes(credentials);
+                if (bytes == null) {
+                    throw new TechnicalException("Cannot hash the credentials (not serializable): " + credentials.getClass().getName());
+                }
+                digest.update(bytes);
+            }
+            return new HashedCredentials(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+        } else {
+            val bytes = value.getBytes(StandardCharsets.UTF_8);
+            digest.update((byte) 1);
+            digest.update(new byte[] {(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                (byte) (bytes.length >>> 8), (byte) bytes.length});
+            digest.update(bytes);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void internalInit(final boolean forceReinit) {
         if (this.store == null) {
             this.store = new GuavaStore<>(cacheSize, timeout, timeUnit);
         }
+        if (this.negativeStore == null && this.negativeTimeout > 0) {
+            this.negativeStore = new GuavaStore<>(cacheSize, negativeTimeout, negativeTimeUnit);
+        }
+        // initialize the stores now: they must not be lazily initialized by concurrent requests
+        if (this.store instanceof InitializableObject initializableStore) {
+            initializableStore.init();
+        }
+        if (this.negativeStore instanceof InitializableObject initializableNegativeStore) {
+            initializableNegativeStore.init();
+        }
 
         if (delegate instanceof InitializableObject initializableObject) {
             initializableObject.init(forceReinit);
@@ -106,7 +280,11 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
      * @param credentials a {@link Credentials} object
      */
     public void removeFromCache(final Credentials credentials) {
-        this.store.remove(credentials);
+        val key = computeKey(credentials);
+        this.store.remove(key);
+        if (this.negativeStore != null) {
+            this.negativeStore.remove(key);
+        }
     }
 
     /**
@@ -116,6 +294,23 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
      * @return a boolean
      */
     public boolean isCached(final Credentials credentials) {
-        return this.store.get(credentials).isPresent();
+        return this.store.get(computeKey(credentials)).isPresent();
+    }
+
+    /**
+     * The digest of some credentials, used as a cache key.
+     */
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    public static final class HashedCredentials extends Credentials {
+
+        @Serial
+        private static final long serialVersionUID = 2471542297166263425L;
+
+        private final byte[] digest;
+
+        private HashedCredentials(final byte[] digest) {
+            this.digest = digest;
+        }
     }
 }
@@ -58,6 +58,36 @@ public abstract class AbstractExceptionAwareLogic {
         }
     }
 
+    /**
+     * Write the pending changes of the session before handing over the response.
+     *
+     * @param ctx the context
+     */
+    protected void commitSession(final CallContext ctx) {
+        val sessionStore = ctx.sessionStore();
+        if (sessionStore != null) {
+            sessionStore.commit(ctx.webContext());
+        }
+    }
+
+    /**
+     * Write the pending changes of the session while an exception is handled: a failure of the commit is logged
+     * and added to the handled exception as a suppressed one, instead of replacing it.
+     *
+     * @param ctx the context
+     * @param cause the handled exception
+     */
+    protected void commitSessionOnError(final CallContext ctx, final Exception cause) {
+        try {
+            commitSession(ctx);
+        } catch (final RuntimeException e) {
+            LOGGER.error("Cannot commit the session while handling: {}", cause.toString(), e);
+            if (e != cause) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
     /**
      * Wrap an Exception into a RuntimeException.
      *
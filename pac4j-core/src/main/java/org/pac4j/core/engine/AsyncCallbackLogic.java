@@ -0,0 +1,30 @@
+package org.pac4j.core.engine;
+
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.FrameworkParameters;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Callback logic to finish the login process for an indirect client, without blocking the calling thread
+ * (for example, an event loop).
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@FunctionalInterface
+public interface AsyncCallbackLogic {
+
+    /**
+     * Perform the callback logic asynchronously.
+     *
+     * @param config the security configuration
+     * @param defaultUrl the default url
+     * @param renewSession whether the session must be renewed
+     * @param defaultClient the default client
+     * @param parameters framework parameters
+     * @return the stage of the resulting action of the callback
+     */
+    CompletionStage<Object> performAsync(Config config, String defaultUrl, Boolean renewSession, String defaultClient,
+                                         FrameworkParameters parameters);
+}
@@ -0,0 +1,30 @@
+package org.pac4j.core.engine;
+
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.FrameworkParameters;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Security logic to protect an url, without blocking the calling thread (for example, an event loop).
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@FunctionalInterface
+public interface AsyncSecurityLogic {
+
+    /**
+     * Perform the security logic asynchronously.
+     *
+     * @param config the configuration
+     * @param securityGrantedAccessAdapter the success adapter (it may return a {@link CompletionStage})
+     * @param clients the defined clients
+     * @param authorizers the defined authorizers
+     * @param matchers the defined matchers
+     * @param parameters framework parameters
+     * @return the stage of the resulting action of the security
+     */
+    CompletionStage<Object> performAsync(Config config, SecurityGrantedAccessAdapter securityGrantedAccessAdapter, String clients,
+                                         String authorizers, String matchers, FrameworkParameters parameters);
+}
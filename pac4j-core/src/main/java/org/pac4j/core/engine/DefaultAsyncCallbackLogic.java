@@ -0,0 +1,145 @@
+package org.pac4j.core.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.credentials.authenticator.AsyncAuthenticator;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.profile.creator.AsyncProfileCreator;
+import org.pac4j.core.util.AsyncHelper;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Default asynchronous callback logic: only the validation of the credentials and the creation of the profile
+ * (through the {@link AsyncAuthenticator} and {@link AsyncProfileCreator} adapters) are run on the given executor.
+ * Everything else (including the web context and session store accesses) runs on the {@link #callerExecutor}
+ * or, if none is defined, on the calling thread before the offloaded calls and on the thread completing them after.</p>
+ * <p>This requires the {@link DefaultCallbackLogic} itself: for a subclass or another callback logic, the whole callback logic
+ * is run on the executor. If the callback logic is itself an {@link AsyncCallbackLogic}, it is called directly.</p>
+ * <p>The credentials validation and the profile creation of the clients still receive the context: the clients accessing
+ * the web context or the session store in these steps (like the indirect clients, remembering the failed authentication
+ * attempts in the session) require a web context and a session store usable from the executor.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@Slf4j
+@ToString
+@Accessors(chain = true)
+public class DefaultAsyncCallbackLogic implements AsyncCallbackLogic {
+
+    private CallbackLogic callbackLogic = DefaultCallbackLogic.INSTANCE;
+
+    private Executor executor;
+
+    /** The executor of the calling context, running everything except the offloaded calls (optional). */
+    private Executor callerExecutor;
+
+    /**
+     * <p>Constructor for DefaultAsyncCallbackLogic.</p>
+     *
+     * @param executor the executor running the credentials validation and the profile creation
+     */
+    public DefaultAsyncCallbackLogic(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * <p>Constructor for DefaultAsyncCallbackLogic.</p>
+     *
+     * @param callbackLogic the callback logic
+     * @param executor the executor running the credentials validation and the profile creation
+     */
+    public DefaultAsyncCallbackLogic(final CallbackLogic callbackLogic, final Executor executor) {
+        this.callbackLogic = callbackLogic;
+        this.executor = executor;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Object> performAsync(final Config config, final String defaultUrl, final Boolean renewSession,
+                                                final String defaultClient, final FrameworkParameters parameters) {
+        CommonHelper.assertNotNull("callbackLogic", callbackLogic);
+        if (callbackLogic instanceof AsyncCallbackLogic asyncCallbackLogic) {
+            return asyncCallbackLogic.performAsync(config, defaultUrl, renewSession, defaultClient, parameters);
+        }
+        CommonHelper.assertNotNull("executor", executor);
+        if (callbackLogic.getClass() == DefaultCallbackLogic.class) {
+            return performStaged((DefaultCallbackLogic) callbackLogic, config, defaultUrl, renewSession, defaultClient, parameters);
+        }
+        return CompletableFuture.supplyAsync(() -> callbackLogic.perform(config, defaultUrl, renewSession, defaultClient, parameters),
+            executor).thenCompose(DefaultAsyncSecurityLogic::flatten);
+    }
+
+    private CompletionStage<Object> performStaged(final DefaultCallbackLogic logic, final Config config, final String defaultUrl,
+                                                  final Boolean renewSession, final String defaultClient,
+                                                  final FrameworkParameters parameters) {
+        LOGGER.debug("=== ASYNC CALLBACK ===");
+        final CallContext ctx;
+        CompletionStage<DefaultCallbackLogic.Authentication> authentication;
+        try {
+            ctx = logic.buildContext(config, parameters);
+            CommonHelper.assertNotNull("httpActionAdapter", config.getHttpActionAdapter());
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            authentication = authenticate(logic, config, ctx, defaultClient);
+        } catch (final RuntimeException e) {
+            authentication = CompletableFuture.failedFuture(e);
+        }
+        return authentication.handle(Result::new).thenCompose(DefaultAsyncSecurityLogic.onCaller(callerExecutor, result -> {
+            if (result.error() != null) {
+                val cause = AsyncHelper.unwrap(result.error());
+                logic.commitSessionOnError(ctx, cause);
+                return DefaultAsyncSecurityLogic.flatten(logic.handleException(cause, config.getHttpActionAdapter(),
+                    ctx.webContext()));
+            }
+            return DefaultAsyncSecurityLogic.flatten(logic.perform(config, defaultUrl, renewSession, defaultClient, ctx,
+                result.authentication()));
+        }));
+    }
+
+    private CompletionStage<DefaultCallbackLogic.Authentication> authenticate(final DefaultCallbackLogic logic, final Config config,
+                                                                              final CallContext ctx, final String defaultClient) {
+        if (logic.getClientFinder() == null || config.getClients() == null) {
+            // reported by the callback logic
+            return CompletableFuture.completedFuture(null);
+        }
+        val foundClients = logic.findClients(config.getClients(), ctx.webContext(), defaultClient);
+        if (foundClients == null || foundClients.size() != 1 || foundClients.get(0) == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        val client = foundClients.get(0);
+        val credentials = client.getCredentials(ctx).orElse(null);
+        LOGGER.debug("extracted credentials: {}", credentials);
+        if (credentials == null) {
+            return CompletableFuture.completedFuture(new DefaultCallbackLogic.Authentication(client, null, Optional.empty()));
+        }
+        val authenticator = AsyncAuthenticator.fromBlocking(client::validateCredentials, executor);
+        val profileCreator = AsyncProfileCreator.fromBlocking(client::getUserProfile, executor);
+        return authenticator.validateAsync(ctx, credentials).thenCompose(validated -> {
+            if (validated.isPresent() && validated.get().isForAuthentication()) {
+                return profileCreator.createAsync(ctx, validated.get())
+                    .thenApply(profile -> new DefaultCallbackLogic.Authentication(client, validated.get(), profile));
+            }
+            return CompletableFuture.completedFuture(new DefaultCallbackLogic.Authentication(client, validated.orElse(null),
+                Optional.<UserProfile>empty()));
+        });
+    }
+
+    private record Result(DefaultCallbackLogic.Authentication authentication, Throwable error) {}
+}
@@ -0,0 +1,223 @@
+package org.pac4j.core.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.client.DirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.credentials.authenticator.AsyncAuthenticator;
+import org.pac4j.core.profile.ProfileManager;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.profile.creator.AsyncProfileCreator;
+import org.pac4j.core.util.AsyncHelper;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * <p>Default asynchronous security logic: only the validation of the credentials and the creation of the profiles of the
+ * direct clients (through the {@link AsyncAuthenticator} and {@link AsyncProfileCreator} adapters) are run on the given
+ * executor. Everything else (including the web context and session store accesses and the success adapter) runs on the
+ * {@link #callerExecutor} (for example, the event loop of the request) or, if none is defined, on the calling thread
+ * before the first offloaded call and on the thread completing the offloaded calls after.</p>
+ * <p>This requires the {@link DefaultSecurityLogic} itself (loading the profiles from the session): for a subclass or another
+ * security logic, the whole security logic is run on the executor, and so are the web context and session store accesses and
+ * the success adapter. If the security logic is itself an {@link AsyncSecurityLogic}, it is called directly. If the success
+ * adapter returns a {@link CompletionStage}, the returned stage completes with its result.</p>
+ * <p>The credentials validation and the profile creation of the clients still receive the context: the clients accessing
+ * the web context or the session store in these steps require a web context and a session store usable from the executor.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@Slf4j
+@ToString
+@Accessors(chain = true)
+public class DefaultAsyncSecurityLogic implements AsyncSecurityLogic {
+
+    private SecurityLogic securityLogic = DefaultSecurityLogic.INSTANCE;
+
+    private Executor executor;
+
+    /** The executor of the calling context, running everything except the offloaded calls (optional). */
+    private Executor callerExecutor;
+
+    /**
+     * <p>Constructor for DefaultAsyncSecurityLogic.</p>
+     *
+     * @param executor the executor running the credentials validation and the profile creation
+     */
+    public DefaultAsyncSecurityLogic(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * <p>Constructor for DefaultAsyncSecurityLogic.</p>
+     *
+     * @param securityLogic the security logic
+     * @param executor the executor running the credentials validation and the profile creation
+     */
+    public DefaultAsyncSecurityLogic(final SecurityLogic securityLogic, final Executor executor) {
+        this.securityLogic = securityLogic;
+        this.executor = executor;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Object> performAsync(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
+                                                final String clients, final String authorizers, final String matchers,
+                                                final FrameworkParameters parameters) {
+        CommonHelper.assertNotNull("securityLogic", securityLogic);
+        if (securityLogic instanceof AsyncSecurityLogic asyncSecurityLogic) {
+            return asyncSecurityLogic.performAsync(config, securityGrantedAccessAdapter, clients, authorizers, matchers, parameters);
+        }
+        CommonHelper.assertNotNull("executor", executor);
+        if (securityLogic.getClass() == DefaultSecurityLogic.class && ((DefaultSecurityLogic) securityLogic).isLoadProfilesFromSession()) {
+            return performStaged((DefaultSecurityLogic) securityLogic, config, securityGrantedAccessAdapter, clients, authorizers,
+                matchers, parameters);
+        }
+        return CompletableFuture.supplyAsync(() -> securityLogic.perform(config, securityGrantedAccessAdapter, clients, authorizers,
+            matchers, parameters), executor).thenCompose(DefaultAsyncSecurityLogic::flatten);
+    }
+
+    private CompletionStage<Object> performStaged(final DefaultSecurityLogic logic, final Config config,
+                                                  final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
+                                                  final String clients, final String authorizers, final String matchers,
+                                                  final FrameworkParameters parameters) {
+        LOGGER.debug("=== ASYNC SECURITY ===");
+        final CallContext ctx;
+        CompletionStage<Authentication> authentication;
+        try {
+            ctx = logic.buildContext(config, parameters);
+            CommonHelper.assertNotNull("httpActionAdapter", config.getHttpActionAdapter());
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            authentication = authenticate(logic, config, ctx, clients, authorizers, matchers);
+        } catch (final RuntimeException e) {
+            authentication = CompletableFuture.failedFuture(e);
+        }
+        return authentication.handle(Result::new).thenCompose(onCaller(callerExecutor, result -> {
+            if (result.error() != null) {
+                val cause = AsyncHelper.unwrap(result.error());
+                logic.commitSessionOnError(ctx, cause);
+                return flatten(logic.handleException(cause, config.getHttpActionAdapter(), ctx.webContext()));
+            }
+            // the clients are not found and the matchers not evaluated again
+            return flatten(logic.performAfterMatching(config, securityGrantedAccessAdapter, authorizers,
+                result.authentication().matching(), ctx, false, result.authentication().profiles()));
+        }));
+    }
+
+    private CompletionStage<Authentication> authenticate(final DefaultSecurityLogic logic, final Config config,
+                                                         final CallContext ctx, final String clients, final String authorizers,
+                                                         final String matchers) {
+        val matching = logic.match(config, clients, authorizers, matchers, ctx);
+        val currentClients = matching.currentClients();
+        if (!matching.matches() || CommonHelper.isEmpty(currentClients)) {
+            return CompletableFuture.completedFuture(new Authentication(matching, null));
+        }
+        val manager = ctx.profileManagerFactory().apply(ctx.webContext(), ctx.sessionStore());
+        manager.setConfig(config);
+        val profiles = logic.loadProfiles(ctx, manager, currentClients);
+        if (CommonHelper.isNotEmpty(profiles)) {
+            return CompletableFuture.completedFuture(new Authentication(matching, profiles));
+        }
+        // the profiles are loaded again by the security logic after the authentication
+        return authenticate(ctx, manager, currentClients, 0).thenApply(v -> new Authentication(matching, null));
+    }
+
+    private CompletionStage<Void> authenticate(final CallContext ctx, final ProfileManager manager, final List<Client> currentClients,
+                                               final int index) {
+        if (index >= currentClients.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!(currentClients.get(index) instanceof DirectClient directClient)) {
+            return authenticate(ctx, manager, currentClients, index + 1);
+        }
+        LOGGER.debug("Performing authentication for direct client: {}", directClient);
+        val credentials = directClient.getCredentials(ctx).orElse(null);
+        if (credentials == null) {
+            return authenticate(ctx, manager, currentClients, index + 1);
+        }
+        val authenticator = AsyncAuthenticator.fromBlocking(directClient::validateCredentials, executor);
+        val profileCreator = AsyncProfileCreator.fromBlocking(directClient::getUserProfile, executor);
+        return authenticator.validateAsync(ctx, credentials).thenCompose(validated -> {
+            LOGGER.debug("credentials: {}", validated);
+            if (validated.isPresent() && validated.get().isForAuthentication()) {
+                return profileCreator.createAsync(ctx, validated.get());
+            }
+            return CompletableFuture.completedFuture(Optional.<UserProfile>empty());
+        }).thenCompose(onCaller(callerExecutor, optProfile -> {
+            LOGGER.debug("profile: {}", optProfile);
+            if (optProfile.isPresent()) {
+                val profile = optProfile.get();
+                val webContext = ctx.webContext();
+                val saveProfileInSession = directClient.getSaveProfileInSession(webContext, profile);
+                val multiProfile = directClient.isMultiProfile(webContext, profile);
+                LOGGER.debug("saveProfileInSession: {} / multiProfile: {}", saveProfileInSession, multiProfile);
+                manager.save(saveProfileInSession, profile, multiProfile);
+                if (!multiProfile) {
+                    return CompletableFuture.completedFuture(null);
+                }
+            }
+            return authenticate(ctx, manager, currentClients, index + 1);
+        }));
+    }
+
+    /**
+     * Run a continuation on the executor of the calling context if it is defined.
+     *
+     * @param callerExecutor the executor of the calling context (optional)
+     * @param continuation the continuation
+     * @param <T> the type of the input
+     * @param <U> the type of the result
+     * @return the continuation to compose
+     */
+    static <T, U> Function<T, CompletionStage<U>> onCaller(final Executor callerExecutor,
+                                                           final Function<T, CompletionStage<U>> continuation) {
+        if (callerExecutor == null) {
+            return continuation;
+        }
+        return input -> CompletableFuture.supplyAsync(() -> continuation.apply(input), callerExecutor)
+            .thenCompose(Function.identity());
+    }
+
+    /**
+     * Return the stage of a result, which may already be a stage.
+     *
+     * @param result the result
+     * @return the stage of the result
+     */
+    @SuppressWarnings("unchecked")
+    static CompletionStage<Object> flatten(final Object result) {
+        if (result instanceof CompletionStage<?> stage) {
+            return (CompletionStage<Object>) stage;
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * The result of the matching and the profiles loaded from the session, if any (<code>null</code> to load them again).
+     *
+     * @param matching the result of the matching
+     * @param profiles the loaded profiles
+     */
+    private record Authentication(DefaultSecurityLogic.Matching matching, List<UserProfile> profiles) {}
+
+    private record Result(Authentication authentication, Throwable error) {}
+}
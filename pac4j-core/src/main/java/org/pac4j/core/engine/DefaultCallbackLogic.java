@@ -7,18 +7,26 @@ import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.client.BaseClient;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.client.Clients;
 import org.pac4j.core.client.finder.ClientFinder;
 import org.pac4j.core.client.finder.DefaultCallbackClientFinder;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.engine.savedrequest.DefaultSavedRequestHandler;
 import org.pac4j.core.engine.savedrequest.SavedRequestHandler;
 import org.pac4j.core.exception.http.HttpAction;
+import org.pac4j.core.metrics.MetricsHelper;
+import org.pac4j.core.metrics.Pac4jMetrics;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.Pac4jConstants;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -53,6 +61,22 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
 
         // checks
         val ctx = buildContext(config, parameters);
+        return perform(config, inputDefaultUrl, inputRenewSession, defaultClient, ctx, null);
+    }
+
+    /**
+     * Perform the callback logic in the given context.
+     *
+     * @param config the configuration
+     * @param inputDefaultUrl the default url
+     * @param inputRenewSession whether the session must be renewed
+     * @param defaultClient the default client
+     * @param ctx the context
+     * @param authentication the authentication already performed for the client of the callback (optional)
+     * @return the resulting action for the callback
+     */
+    Object perform(final Config config, final String inputDefaultUrl, final Boolean inputRenewSession, final String defaultClient,
+                   final CallContext ctx, final Authentication authentication) {
         val webContext = ctx.webContext();
         val httpActionAdapter = config.getHttpActionAdapter();
         assertNotNull("httpActionAdapter", httpActionAdapter);
@@ -70,7 +94,7 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             val clients = config.getClients();
             assertNotNull("clients", clients);
 
-            val foundClients = clientFinder.find(clients, webContext, defaultClient);
+            val foundClients = findClients(clients, webContext, defaultClient);
             assertTrue(foundClients != null && foundClients.size() == 1,
                 "unable to find one indirect client for the callback: check the callback URL for a client name parameter or suffix path"
                     + " or ensure that your configuration defaults to one indirect client");
@@ -78,9 +102,15 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             LOGGER.debug("foundClient: {}", foundClient);
             assertNotNull("foundClient", foundClient);
 
-            var credentials = foundClient.getCredentials(ctx).orElse(null);
-            LOGGER.debug("extracted credentials: {}", credentials);
-            credentials = foundClient.validateCredentials(ctx, credentials).orElse(null);
+            val authenticated = authentication != null && authentication.client() == foundClient;
+            Credentials credentials;
+            if (authenticated) {
+                credentials = authentication.credentials();
+            } else {
+                credentials = foundClient.getCredentials(ctx).orElse(null);
+                LOGGER.debug("extracted credentials: {}", credentials);
+                credentials = foundClient.validateCredentials(ctx, credentials).orElse(null);
+            }
             LOGGER.debug("validated credentials: {}", credentials);
 
             if (credentials != null && !credentials.isForAuthentication()) {
@@ -90,7 +120,7 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             } else {
 
                 if (credentials != null) {
-                    val optProfile = foundClient.getUserProfile(ctx, credentials);
+                    val optProfile = authenticated ? authentication.profile() : foundClient.getUserProfile(ctx, credentials);
                     LOGGER.debug("optProfile: {}", optProfile);
                     if (optProfile.isPresent()) {
                         val profile = optProfile.get();
@@ -104,13 +134,33 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
                 action = redirectToOriginallyRequestedUrl(ctx, defaultUrl);
             }
 
+            commitSession(ctx);
         } catch (final RuntimeException e) {
+            commitSessionOnError(ctx, e);
             return handleException(e, httpActionAdapter, webContext);
         }
 
         return httpActionAdapter.adapt(action, webContext);
     }
 
+    List<Client> findClients(final Clients clients, final WebContext webContext, final String defaultClient) {
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        String clientName = null;
+        try {
+            val foundClients = clientFinder.find(clients, webContext, defaultClient);
+            if (foundClients != null && foundClients.size() == 1 && foundClients.get(0) != null) {
+                outcome = Pac4jMetrics.Outcome.SUCCESS;
+                clientName = foundClients.get(0).getName();
+            } else {
+                outcome = Pac4jMetrics.Outcome.FAILURE;
+            }
+            return foundClients;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.CLIENT_FINDING, clientName, outcome, t0);
+        }
+    }
+
     /**
      * <p>saveUserProfile.</p>
      *
@@ -180,4 +230,13 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
     protected HttpAction redirectToOriginallyRequestedUrl(final CallContext ctx, final String defaultUrl) {
         return savedRequestHandler.restore(ctx, defaultUrl);
     }
+
+    /**
+     * The credentials validated (and the profile created) for the client of the callback, ahead of the callback logic.
+     *
+     * @param client the client
+     * @param credentials the validated credentials (optional)
+     * @param profile the created profile (optional)
+     */
+    record Authentication(Client client, Credentials credentials, Optional<UserProfile> profile) {}
 }
@@ -123,7 +123,9 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
                 }
             }
 
+            commitSession(ctx);
         } catch (final RuntimeException e) {
+            commitSessionOnError(ctx, e);
             return handleException(e, httpActionAdapter, webContext);
         }
 
@@ -16,6 +16,8 @@ import org.pac4j.core.client.finder.DefaultSecurityClientFinder;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.engine.savedrequest.DefaultSavedRequestHandler;
 import org.pac4j.core.engine.savedrequest.SavedRequestHandler;
 import org.pac4j.core.exception.http.ForbiddenAction;
@@ -23,6 +25,8 @@ import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.http.ajax.AjaxRequestResolver;
 import org.pac4j.core.matching.checker.DefaultMatchingChecker;
 import org.pac4j.core.matching.checker.MatchingChecker;
+import org.pac4j.core.metrics.MetricsHelper;
+import org.pac4j.core.metrics.Pac4jMetrics;
 import org.pac4j.core.profile.ProfileManager;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.HttpActionHelper;
@@ -70,6 +74,8 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
 
     private boolean loadProfilesFromSession = true;
 
+    private boolean useSecurityPlans = true;
+
     /** {@inheritDoc} */
     @Override
     public Object perform(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
@@ -79,37 +85,104 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
 
         // checks
         val ctx = buildContext(config, parameters);
-        val webContext = ctx.webContext();
-        val sessionStore = ctx.sessionStore();
+        return perform(config, securityGrantedAccessAdapter, clients, authorizers, matchers, ctx, true);
+    }
+
+    /**
+     * Perform the security logic in the given context.
+     *
+     * @param config the configuration
+     * @param securityGrantedAccessAdapter the success adapter
+     * @param clients the defined clients
+     * @param authorizers the defined authorizers
+     * @param matchers the defined matchers
+     * @param ctx the context
+     * @param authenticateDirectClients whether the direct clients must be tried
+     * @return the resulting action of the security
+     */
+    Object perform(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter, final String clients,
+                   final String authorizers, final String matchers, final CallContext ctx, final boolean authenticateDirectClients) {
         val httpActionAdapter = config.getHttpActionAdapter();
         assertNotNull("httpActionAdapter", httpActionAdapter);
 
-        HttpAction action;
+        final Matching matching;
         try {
-            assertNotNull("clientFinder", clientFinder);
-            assertNotNull("authorizationChecker", authorizationChecker);
-            assertNotNull("matchingChecker", matchingChecker);
+            matching = match(config, clients, authorizers, matchers, ctx);
+        } catch (final Exception e) {
+            commitSessionOnError(ctx, e);
+            return handleException(e, httpActionAdapter, ctx.webContext());
+        }
+        return performAfterMatching(config, securityGrantedAccessAdapter, authorizers, matching, ctx, authenticateDirectClients, null);
+    }
 
-            val configClients = config.getClients();
-            assertNotNull("configClients", configClients);
+    /**
+     * Find the current clients and evaluate the matchers.
+     *
+     * @param config the configuration
+     * @param clients the defined clients
+     * @param authorizers the defined authorizers
+     * @param matchers the defined matchers
+     * @param ctx the context
+     * @return the result of the matching
+     */
+    Matching match(final Config config, final String clients, final String authorizers, final String matchers,
+                   final CallContext ctx) {
+        assertNotNull("clientFinder", clientFinder);
+        assertNotNull("authorizationChecker", authorizationChecker);
+        assertNotNull("matchingChecker", matchingChecker);
 
-            // logic
-            LOGGER.debug("url: {}", webContext.getFullRequestURL());
-            LOGGER.debug("clients: {} | matchers: {}", clients, matchers);
-            val currentClients = clientFinder.find(configClients, webContext, clients);
-            LOGGER.debug("currentClients: {}", currentClients);
+        val configClients = config.getClients();
+        assertNotNull("configClients", configClients);
 
-            if (matchingChecker.matches(ctx, matchers, config.getMatchers(), currentClients)) {
+        val webContext = ctx.webContext();
+        LOGGER.debug("url: {}", webContext.getFullRequestURL());
+        LOGGER.debug("clients: {} | matchers: {}", clients, matchers);
+        val plan = securityPlan(config, clients, authorizers, matchers);
+        val currentClients = findClients(plan, webContext, clients);
+        LOGGER.debug("currentClients: {}", currentClients);
+        return new Matching(plan, currentClients, matches(plan, ctx, currentClients, clients));
+    }
+
+    /**
+     * Perform the security logic once the current clients have been found and the matchers evaluated.
+     *
+     * @param config the configuration
+     * @param securityGrantedAccessAdapter the success adapter
+     * @param authorizers the defined authorizers
+     * @param matching the result of the matching
+     * @param ctx the context
+     * @param authenticateDirectClients whether the direct clients must be tried (<code>false</code> if it has already been done)
+     * @param loadedProfiles the profiles already loaded from the session (<code>null</code> to load them)
+     * @return the resulting action of the security
+     */
+    Object performAfterMatching(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
+                                final String authorizers, final Matching matching, final CallContext ctx,
+                                final boolean authenticateDirectClients, final List<UserProfile> loadedProfiles) {
+        val webContext = ctx.webContext();
+        val sessionStore = ctx.sessionStore();
+        val httpActionAdapter = config.getHttpActionAdapter();
+
+        HttpAction action;
+        try {
+            val plan = matching.plan();
+            val currentClients = matching.currentClients();
+
+            if (matching.matches()) {
 
                 val manager = ctx.profileManagerFactory().apply(webContext, sessionStore);
                 manager.setConfig(config);
-                var profiles = this.loadProfilesFromSession
-                    ? loadProfiles(ctx, manager, currentClients)
-                    : List.<UserProfile>of();
+                List<UserProfile> profiles;
+                if (loadedProfiles != null) {
+                    profiles = loadedProfiles;
+                } else {
+                    profiles = this.loadProfilesFromSession
+                        ? loadProfiles(ctx, manager, currentClients)
+                        : List.<UserProfile>of();
+                }
                 LOGGER.debug("Loaded profiles (from session: {}): {} ", this.loadProfilesFromSession, profiles);
 
                 // no profile and some current clients
-                if (isEmpty(profiles) && isNotEmpty(currentClients)) {
+                if (authenticateDirectClients && isEmpty(profiles) && isNotEmpty(currentClients)) {
                     var updated = false;
                     // loop on all clients searching direct ones to perform authentication
                     for (val currentClient : currentClients) {
@@ -145,9 +218,9 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                 // we have profile(s) -> check authorizations; otherwise, redirect to identity provider or 401
                 if (isNotEmpty(profiles)) {
                     LOGGER.debug("authorizers: {}", authorizers);
-                    if (authorizationChecker.isAuthorized(webContext, sessionStore, profiles,
-                                                          authorizers, config.getAuthorizers(), currentClients)) {
+                    if (isAuthorized(plan, webContext, sessionStore, profiles, currentClients)) {
                         LOGGER.debug("authenticated and authorized -> grant access");
+                        commitSession(ctx);
                         return securityGrantedAccessAdapter.adapt(webContext, sessionStore, profiles);
                     } else {
                         LOGGER.debug("forbidden");
@@ -167,16 +240,75 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             } else {
 
                 LOGGER.debug("no matching for this request -> grant access");
+                commitSession(ctx);
                 return securityGrantedAccessAdapter.adapt(webContext, sessionStore, Collections.emptyList());
             }
 
+            commitSession(ctx);
         } catch (final Exception e) {
+            commitSessionOnError(ctx, e);
             return handleException(e, httpActionAdapter, webContext);
         }
 
         return httpActionAdapter.adapt(action, webContext);
     }
 
+    /**
+     * Get the security plan: the compiled and cached one if the security plans are used,
+     * otherwise one evaluating the configuration on each request.
+     *
+     * @param config the configuration
+     * @param clients the clients
+     * @param authorizers the authorizers
+     * @param matchers the matchers
+     * @return the security plan
+     */
+    protected SecurityPlan securityPlan(final Config config, final String clients, final String authorizers, final String matchers) {
+        if (useSecurityPlans) {
+            return config.getSecurityPlan(clientFinder, matchingChecker, authorizationChecker, clients, authorizers, matchers);
+        }
+        return SecurityPlan.uncompiled(config,
+            new SecurityPlan.Key(clientFinder, matchingChecker, authorizationChecker, clients, authorizers, matchers));
+    }
+
+    private static List<Client> findClients(final SecurityPlan plan, final WebContext webContext, final String clients) {
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            val currentClients = plan.getClientFinder().find(webContext);
+            outcome = MetricsHelper.outcome(isNotEmpty(currentClients));
+            return currentClients;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.CLIENT_FINDING, clients, outcome, t0);
+        }
+    }
+
+    private static boolean matches(final SecurityPlan plan, final CallContext ctx, final List<Client> currentClients,
+                                   final String clients) {
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            val matches = plan.getMatchingChecker().matches(ctx, currentClients);
+            outcome = MetricsHelper.outcome(matches);
+            return matches;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.MATCHING, clients, outcome, t0);
+        }
+    }
+
+    private static boolean isAuthorized(final SecurityPlan plan, final WebContext webContext, final SessionStore sessionStore,
+                                        final List<UserProfile> profiles, final List<Client> currentClients) {
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            val authorized = plan.getAuthorizationChecker().isAuthorized(webContext, sessionStore, profiles, currentClients);
+            outcome = MetricsHelper.outcome(authorized);
+            return authorized;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.AUTHORIZATION, profiles.get(0).getClientName(), outcome, t0);
+        }
+    }
+
     /**
      * Load the profiles.
      *
@@ -250,4 +382,13 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
     protected HttpAction unauthorized(final CallContext ctx, final List<Client> currentClients) {
         return HttpActionHelper.buildUnauthenticatedAction(ctx.webContext());
     }
+
+    /**
+     * The result of the matching: the security plan, the current clients and whether the request matches.
+     *
+     * @param plan the security plan
+     * @param currentClients the current clients
+     * @param matches whether the request matches
+     */
+    record Matching(SecurityPlan plan, List<Client> currentClients, boolean matches) {}
 }
@@ -0,0 +1,73 @@
+package org.pac4j.core.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.pac4j.core.authorization.checker.AuthorizationChecker;
+import org.pac4j.core.client.finder.ClientFinder;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.matching.checker.MatchingChecker;
+
+/**
+ * The security plan compiled for a given <code>clients</code>, <code>authorizers</code> and <code>matchers</code> configuration:
+ * the names are resolved once and only the request-dependent decisions remain to be evaluated for each request.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString(onlyExplicitlyIncluded = true)
+public final class SecurityPlan {
+
+    @ToString.Include
+    private final Key key;
+
+    private final ClientFinder.Compiled clientFinder;
+
+    private final MatchingChecker.Compiled matchingChecker;
+
+    private final AuthorizationChecker.Compiled authorizationChecker;
+
+    /**
+     * Compile a security plan against the clients, authorizers and matchers of the configuration.
+     *
+     * @param config the configuration
+     * @param key the key of the plan
+     * @return the security plan
+     */
+    public static SecurityPlan compile(final Config config, final Key key) {
+        return new SecurityPlan(key,
+            key.clientFinder().compile(config.getClients(), key.clients()),
+            key.matchingChecker().compile(key.matchers(), config.getMatchersRegistry()),
+            key.authorizationChecker().compile(key.authorizers(), config.getAuthorizersRegistry()));
+    }
+
+    /**
+     * Build a security plan evaluating the configuration on each request, without compiling anything.
+     *
+     * @param config the configuration
+     * @param key the key of the plan
+     * @return the security plan
+     */
+    public static SecurityPlan uncompiled(final Config config, final Key key) {
+        return new SecurityPlan(key,
+            context -> key.clientFinder().find(config.getClients(), context, key.clients()),
+            (ctx, currentClients) -> key.matchingChecker().matches(ctx, key.matchers(), config.getMatchersRegistry(), currentClients),
+            (context, sessionStore, profiles, currentClients) -> key.authorizationChecker().isAuthorized(context, sessionStore, profiles,
+                key.authorizers(), config.getAuthorizersRegistry(), currentClients));
+    }
+
+    /**
+     * The key of a security plan: the components and the configuration used to compile it.
+     *
+     * @param clientFinder the client finder
+     * @param matchingChecker the matching checker
+     * @param authorizationChecker the authorization checker
+     * @param clients the clients
+     * @param authorizers the authorizers
+     * @param matchers the matchers
+     */
+    public record Key(ClientFinder clientFinder, MatchingChecker matchingChecker, AuthorizationChecker authorizationChecker,
+                      String clients, String authorizers, String matchers) {}
+}
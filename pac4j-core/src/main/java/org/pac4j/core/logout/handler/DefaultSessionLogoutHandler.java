@@ -13,6 +13,9 @@ import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.store.Store;
 import org.pac4j.core.util.CommonHelper;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -65,8 +68,10 @@ public class DefaultSessionLogoutHandler implements SessionLogoutHandler {
                     val trackableSession = optTrackableSession.get();
                     LOGGER.debug("key: {} -> trackableSession: {}", key, trackableSession);
                     LOGGER.debug("sessionId: {}", sessionId);
-                    store.set(key, trackableSession);
-                    store.set(sessionId, key);
+                    final Map<String, Object> values = new LinkedHashMap<>();
+                    values.put(key, trackableSession);
+                    values.put(sessionId, key);
+                    store.setAll(values);
                 } else {
                     LOGGER.debug("No trackable session for the current session store: {}", sessionStore);
                 }
@@ -162,8 +167,7 @@ public class DefaultSessionLogoutHandler implements SessionLogoutHandler {
         LOGGER.debug("oldSessionId: {} -> key: {}", oldSessionId, optKey);
         if (optKey.isPresent()) {
             val key = (String) optKey.get();
-            store.remove(key);
-            store.remove(oldSessionId);
+            store.removeAll(List.of(key, oldSessionId));
             recordSession(ctx, key);
         }
     }
@@ -9,9 +9,11 @@ import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.matching.matcher.*;
 import org.pac4j.core.matching.matcher.csrf.CsrfTokenGeneratorMatcher;
 import org.pac4j.core.matching.matcher.csrf.DefaultCsrfTokenGenerator;
+import org.pac4j.core.util.NamedRegistry;
 import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -61,6 +63,22 @@ public class DefaultMatchingChecker implements MatchingChecker {
         CORS_MATCHER.setAllowMethods(methods);
     }
 
+    /** The built-in matchers by name. */
+    public static final Map<String, Matcher> DEFAULT_MATCHERS = Map.ofEntries(
+        Map.entry(DefaultMatchers.HSTS, STRICT_TRANSPORT_MATCHER),
+        Map.entry(DefaultMatchers.NOSNIFF, X_CONTENT_TYPE_OPTIONS_MATCHER),
+        Map.entry(DefaultMatchers.NOFRAME, X_FRAME_OPTIONS_MATCHER),
+        Map.entry(DefaultMatchers.XSSPROTECTION, XSS_PROTECTION_MATCHER),
+        Map.entry(DefaultMatchers.NOCACHE, CACHE_CONTROL_MATCHER),
+        Map.entry(DefaultMatchers.CSRF_TOKEN, CSRF_TOKEN_MATCHER),
+        Map.entry(DefaultMatchers.ALLOW_AJAX_REQUESTS, CORS_MATCHER),
+        Map.entry(DefaultMatchers.GET, GET_MATCHER),
+        Map.entry(DefaultMatchers.POST, POST_MATCHER),
+        Map.entry(DefaultMatchers.PUT, PUT_MATCHER),
+        Map.entry(DefaultMatchers.DELETE, DELETE_MATCHER));
+
+    private static final NamedRegistry<Matcher> DEFAULT_MATCHERS_REGISTRY = NamedRegistry.of(Map.of(), DEFAULT_MATCHERS);
+
     /** {@inheritDoc} */
     @Override
     public boolean matches(final CallContext ctx, final String matchersValue,
@@ -70,6 +88,41 @@ public class DefaultMatchingChecker implements MatchingChecker {
         return matches(ctx, matchers);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The matchers are computed once for each request-dependent variant (whether the CSRF token is required or not).
+     * They are evaluated again on each call if this checker is not {@link #isCompilable() compilable}.
+     */
+    @Override
+    public Compiled compile(final String matchersValue, final Map<String, Matcher> matchersMap) {
+        if (!isCompilable()) {
+            return MatchingChecker.super.compile(matchersValue, matchersMap);
+        }
+        val dynamic = isBlank(matchersValue) || matchersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT);
+        val variants = new AtomicReferenceArray<List<Matcher>>(2);
+        return (ctx, clients) -> {
+            val variant = dynamic && isCsrfTokenRequired(ctx, clients) ? 1 : 0;
+            var matchers = variants.get(variant);
+            if (matchers == null) {
+                matchers = List.copyOf(computeMatchers(ctx, matchersValue, matchersMap, clients));
+                variants.set(variant, matchers);
+            }
+            return matches(ctx, matchers);
+        };
+    }
+
+    /**
+     * Whether the matchers computed by the protected methods can be cached by {@link #compile(String, Map)}, which assumes
+     * that they only depend on whether the CSRF token is required. It is only the case for this class by default:
+     * subclasses must override this method to return <code>true</code> if their computations satisfy the same condition.
+     *
+     * @return whether this checker can be compiled
+     */
+    protected boolean isCompilable() {
+        return getClass() == DefaultMatchingChecker.class;
+    }
+
     /**
      * <p>computeMatchers.</p>
      *
@@ -103,18 +156,29 @@ public class DefaultMatchingChecker implements MatchingChecker {
      */
     protected String computeDefaultMatcherNames(final CallContext ctx, final Iterable<Client> clients,
                                                 final Map<String, Matcher> matchersMap) {
-        String name = DefaultMatchers.SECURITYHEADERS;
+        if (isCsrfTokenRequired(ctx, clients)) {
+            return DefaultMatchers.SECURITYHEADERS + Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
+        }
+        return DefaultMatchers.SECURITYHEADERS;
+    }
+
+    /**
+     * Whether the CSRF token must be generated by default: if a web session exists or if an indirect client is used.
+     *
+     * @param ctx a {@link CallContext} object
+     * @param clients a {@link List} object
+     * @return whether the CSRF token is required
+     */
+    protected boolean isCsrfTokenRequired(final CallContext ctx, final Iterable<Client> clients) {
         if (ctx.sessionStore().getSessionId(ctx.webContext(), false).isPresent()) {
-            name += Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
-            return name;
+            return true;
         }
         for (val client : clients) {
             if (client instanceof IndirectClient) {
-                name += Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
-                return name;
+                return true;
             }
         }
-        return name;
+        return false;
     }
 
     /**
@@ -156,47 +220,31 @@ public class DefaultMatchingChecker implements MatchingChecker {
     /**
      * <p>retrieveMatchers.</p>
      *
+     * The lookup is performed in constant time when the matchers map is a {@link NamedRegistry}
+     * (like {@link org.pac4j.core.config.Config#getMatchersRegistry()}).
+     *
      * @param matcherName a {@link String} object
      * @param matchersMap a {@link Map} object
      * @return a {@link List} object
      */
     protected List<Matcher> retrieveMatchers(final String matcherName, final Map<String, Matcher> matchersMap) {
-        final List<Matcher> results = new ArrayList<>();
-        for (val entry : matchersMap.entrySet()) {
-            if (areEqualsIgnoreCaseAndTrim(entry.getKey(), matcherName)) {
-                results.add(entry.getValue());
-                break;
+        Matcher matcher = null;
+        if (matchersMap instanceof NamedRegistry<Matcher> registry) {
+            matcher = registry.lookup(matcherName);
+        } else {
+            for (val entry : matchersMap.entrySet()) {
+                if (areEqualsIgnoreCaseAndTrim(entry.getKey(), matcherName)) {
+                    matcher = entry.getValue();
+                    break;
+                }
             }
-        }
-        if (results.size() == 0) {
-            if (DefaultMatchers.HSTS.equalsIgnoreCase(matcherName)) {
-                return List.of(STRICT_TRANSPORT_MATCHER);
-            } else if (DefaultMatchers.NOSNIFF.equalsIgnoreCase(matcherName)) {
-                return List.of(X_CONTENT_TYPE_OPTIONS_MATCHER);
-            } else if (DefaultMatchers.NOFRAME.equalsIgnoreCase(matcherName)) {
-                return List.of(X_FRAME_OPTIONS_MATCHER);
-            } else if (DefaultMatchers.XSSPROTECTION.equalsIgnoreCase(matcherName)) {
-                return List.of(XSS_PROTECTION_MATCHER);
-            } else if (DefaultMatchers.NOCACHE.equalsIgnoreCase(matcherName)) {
-                return List.of(CACHE_CONTROL_MATCHER);
-            } else if (DefaultMatchers.CSRF_TOKEN.equalsIgnoreCase(matcherName)) {
-                return List.of(CSRF_TOKEN_MATCHER);
-            } else if (DefaultMatchers.ALLOW_AJAX_REQUESTS.equalsIgnoreCase(matcherName)) {
-                return List.of(CORS_MATCHER);
-            } else if (DefaultMatchers.GET.equalsIgnoreCase(matcherName)) {
-                return List.of(GET_MATCHER);
-            } else if (DefaultMatchers.POST.equalsIgnoreCase(matcherName)) {
-                return List.of(POST_MATCHER);
-            } else if (DefaultMatchers.PUT.equalsIgnoreCase(matcherName)) {
-                return List.of(PUT_MATCHER);
-            } else if (DefaultMatchers.DELETE.equalsIgnoreCase(matcherName)) {
-                return List.of(DELETE_MATCHER);
+            if (matcher == null) {
+                matcher = DEFAULT_MATCHERS_REGISTRY.lookup(matcherName);
             }
         }
-        return results;
+        return matcher != null ? List.of(matcher) : List.of();
     }
 
-
     /**
      * <p>matches.</p>
      *
@@ -26,4 +26,33 @@ public interface MatchingChecker {
      * @return whether the web context matches
      */
     boolean matches(CallContext ctx, String matcherNames, Map<String, Matcher> matchersMap, List<Client> clients);
+
+    /**
+     * Compile the matcher names into a checker dedicated to them.
+     *
+     * By default, the matcher names are evaluated again on each call.
+     *
+     * @param matcherNames the matchers
+     * @param matchersMap the map of matchers
+     * @return the compiled checker
+     */
+    default Compiled compile(final String matcherNames, final Map<String, Matcher> matchersMap) {
+        return (ctx, clients) -> matches(ctx, matcherNames, matchersMap, clients);
+    }
+
+    /**
+     * A matching checker compiled for some given matchers.
+     */
+    @FunctionalInterface
+    interface Compiled {
+
+        /**
+         * Check if the web context matches.
+         *
+         * @param ctx the context
+         * @param clients the clients
+         * @return whether the web context matches
+         */
+        boolean matches(CallContext ctx, List<Client> clients);
+    }
 }
@@ -8,13 +8,16 @@ import org.pac4j.core.context.CallContext;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * Matches all request paths except whitelisted (excluded) paths.
  *
+ * The paths are compiled on first use: the branches and the included paths are indexed in radix tries
+ * and the remaining regular expressions are combined into a single one.
+ *
  * @author Rob Ward
  * @since 2.0.0
  */
@@ -27,6 +30,16 @@ public class PathMatcher implements Matcher {
     @Getter
     private final Set<Pattern> excludedPatterns = new HashSet<>();
 
+    @ToString.Exclude
+    private final Map<Pattern, String> excludedBranches = new IdentityHashMap<>();
+
+    @ToString.Exclude
+    private volatile CompiledPaths compiledPaths;
+
+    private static final String REGEX_SPECIAL_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\(\\d|k<)");
+
     private static boolean warnedRegexp;
     private static boolean warnedInclude;
 
@@ -72,6 +85,7 @@ public class PathMatcher implements Matcher {
         warnInclude();
         validatePath(path);
         includedPaths.add(path);
+        compiledPaths = null;
         return this;
     }
 
@@ -99,7 +113,12 @@ public class PathMatcher implements Matcher {
     public PathMatcher excludeBranch(final String path) {
         warnRegexp();
         validatePath(path);
-        excludedPatterns.add(Pattern.compile("^" + path + "(/.*)?$"));
+        val pattern = Pattern.compile("^" + path + "(/.*)?$");
+        excludedPatterns.add(pattern);
+        if (isLiteral(path)) {
+            excludedBranches.put(pattern, path);
+        }
+        compiledPaths = null;
         return this;
     }
 
@@ -119,6 +138,7 @@ public class PathMatcher implements Matcher {
         }
 
         excludedPatterns.add(Pattern.compile(regex));
+        compiledPaths = null;
         return this;
     }
 
@@ -155,15 +175,11 @@ public class PathMatcher implements Matcher {
 
         LOGGER.debug("request path to match: {}", requestPath);
 
-        if (!includedPaths.isEmpty()) {
-            for (val path : includedPaths) {
-                // accepts any request path starting with the included path
-                if (requestPath != null && requestPath.startsWith(path)) {
-                    return true;
-                }
-            }
+        val compiled = compiledPaths();
 
-            return false;
+        if (!compiled.includedPaths().isEmpty()) {
+            // accepts any request path starting with an included path
+            return requestPath != null && compiled.includedPaths().matches(requestPath);
         }
 
         // just exclude the exact matching request path
@@ -171,7 +187,12 @@ public class PathMatcher implements Matcher {
             return false;
         }
 
-        for (val pattern : excludedPatterns) {
+        // exclude the branches
+        if (requestPath != null && compiled.excludedBranches().matches(requestPath)) {
+            return false;
+        }
+
+        for (val pattern : compiled.excludedPatterns()) {
             if (pattern.matcher(requestPath).matches()) {
                 return false;
             }
@@ -180,6 +201,67 @@ public class PathMatcher implements Matcher {
         return true;
     }
 
+    private CompiledPaths compiledPaths() {
+        val compiled = compiledPaths;
+        // the sets may have been modified through their getters
+        if (compiled != null && compiled.isValidFor(this)) {
+            return compiled;
+        }
+        val newCompiled = compile();
+        compiledPaths = newCompiled;
+        return newCompiled;
+    }
+
+    private CompiledPaths compile() {
+        val included = new PathTrie();
+        for (val path : includedPaths) {
+            included.add(path, PathTrie.PREFIX);
+        }
+        val excluded = new PathTrie();
+        final List<Pattern> patterns = new ArrayList<>();
+        for (val pattern : excludedPatterns) {
+            val branch = excludedBranches.get(pattern);
+            if (branch != null) {
+                excluded.add(branch, PathTrie.BRANCH);
+            } else {
+                patterns.add(pattern);
+            }
+        }
+        return new CompiledPaths(included, excluded, combine(patterns), includedPaths.size(), excludedPatterns.size());
+    }
+
+    // combine the regular expressions into a single one when possible (no flags and no back reference)
+    private static List<Pattern> combine(final List<Pattern> patterns) {
+        if (patterns.size() <= 1) {
+            return List.copyOf(patterns);
+        }
+        val regex = new StringBuilder();
+        for (val pattern : patterns) {
+            if (pattern.flags() != 0 || BACK_REFERENCE.matcher(pattern.pattern()).find()) {
+                return List.copyOf(patterns);
+            }
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            regex.append("(?:").append(pattern.pattern()).append(')');
+        }
+        try {
+            return List.of(Pattern.compile(regex.toString()));
+        } catch (final PatternSyntaxException e) {
+            LOGGER.debug("Cannot combine the regular expressions: {}", e.getMessage());
+            return List.copyOf(patterns);
+        }
+    }
+
+    private static boolean isLiteral(final String path) {
+        for (var i = 0; i < path.length(); i++) {
+            if (REGEX_SPECIAL_CHARACTERS.indexOf(path.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * <p>Setter for the field <code>excludedPaths</code>.</p>
      *
@@ -197,6 +279,8 @@ public class PathMatcher implements Matcher {
      */
     public void setExcludedPatterns(Iterable<String> regularExpressions) {
         excludedPatterns.clear();
+        excludedBranches.clear();
+        compiledPaths = null;
         regularExpressions.forEach(this::excludeRegex);
     }
 
@@ -217,6 +301,8 @@ public class PathMatcher implements Matcher {
      */
     public void setExcludedPattern(final String regularExpression) {
         excludedPatterns.clear();
+        excludedBranches.clear();
+        compiledPaths = null;
         excludeRegex(regularExpression);
     }
 
@@ -226,4 +312,13 @@ public class PathMatcher implements Matcher {
             throw new TechnicalException("Excluded path must begin with a /");
         }
     }
+
+    // the compiled paths and the sizes of the sets they have been compiled from
+    private record CompiledPaths(PathTrie includedPaths, PathTrie excludedBranches, List<Pattern> excludedPatterns,
+                                   int nbIncludedPaths, int nbExcludedPatterns) {
+
+        boolean isValidFor(final PathMatcher matcher) {
+            return matcher.includedPaths.size() == nbIncludedPaths && matcher.excludedPatterns.size() == nbExcludedPatterns;
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package org.pac4j.core.matching.matcher;
+
+import lombok.val;
+
+import java.util.Arrays;
+
+/**
+ * A radix trie of paths, matching branches (the path and its sub-paths) and prefixes.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+final class PathTrie {
+
+    /** The path and any path starting with the path followed by a slash. */
+    static final int BRANCH = 1;
+
+    /** Any path starting with the path. */
+    static final int PREFIX = 2;
+
+    private final Node root = new Node("", 0);
+
+    private boolean empty = true;
+
+    /**
+     * Add a path.
+     *
+     * @param path the path
+     * @param flag the kind of matching for this path
+     */
+    void add(final String path, final int flag) {
+        empty = false;
+        var node = root;
+        var i = 0;
+        while (i < path.length()) {
+            val index = node.indexOf(path.charAt(i));
+            if (index < 0) {
+                node.addChild(new Node(path.substring(i), flag));
+                return;
+            }
+            val child = node.children[index];
+            val common = commonPrefixLength(child.label, path, i);
+            if (common < child.label.length()) {
+                // split the edge
+                val middle = new Node(child.label.substring(0, common), 0);
+                child.label = child.label.substring(common);
+                middle.addChild(child);
+                node.children[index] = middle;
+                node = middle;
+            } else {
+                node = child;
+            }
+            i += common;
+        }
+        node.flags |= flag;
+    }
+
+    /**
+     * Whether the trie is empty.
+     *
+     * @return whether the trie is empty
+     */
+    boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Whether the path is matched by one of the paths of the trie.
+     *
+     * @param path the path
+     * @return whether the path matches
+     */
+    boolean matches(final String path) {
+        var node = root;
+        var i = 0;
+        while (true) {
+            if (node.matchesAt(path, i)) {
+                return true;
+            }
+            if (i == path.length()) {
+                return false;
+            }
+            val index = node.indexOf(path.charAt(i));
+            if (index < 0) {
+                return false;
+            }
+            node = node.children[index];
+            if (!path.startsWith(node.label, i)) {
+                return false;
+            }
+            i += node.label.length();
+        }
+    }
+
+    private static int commonPrefixLength(final String label, final String path, final int offset) {
+        val max = Math.min(label.length(), path.length() - offset);
+        var i = 0;
+        while (i < max && label.charAt(i) == path.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        private String label;
+
+        private int flags;
+
+        private char[] firstChars = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private Node(final String label, final int flags) {
+            this.label = label;
+            this.flags = flags;
+        }
+
+        private int indexOf(final char c) {
+            return Arrays.binarySearch(firstChars, c);
+        }
+
+        private void addChild(final Node child) {
+            val c = child.label.charAt(0);
+            val insertion = -indexOf(c) - 1;
+            val newFirstChars = new char[firstChars.length + 1];
+            val newChildren = new Node[children.length + 1];
+            System.arraycopy(firstChars, 0, newFirstChars, 0, insertion);
+            System.arraycopy(children, 0, newChildren, 0, insertion);
+            newFirstChars[insertion] = c;
+            newChildren[insertion] = child;
+            System.arraycopy(firstChars, insertion, newFirstChars, insertion + 1, firstChars.length - insertion);
+            System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+            firstChars = newFirstChars;
+            children = newChildren;
+        }
+
+        private boolean matchesAt(final String path, final int i) {
+            if ((flags & PREFIX) != 0) {
+                return true;
+            }
+            if (i == path.length()) {
+                return (flags & BRANCH) != 0;
+            }
+            // like the "(/.*)?" regular expression: the dot does not match line terminators
+            return (flags & BRANCH) != 0 && path.charAt(i) == '/' && !containsLineTerminator(path, i + 1);
+        }
+
+        private static boolean containsLineTerminator(final String path, final int start) {
+            for (var i = start; i < path.length(); i++) {
+                val c = path.charAt(i);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.util.CommonHelper;
+
+/**
+ * Stateless CSRF token generator: the tokens are signed for the web session identifier and an expiration date,
+ * so nothing is saved in the web session.
+ *
+ * To replace the default generator, use {@link org.pac4j.core.config.Config#useHmacCsrfTokens(HmacCsrfTokenSigner)}: it defines
+ * this generator in a {@link CsrfTokenGeneratorMatcher} for the {@link org.pac4j.core.matching.matcher.DefaultMatchers#CSRF_TOKEN}
+ * name and the {@link org.pac4j.core.authorization.authorizer.HmacCsrfAuthorizer} for
+ * the {@link org.pac4j.core.authorization.authorizer.DefaultAuthorizers#CSRF_CHECK} name, with the same signer.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@Setter
+public class HmacCsrfTokenGenerator implements CsrfTokenGenerator {
+
+    // 4 hours
+    private int ttlInSeconds = 4*60*60;
+
+    private HmacCsrfTokenSigner signer;
+
+    /**
+     * <p>Constructor for HmacCsrfTokenGenerator.</p>
+     *
+     * @param signer the token signer
+     */
+    public HmacCsrfTokenGenerator(final HmacCsrfTokenSigner signer) {
+        this.signer = signer;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String get(final WebContext context, final SessionStore sessionStore) {
+        CommonHelper.assertNotNull("signer", signer);
+        val sessionId = sessionStore.getSessionId(context, true);
+        CommonHelper.assertTrue(sessionId.isPresent(), "a web session is required to generate a CSRF token");
+        val expirationInSeconds = System.currentTimeMillis() / 1000 + ttlInSeconds;
+        val token = signer.sign(sessionId.get(), expirationInSeconds);
+        LOGGER.debug("generated CSRF token: {} for current URL: {}", token, context.getFullRequestURL());
+        return token;
+    }
+}
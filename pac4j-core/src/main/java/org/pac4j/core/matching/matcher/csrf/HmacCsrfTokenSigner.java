@@ -0,0 +1,103 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Signs and verifies stateless CSRF tokens: <code>expirationInSeconds.base64url(HMAC-SHA256(sessionId.expirationInSeconds))</code>.
+ *
+ * The first secret signs the new tokens while all the secrets are accepted to verify them, to rotate the keys.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class HmacCsrfTokenSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private static final char SEPARATOR = '.';
+
+    private final List<SecretKeySpec> keys = new ArrayList<>();
+
+    /**
+     * <p>Constructor for HmacCsrfTokenSigner.</p>
+     *
+     * @param secrets the secrets (at least 32 bytes each), the first one being used to sign the tokens
+     */
+    public HmacCsrfTokenSigner(final String... secrets) {
+        CommonHelper.assertTrue(secrets != null && secrets.length > 0, "at least one secret must be defined");
+        for (val secret : secrets) {
+            CommonHelper.assertNotNull("secret", secret);
+            val bytes = secret.getBytes(StandardCharsets.UTF_8);
+            CommonHelper.assertTrue(bytes.length >= MIN_SECRET_LENGTH, "secrets must be at least " + MIN_SECRET_LENGTH + " bytes long");
+            keys.add(new SecretKeySpec(bytes, ALGORITHM));
+        }
+    }
+
+    /**
+     * Sign a token for a web session.
+     *
+     * @param sessionId the web session identifier
+     * @param expirationInSeconds the expiration date of the token (in seconds since epoch)
+     * @return the token
+     */
+    public String sign(final String sessionId, final long expirationInSeconds) {
+        val mac = mac(keys.get(0), sessionId, expirationInSeconds);
+        return expirationInSeconds + String.valueOf(SEPARATOR) + Base64.getUrlEncoder().withoutPadding().encodeToString(mac);
+    }
+
+    /**
+     * Verify a token for a web session: its MAC (compared in constant time) and its expiration date.
+     *
+     * @param token the token
+     * @param sessionId the web session identifier
+     * @param nowInSeconds the current date (in seconds since epoch)
+     * @return whether the token is valid
+     */
+    public boolean verify(final String token, final String sessionId, final long nowInSeconds) {
+        if (token == null || sessionId == null) {
+            return false;
+        }
+        val separator = token.indexOf(SEPARATOR);
+        if (separator <= 0) {
+            return false;
+        }
+        final long expirationInSeconds;
+        final byte[] expectedMac;
+        try {
+            expirationInSeconds = Long.parseLong(token, 0, separator, 10);
+            expectedMac = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+        var isGoodMac = false;
+        for (val key : keys) {
+            isGoodMac |= MessageDigest.isEqual(mac(key, sessionId, expirationInSeconds), expectedMac);
+        }
+        return isGoodMac & expirationInSeconds >= nowInSeconds;
+    }
+
+    private static byte[] mac(final SecretKeySpec key, final String sessionId, final long expirationInSeconds) {
+        try {
+            val mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal((sessionId + SEPARATOR + expirationInSeconds).getBytes(StandardCharsets.UTF_8));
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+}
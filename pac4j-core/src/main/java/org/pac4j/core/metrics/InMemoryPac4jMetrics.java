@@ -0,0 +1,187 @@
+package org.pac4j.core.metrics;
+
+import lombok.val;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Pac4jMetrics} keeping a histogram of the durations in memory for each phase, name and outcome.
+ *
+ * <p>The histograms have logarithmic buckets subdivided in 8 linear sub-buckets (as in HDR histograms with one significant
+ * digit), so that the percentiles are reported with a relative error below 12.5% for a constant memory of about 4 KB per
+ * histogram.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class InMemoryPac4jMetrics implements Pac4jMetrics {
+
+    private final Map<Key, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override
+    public void record(final Phase phase, final String name, final Outcome outcome, final long durationInNanos) {
+        histograms.computeIfAbsent(new Key(phase, name, outcome), k -> new Histogram()).record(durationInNanos);
+    }
+
+    /**
+     * Return the histogram for a phase, name and outcome.
+     *
+     * @param phase the phase
+     * @param name the client or component name
+     * @param outcome the outcome
+     * @return the histogram or <code>null</code> if nothing has been recorded
+     */
+    public Histogram getHistogram(final Phase phase, final String name, final Outcome outcome) {
+        return histograms.get(new Key(phase, name, outcome));
+    }
+
+    /**
+     * Return all the histograms.
+     *
+     * @return the histograms
+     */
+    public Map<Key, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Remove all the histograms.
+     */
+    public void reset() {
+        histograms.clear();
+    }
+
+    /**
+     * The key of a histogram.
+     *
+     * @param phase the phase
+     * @param name the client or component name
+     * @param outcome the outcome
+     */
+    public record Key(Phase phase, String name, Outcome outcome) {}
+
+    /**
+     * A concurrent histogram of durations in nanoseconds.
+     */
+    public static final class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 3;
+
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        // the values below are counted exactly
+        private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+
+        private static final int LINEAR_BITS = SUB_BUCKET_BITS + 1;
+
+        private static final int NB_BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(NB_BUCKETS);
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder sum = new LongAdder();
+
+        private final AtomicLong max = new AtomicLong();
+
+        /**
+         * Record a duration.
+         *
+         * @param durationInNanos the duration in nanoseconds (negative durations are recorded as 0)
+         */
+        public void record(final long durationInNanos) {
+            val value = Math.max(0L, durationInNanos);
+            counts.incrementAndGet(bucketIndex(value));
+            count.increment();
+            sum.add(value);
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max);
+            }
+        }
+
+        static int bucketIndex(final long value) {
+            if (value < LINEAR_BUCKETS) {
+                return (int) value;
+            }
+            val exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            val subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return LINEAR_BUCKETS + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+        }
+
+        static long bucketUpperBound(final int index) {
+            if (index < LINEAR_BUCKETS) {
+                return index;
+            }
+            val exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BITS;
+            val subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+            val shift = exponent - SUB_BUCKET_BITS;
+            return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+        }
+
+        /**
+         * <p>getCount.</p>
+         *
+         * @return the number of recorded durations
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * <p>getMax.</p>
+         *
+         * @return the maximum duration in nanoseconds
+         */
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * <p>getMean.</p>
+         *
+         * @return the mean duration in nanoseconds
+         */
+        public double getMean() {
+            val n = count.sum();
+            return n == 0 ? 0.0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * Return the duration at the given percentile: at least this percentage of the durations are lower or equal to it
+         * (with the precision of the buckets).
+         *
+         * @param percentile the percentile (between 0 and 100)
+         * @return the duration in nanoseconds
+         */
+        public long getValueAtPercentile(final double percentile) {
+            long total = 0;
+            for (var i = 0; i < NB_BUCKETS; i++) {
+                total += counts.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            val rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+            long cumulated = 0;
+            for (var i = 0; i < NB_BUCKETS; i++) {
+                cumulated += counts.get(i);
+                if (cumulated >= rank) {
+                    return Math.min(bucketUpperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Histogram(count=" + getCount() + ", mean=" + (long) getMean() + ", p50=" + getValueAtPercentile(50)
+                + ", p99=" + getValueAtPercentile(99) + ", max=" + getMax() + ")";
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.pac4j.core.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.HttpActionHelper;
+
+/**
+ * Helper to report the timings to the defined {@link Pac4jMetrics} (none by default).
+ *
+ * <p>The metrics are defined for the whole JVM, like the HTTP codes of the {@link HttpActionHelper}: they are shared by all
+ * the configurations and should be set once at startup. The tests defining them must reset them to {@link Pac4jMetrics#NOOP}
+ * afterwards.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+public final class MetricsHelper {
+
+    /** The name used when no client or component name is available. */
+    public static final String NO_NAME = "none";
+
+    private static volatile Pac4jMetrics metrics = Pac4jMetrics.NOOP;
+
+    private MetricsHelper() {}
+
+    /**
+     * <p>Getter for the field <code>metrics</code>.</p>
+     *
+     * @return the metrics
+     */
+    public static Pac4jMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * <p>Setter for the field <code>metrics</code>.</p>
+     *
+     * @param metrics the metrics ({@link Pac4jMetrics#NOOP} to disable them)
+     */
+    public static void setMetrics(final Pac4jMetrics metrics) {
+        CommonHelper.assertNotNull("metrics", metrics);
+        MetricsHelper.metrics = metrics;
+    }
+
+    /**
+     * Record the duration of a phase since the given start time.
+     *
+     * @param phase the phase
+     * @param name the client or component name
+     * @param outcome the outcome
+     * @param startTime the start time (from {@link System#nanoTime()})
+     */
+    public static void record(final Pac4jMetrics.Phase phase, final String name, final Pac4jMetrics.Outcome outcome,
+                              final long startTime) {
+        final Pac4jMetrics currentMetrics = metrics;
+        if (currentMetrics != Pac4jMetrics.NOOP) {
+            try {
+                currentMetrics.record(phase, name != null ? name : NO_NAME, outcome, System.nanoTime() - startTime);
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Cannot record metrics for: {}", phase, e);
+            }
+        }
+    }
+
+    /**
+     * Return the outcome for a boolean result.
+     *
+     * @param success whether the phase has succeeded
+     * @return the outcome
+     */
+    public static Pac4jMetrics.Outcome outcome(final boolean success) {
+        return success ? Pac4jMetrics.Outcome.SUCCESS : Pac4jMetrics.Outcome.FAILURE;
+    }
+}
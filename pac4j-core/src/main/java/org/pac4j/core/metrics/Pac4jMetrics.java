@@ -0,0 +1,63 @@
+package org.pac4j.core.metrics;
+
+/**
+ * Listener of the timings of the security pipeline (see {@link MetricsHelper#setMetrics(Pac4jMetrics)}).
+ *
+ * <p>It is called synchronously by the requests threads, so it must be fast and thread-safe.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@FunctionalInterface
+public interface Pac4jMetrics {
+
+    /** Default implementation: nothing is recorded. */
+    Pac4jMetrics NOOP = (phase, name, outcome, durationInNanos) -> {};
+
+    /**
+     * Record the duration of a phase.
+     *
+     * @param phase the phase
+     * @param name the client name for the client phases, the client(s) requested for the logic phases,
+     *             the store class name for the store phases ({@link MetricsHelper#NO_NAME} if unknown)
+     * @param outcome the outcome
+     * @param durationInNanos the duration in nanoseconds
+     */
+    void record(Phase phase, String name, Outcome outcome, long durationInNanos);
+
+    /**
+     * The phases of the security pipeline.
+     */
+    enum Phase {
+        /** Finding the clients of the request (security and callback logics). */
+        CLIENT_FINDING,
+        /** Checking the matchers (security logic). */
+        MATCHING,
+        /** Extracting the credentials (client). */
+        CREDENTIALS_EXTRACTION,
+        /** Validating the credentials by the authenticator (client). */
+        CREDENTIALS_VALIDATION,
+        /** Creating the profile by the profile creator (client). */
+        PROFILE_CREATION,
+        /** Running the authorization generators (client). */
+        AUTHORIZATION_GENERATION,
+        /** Checking the authorizers (security logic). */
+        AUTHORIZATION,
+        /** Reading a value (store): the outcome is a {@link Outcome#SUCCESS} for a hit. */
+        STORE_READ,
+        /** Writing or removing a value (store). */
+        STORE_WRITE
+    }
+
+    /**
+     * The outcomes of the phases.
+     */
+    enum Outcome {
+        /** The phase has succeeded: credentials found, profile created, client found, access authorized... */
+        SUCCESS,
+        /** The phase has completed without result: no credentials, no profile, no match, access forbidden... */
+        FAILURE,
+        /** The phase has thrown an exception. */
+        ERROR
+    }
+}
@@ -8,6 +8,7 @@ import lombok.ToString;
 import lombok.val;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.StringInterner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,9 +39,9 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     @Getter
     private String id;
 
-    private Map<String, Object> attributes = new HashMap<>();
+    private Map<String, Object> attributes = new CompactAttributeMap();
 
-    private Map<String, Object> authenticationAttributes = new HashMap<>();
+    private Map<String, Object> authenticationAttributes = new CompactAttributeMap();
 
     @Getter
     @Setter
@@ -219,30 +220,20 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     /**
      * {@inheritDoc}
      *
-     * Get all attributes as immutable map.
+     * Get all attributes as an unmodifiable live view (the attributes are not copied).
      */
     @Override
     public Map<String, Object> getAttributes() {
-        return getAttributeMap(this.attributes);
+        return Collections.unmodifiableMap(this.attributes);
     }
 
     /**
-     * Get all authentication attributes as an immutable map
+     * Get all authentication attributes as an unmodifiable live view (the attributes are not copied).
      *
-     * @return the immutable authentication attributes
+     * @return the unmodifiable authentication attributes
      */
     public Map<String, Object> getAuthenticationAttributes() {
-        return getAttributeMap(this.authenticationAttributes);
-    }
-
-    private static Map<String, Object> getAttributeMap(final Map<String, Object> attributeMap) {
-        final Map<String, Object> newAttributes = new HashMap<>();
-        for (var entries : attributeMap.entrySet()) {
-            val key = entries.getKey();
-            val value = attributeMap.get(key);
-            newAttributes.put(key, value);
-        }
-        return newAttributes;
+        return Collections.unmodifiableMap(this.authenticationAttributes);
     }
 
     /**
@@ -357,7 +348,7 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     @Override
     public void addRole(final String role) {
         CommonHelper.assertNotBlank("role", role);
-        this.roles.add(role);
+        this.roles.add(StringInterner.intern(role));
     }
 
     /**
@@ -368,7 +359,9 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     @Override
     public void addRoles(final Collection<String> roles) {
         CommonHelper.assertNotNull("roles", roles);
-        this.roles.addAll(roles);
+        for (val role : roles) {
+            this.roles.add(StringInterner.intern(role));
+        }
     }
 
     /**
@@ -395,8 +388,9 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     @Override
     public void writeExternal(final ObjectOutput out) throws IOException {
         out.writeObject(this.id);
-        out.writeObject(this.attributes);
-        out.writeObject(this.authenticationAttributes);
+        // plain maps, readable by the previous versions
+        out.writeObject(new HashMap<>(this.attributes));
+        out.writeObject(new HashMap<>(this.authenticationAttributes));
         out.writeBoolean(this.isRemembered);
         out.writeObject(this.roles);
         out.writeObject(this.clientName);
@@ -407,11 +401,12 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     @Override
     public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
         this.id = (String) in.readObject();
-        this.attributes = (Map<String, Object>) in.readObject();
-        this.authenticationAttributes = (Map<String, Object>) in.readObject();
+        this.attributes = new CompactAttributeMap((Map<String, Object>) in.readObject());
+        this.authenticationAttributes = new CompactAttributeMap((Map<String, Object>) in.readObject());
         this.isRemembered = in.readBoolean();
-        this.roles = (Set<String>) in.readObject();
-        this.clientName = (String) in.readObject();
+        this.roles = new HashSet<>();
+        addRoles((Set<String>) in.readObject());
+        this.clientName = StringInterner.intern((String) in.readObject());
         this.linkedId = (String) in.readObject();
     }
 
@@ -0,0 +1,221 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+import org.pac4j.core.util.StringInterner;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Memory efficient map of the profile attributes: the few entries of most profiles are stored in two arrays
+ * (looked up sequentially) and the keys are interned by the {@link StringInterner}, so that the same attribute names
+ * are shared by all the profiles.
+ * Beyond {@link #MAX_ARRAY_SIZE} entries, a {@link HashMap} is used instead.
+ *
+ * Null keys and values are not supported.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+final class CompactAttributeMap extends AbstractMap<String, Object> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2581304237426178390L;
+
+    static final int MAX_ARRAY_SIZE = 16;
+
+    private static final String[] NO_KEYS = new String[0];
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private String[] keys = NO_KEYS;
+
+    private Object[] values = NO_VALUES;
+
+    private int size;
+
+    private HashMap<String, Object> map;
+
+    CompactAttributeMap() {}
+
+    CompactAttributeMap(final Map<String, Object> attributes) {
+        if (attributes != null) {
+            for (val entry : attributes.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private int indexOf(final Object key) {
+        for (var i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        for (var i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return map != null ? map.size() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        if (map != null) {
+            return map.containsKey(key);
+        }
+        return key != null && indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        if (map != null) {
+            return map.get(key);
+        }
+        if (key == null) {
+            return null;
+        }
+        val index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("Null keys and values are not supported");
+        }
+        val internedKey = StringInterner.intern(key);
+        if (map != null) {
+            return map.put(internedKey, value);
+        }
+        val index = indexOf(internedKey);
+        if (index >= 0) {
+            val previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+        if (size == MAX_ARRAY_SIZE) {
+            map = new HashMap<>(MAX_ARRAY_SIZE * 4);
+            for (var i = 0; i < size; i++) {
+                map.put(keys[i], values[i]);
+            }
+            map.put(internedKey, value);
+            keys = NO_KEYS;
+            values = NO_VALUES;
+            size = 0;
+            return null;
+        }
+        if (size == keys.length) {
+            val capacity = Math.min(MAX_ARRAY_SIZE, Math.max(4, size * 2));
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = internedKey;
+        values[size] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        if (map != null) {
+            return map.remove(key);
+        }
+        if (key == null) {
+            return null;
+        }
+        val index = indexOf(key);
+        return index >= 0 ? removeAt(index) : null;
+    }
+
+    private Object removeAt(final int index) {
+        val previous = values[index];
+        val moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        map = null;
+        keys = NO_KEYS;
+        values = NO_VALUES;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (map != null) {
+            return map.entrySet();
+        }
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new ArrayIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private final class ArrayIterator implements Iterator<Entry<String, Object>> {
+
+        private int next;
+
+        private int current = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            current = next++;
+            return new SimpleImmutableEntry<>(keys[current], values[current]);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            removeAt(current);
+            next = current;
+            current = -1;
+        }
+    }
+}
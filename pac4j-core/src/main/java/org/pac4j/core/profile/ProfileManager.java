@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.authorization.authorizer.IsAuthenticatedAuthorizer;
+import org.pac4j.core.client.Client;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.WebContext;
@@ -17,10 +18,12 @@ import org.pac4j.core.util.Pac4jConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * This class is a generic way to manage the current user profile(s), i.e. the one(s) of the current authenticated user.
@@ -43,6 +46,10 @@ public class ProfileManager {
     @Setter
     protected Config config;
 
+    @Getter
+    @Setter
+    protected boolean useProfilesSnapshot = true;
+
     /**
      * <p>Constructor for ProfileManager.</p>
      *
@@ -90,16 +97,29 @@ public class ProfileManager {
     /**
      * Retrieve the map of profiles from the session or the request.
      *
+     * When they are read from the session, the profiles are memoized for the current request (as a request attribute)
+     * so that the next reads do not access the session store again. The snapshot is no longer used as soon as the profiles are saved
+     * or removed (by any profile manager of the request) or if one of them has expired.
+     *
      * @param readFromSession if the user profiles must be read from session
      * @return the map of profiles
      */
     protected LinkedHashMap<String, UserProfile> retrieveAll(final boolean readFromSession) {
+        val requestAttribute = this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES);
+        if (readFromSession && useProfilesSnapshot) {
+            val snapshot = this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES_SNAPSHOT);
+            if (snapshot.isPresent() && snapshot.get() instanceof ProfilesSnapshot profilesSnapshot
+                && profilesSnapshot.isValidFor(requestAttribute.orElse(null))) {
+                LOGGER.debug("Retrieved profiles (snapshot): {}", profilesSnapshot.profiles());
+                return new LinkedHashMap<>(profilesSnapshot.profiles());
+            }
+        }
+
         val profiles = new LinkedHashMap<String, UserProfile>();
-        this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES)
-            .ifPresent(requestAttribute -> {
-                LOGGER.debug("Retrieved profiles (request): {}", requestAttribute);
-                profiles.putAll((Map<String, UserProfile>) requestAttribute);
-            });
+        requestAttribute.ifPresent(attribute -> {
+            LOGGER.debug("Retrieved profiles (request): {}", attribute);
+            profiles.putAll((Map<String, UserProfile>) attribute);
+        });
         if (readFromSession) {
             this.sessionStore.get(this.context, Pac4jConstants.USER_PROFILES)
                 .ifPresent(sessionAttribute -> {
@@ -110,37 +130,44 @@ public class ProfileManager {
 
         removeOrRenewExpiredProfiles(profiles, readFromSession);
 
+        if (readFromSession && useProfilesSnapshot) {
+            // the request attribute may have been replaced by the renewal of expired profiles
+            val currentRequestAttribute = this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES).orElse(null);
+            this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES_SNAPSHOT,
+                new ProfilesSnapshot(currentRequestAttribute, new LinkedHashMap<>(profiles)));
+        }
+
         return profiles;
     }
 
     /**
      * <p>removeOrRenewExpiredProfiles.</p>
      *
+     * The renewals are coordinated by the {@link ProfileRenewalCoordinator} of the configuration (if any): concurrent renewals
+     * for the same web session and client are deduplicated and the profiles may be renewed ahead of their expiration.
+     *
      * @param profiles a {@link LinkedHashMap} object
      * @param readFromSession a boolean
      */
     protected void removeOrRenewExpiredProfiles(final LinkedHashMap<String, UserProfile> profiles, final boolean readFromSession) {
         var profilesUpdated = false;
-        for (val entry : profiles.entrySet()) {
+        val coordinator = config != null ? config.getProfileRenewalCoordinator() : null;
+        val refreshAhead = coordinator != null && coordinator.isRefreshAheadEnabled();
+        for (val entry : new ArrayList<>(profiles.entrySet())) {
             val key = entry.getKey();
             val profile = entry.getValue();
             if (profile.isExpired()) {
                 LOGGER.debug("Expired profile: {}", profile);
                 profilesUpdated = true;
                 profiles.remove(key);
-                if (config != null && profile.getClientName() != null) {
-                    val client = config.getClients().findClient(profile.getClientName());
-                    if (client.isPresent()) {
-                        try {
-                            val newProfile = client.get().renewUserProfile(new CallContext(context, sessionStore), profile);
-                            if (newProfile.isPresent()) {
-                                LOGGER.debug("Renewed by profile: {}", newProfile);
-                                profiles.put(key, newProfile.get());
-                            }
-                        } catch (final RuntimeException e) {
-                            logger.error("Unable to renew the user profile for key: {}", key, e);
-                        }
-                    }
+                val newProfile = renewUserProfile(key, profile, coordinator, false);
+                newProfile.ifPresent(p -> profiles.put(key, p));
+            } else if (refreshAhead && profile.willExpireWithin(coordinator.getRefreshAheadWindow())) {
+                LOGGER.debug("Profile expiring soon: {}", profile);
+                val newProfile = renewUserProfile(key, profile, coordinator, true);
+                if (newProfile.isPresent()) {
+                    profilesUpdated = true;
+                    profiles.put(key, newProfile.get());
                 }
             }
         }
@@ -149,6 +176,64 @@ public class ProfileManager {
         }
     }
 
+    /**
+     * Renew a user profile with its client.
+     *
+     * When it is renewed ahead of its expiration in the background, the client gets the {@link CallContext#detached()}
+     * context as the renewal outlives the current request: the renewed profile keeps the roles of the current profile
+     * as the authorization generators are not run.
+     *
+     * @param key the key of the profile
+     * @param profile the user profile
+     * @param coordinator the renewal coordinator (optional)
+     * @param ahead whether the profile is renewed ahead of its expiration
+     * @return the renewed profile (if any)
+     */
+    protected Optional<UserProfile> renewUserProfile(final String key, final UserProfile profile,
+                                                     final ProfileRenewalCoordinator coordinator, final boolean ahead) {
+        val clientName = profile.getClientName();
+        if (config == null || clientName == null) {
+            return Optional.empty();
+        }
+        val client = config.getClients().findClient(clientName);
+        if (client.isEmpty()) {
+            return Optional.empty();
+        }
+        // a background renewal outlives the request: it must not use its web context and session store
+        val inBackground = ahead && coordinator != null && coordinator.getExecutor() != null;
+        final Supplier<Optional<UserProfile>> renewal;
+        if (inBackground) {
+            renewal = detachedRenewal(client.get(), profile);
+        } else {
+            val ctx = new CallContext(context, sessionStore);
+            renewal = () -> client.get().renewUserProfile(ctx, profile);
+        }
+        try {
+            final Optional<UserProfile> newProfile;
+            val sessionId = coordinator != null ? sessionStore.getSessionId(context, false) : Optional.<String>empty();
+            if (sessionId.isPresent()) {
+                newProfile = ahead ? coordinator.renewAhead(sessionId.get(), clientName, renewal)
+                    : coordinator.renew(sessionId.get(), clientName, renewal);
+            } else {
+                // no coordination without web session: only renew the expired profiles
+                newProfile = ahead ? Optional.empty() : renewal.get();
+            }
+            newProfile.ifPresent(p -> LOGGER.debug("Renewed by profile: {}", p));
+            return newProfile;
+        } catch (final RuntimeException e) {
+            logger.error("Unable to renew the user profile for key: {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    private static Supplier<Optional<UserProfile>> detachedRenewal(final Client client, final UserProfile profile) {
+        return () -> {
+            val newProfile = client.renewUserProfile(CallContext.detached(), profile);
+            newProfile.ifPresent(p -> p.addRoles(profile.getRoles()));
+            return newProfile;
+        };
+    }
+
     /**
      * Remove the current user profile(s).
      */
@@ -226,4 +311,26 @@ public class ProfileManager {
             throw new TechnicalException(e);
         }
     }
+
+    /**
+     * The profiles read during the current request and the request attribute of profiles they were read with.
+     *
+     * @param requestProfiles the request attribute of profiles
+     * @param profiles the profiles
+     */
+    protected record ProfilesSnapshot(Object requestProfiles, Map<String, UserProfile> profiles) {
+
+        boolean isValidFor(final Object currentRequestProfiles) {
+            // saving or removing the profiles always replaces the request attribute
+            if (currentRequestProfiles != requestProfiles) {
+                return false;
+            }
+            for (val profile : profiles.values()) {
+                if (profile.isExpired()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
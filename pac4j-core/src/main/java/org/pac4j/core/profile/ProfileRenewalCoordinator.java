@@ -0,0 +1,221 @@
+package org.pac4j.core.profile;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Coordinates the renewals of the user profiles for a given key (a web session and a client):
+ * concurrent renewals are deduplicated (single flight) and the profiles can be renewed ahead of their expiration.
+ *
+ * <p>When a profile is expired, the first request renews it while the concurrent requests wait for and reuse its result.
+ * Once a request has consumed it, the result is kept for {@link #resultTimeToLive} for the requests which have read
+ * the expired profile before it was saved.</p>
+ *
+ * <p>When the {@link #refreshAheadWindow} is defined and a profile will expire within this window, the still-valid profile is served
+ * and it is renewed once: in the background if an {@link #executor} is defined, by the first request entering the window otherwise.
+ * A profile renewed in the background is kept until a request of the web session consumes it (and saves it),
+ * or until the renewed profile itself expires: the previous profile (and its refresh token) is never renewed twice.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@Setter
+public class ProfileRenewalCoordinator {
+
+    /** The time window before the expiration of a profile in which it is renewed ahead (disabled by default). */
+    private Duration refreshAheadWindow = Duration.ZERO;
+
+    /** The executor for the background renewals ahead of expiration (none by default: the renewal occurs in a request). */
+    private Executor executor;
+
+    /** How long the result of a renewal is kept to be reused for the same key once it has been consumed by a request. */
+    private Duration resultTimeToLive = Duration.ofSeconds(10);
+
+    @Getter(AccessLevel.NONE)
+    private final ConcurrentMap<Key, Renewal> renewals = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the renewal ahead of expiration is enabled.
+     *
+     * @return whether the renewal ahead of expiration is enabled
+     */
+    public boolean isRefreshAheadEnabled() {
+        return refreshAheadWindow != null && !refreshAheadWindow.isZero() && !refreshAheadWindow.isNegative();
+    }
+
+    /**
+     * Renew an expired profile: concurrent (or very recent) renewals for the same key are reused.
+     *
+     * @param sessionId the web session identifier
+     * @param clientName the client name
+     * @param renewal the renewal of the profile
+     * @return the renewed profile
+     */
+    public Optional<UserProfile> renew(final String sessionId, final String clientName, final Supplier<Optional<UserProfile>> renewal) {
+        val key = new Key(sessionId, clientName);
+        val now = System.nanoTime();
+        val newRenewal = new Renewal();
+        while (true) {
+            val existing = renewals.putIfAbsent(key, newRenewal);
+            if (existing == null) {
+                LOGGER.debug("Renewing the profile for: {}", key);
+                return run(key, newRenewal, renewal, true);
+            } else if (existing.isReusable(now, resultTimeToLive)) {
+                LOGGER.debug("Reusing the renewal of the profile for: {}", key);
+                return existing.consume(join(existing));
+            }
+            renewals.remove(key, existing);
+        }
+    }
+
+    /**
+     * Renew ahead of its expiration a profile which is still valid.
+     *
+     * @param sessionId the web session identifier
+     * @param clientName the client name
+     * @param renewal the renewal of the profile
+     * @return the renewed profile if it is already available, empty otherwise (the current profile must be kept)
+     */
+    public Optional<UserProfile> renewAhead(final String sessionId, final String clientName,
+                                            final Supplier<Optional<UserProfile>> renewal) {
+        val key = new Key(sessionId, clientName);
+        val now = System.nanoTime();
+        val newRenewal = new Renewal();
+        val existing = renewals.putIfAbsent(key, newRenewal);
+        if (existing != null) {
+            if (existing.isReusable(now, resultTimeToLive)) {
+                // the renewal is in progress or its result is available: in both cases, don't wait
+                if (existing.future.isDone() && !existing.future.isCompletedExceptionally()) {
+                    LOGGER.debug("Reusing the renewal ahead of the profile for: {}", key);
+                    return existing.consume(existing.future.join());
+                }
+                return Optional.empty();
+            }
+            if (!renewals.replace(key, existing, newRenewal)) {
+                return Optional.empty();
+            }
+        }
+        if (executor != null) {
+            LOGGER.debug("Renewing ahead in background the profile for: {}", key);
+            try {
+                executor.execute(() -> {
+                    try {
+                        run(key, newRenewal, renewal, false);
+                    } catch (final RuntimeException e) {
+                        LOGGER.error("Unable to renew ahead the profile for: {}", key, e);
+                    }
+                });
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Cannot renew ahead the profile for: {}", key, e);
+                renewals.remove(key, newRenewal);
+            }
+            return Optional.empty();
+        }
+        LOGGER.debug("Renewing ahead the profile for: {}", key);
+        return run(key, newRenewal, renewal, true);
+    }
+
+    /**
+     * Forget the renewals for a web session and a client.
+     *
+     * @param sessionId the web session identifier
+     * @param clientName the client name
+     */
+    public void forget(final String sessionId, final String clientName) {
+        renewals.remove(new Key(sessionId, clientName));
+    }
+
+    private Optional<UserProfile> run(final Key key, final Renewal current, final Supplier<Optional<UserProfile>> renewal,
+                                      final boolean inRequest) {
+        try {
+            val result = renewal.get();
+            current.complete(result, inRequest);
+            return result;
+        } catch (final RuntimeException e) {
+            current.future.completeExceptionally(e);
+            renewals.remove(key, current);
+            throw e;
+        } finally {
+            purge();
+        }
+    }
+
+    private static Optional<UserProfile> join(final Renewal renewal) {
+        try {
+            return renewal.future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new TechnicalException(e.getCause());
+        }
+    }
+
+    private void purge() {
+        val now = System.nanoTime();
+        renewals.entrySet().removeIf(entry -> entry.getValue().isExpired(now, resultTimeToLive));
+    }
+
+    private record Key(String sessionId, String clientName) {}
+
+    private static final class Renewal {
+
+        private final CompletableFuture<Optional<UserProfile>> future = new CompletableFuture<>();
+
+        private volatile long completedAt;
+
+        private volatile boolean consumed;
+
+        void complete(final Optional<UserProfile> result, final boolean inRequest) {
+            if (inRequest) {
+                consume(result);
+            } else {
+                completedAt = System.nanoTime();
+            }
+            future.complete(result);
+        }
+
+        Optional<UserProfile> consume(final Optional<UserProfile> result) {
+            if (!consumed) {
+                // the time to live starts when the result is consumed
+                completedAt = System.nanoTime();
+                consumed = true;
+            }
+            return result;
+        }
+
+        boolean isExpired(final long now, final Duration timeToLive) {
+            if (!future.isDone()) {
+                return false;
+            }
+            if (future.isCompletedExceptionally()) {
+                return true;
+            }
+            val result = future.join();
+            if (result.isPresent() && result.get().isExpired()) {
+                return true;
+            }
+            // a renewed profile not consumed yet is kept until it expires
+            return (consumed || result.isEmpty()) && now - completedAt > timeToLive.toNanos();
+        }
+
+        boolean isReusable(final long now, final Duration timeToLive) {
+            return !isExpired(now, timeToLive);
+        }
+    }
+}
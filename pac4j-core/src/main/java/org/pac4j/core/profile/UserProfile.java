@@ -2,6 +2,7 @@ package org.pac4j.core.profile;
 
 import java.io.Serializable;
 import java.security.Principal;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
@@ -165,6 +166,16 @@ public interface UserProfile extends Serializable {
      */
     boolean isExpired();
 
+    /**
+     * Whether the profile will be expired within the given time window (to renew it ahead of its expiration).
+     *
+     * @param window the time window
+     * @return whether the profile will be expired within the time window
+     */
+    default boolean willExpireWithin(final Duration window) {
+        return isExpired();
+    }
+
     /**
      * <p>asPrincipal.</p>
      *
@@ -0,0 +1,59 @@
+package org.pac4j.core.profile.creator;
+
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.AsyncHelper;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * A profile creator creating the {@link UserProfile} without blocking the calling thread.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@FunctionalInterface
+public interface AsyncProfileCreator {
+
+    /**
+     * Create a profile from a credentials asynchronously.
+     *
+     * @param ctx the context
+     * @param credentials the given credentials
+     * @return the stage of the created profile (optional)
+     */
+    CompletionStage<Optional<UserProfile>> createAsync(CallContext ctx, Credentials credentials);
+
+    /**
+     * Adapt a (blocking) profile creator: it is run on the given executor, unless it is already asynchronous.
+     *
+     * @param profileCreator the profile creator
+     * @param executor the executor running the blocking profile creator
+     * @return the asynchronous profile creator
+     */
+    static AsyncProfileCreator fromBlocking(final ProfileCreator profileCreator, final Executor executor) {
+        CommonHelper.assertNotNull("profileCreator", profileCreator);
+        if (profileCreator instanceof AsyncProfileCreator asyncProfileCreator) {
+            return asyncProfileCreator;
+        }
+        CommonHelper.assertNotNull("executor", executor);
+        return (ctx, credentials) -> CompletableFuture.supplyAsync(() -> profileCreator.create(ctx, credentials), executor);
+    }
+
+    /**
+     * Adapt an asynchronous profile creator to use it where a (blocking) {@link ProfileCreator} is expected:
+     * the calling thread waits for the result.
+     *
+     * @param asyncProfileCreator the asynchronous profile creator
+     * @return the blocking profile creator
+     */
+    static ProfileCreator toBlocking(final AsyncProfileCreator asyncProfileCreator) {
+        CommonHelper.assertNotNull("asyncProfileCreator", asyncProfileCreator);
+        return (ctx, credentials) -> AsyncHelper.join(asyncProfileCreator.createAsync(ctx, credentials));
+    }
+}
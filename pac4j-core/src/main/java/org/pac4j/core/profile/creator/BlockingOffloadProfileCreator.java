@@ -0,0 +1,56 @@
+package org.pac4j.core.profile.creator;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.BlockingOffloader;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Profile creator running a blocking delegate (user info endpoint, LDAP...) via a {@link BlockingOffloader},
+ * which enforces a maximum number of concurrent calls and a deadline.
+ *
+ * <p>The delegate may still run after the deadline, when the request is over: it must only use the credentials, not the
+ * web context or the session store of the given context.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@ToString
+public class BlockingOffloadProfileCreator implements ProfileCreator, AsyncProfileCreator {
+
+    private final ProfileCreator delegate;
+
+    private final BlockingOffloader offloader;
+
+    /**
+     * <p>Constructor for BlockingOffloadProfileCreator.</p>
+     *
+     * @param delegate the blocking profile creator
+     * @param offloader the offloader
+     */
+    public BlockingOffloadProfileCreator(final ProfileCreator delegate, final BlockingOffloader offloader) {
+        CommonHelper.assertNotNull("delegate", delegate);
+        CommonHelper.assertNotNull("offloader", offloader);
+        this.delegate = delegate;
+        this.offloader = offloader;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<UserProfile> create(final CallContext ctx, final Credentials credentials) {
+        return offloader.call(() -> delegate.create(ctx, credentials));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletionStage<Optional<UserProfile>> createAsync(final CallContext ctx, final Credentials credentials) {
+        return offloader.submit(() -> delegate.create(ctx, credentials));
+    }
+}
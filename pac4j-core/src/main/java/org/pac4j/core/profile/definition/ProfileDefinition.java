@@ -11,6 +11,7 @@ import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.converter.AttributeConverter;
 import org.pac4j.core.profile.factory.ProfileFactory;
 import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.StringInterner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -103,8 +104,9 @@ public abstract class ProfileDefinition {
     public void convertAndAdd(final UserProfile profile, final AttributeLocation attributeLocation, final String name,
             final Object value) {
         if (value != null) {
+            val internedName = StringInterner.intern(name);
             final Object convertedValue;
-            val converter = this.converters.get(name);
+            val converter = this.converters.get(internedName);
             if (converter != null) {
                 convertedValue = converter.convert(value);
                 if (convertedValue != null) {
@@ -116,9 +118,9 @@ public abstract class ProfileDefinition {
             }
 
             if (attributeLocation.equals(AUTHENTICATION_ATTRIBUTE)) {
-                profile.addAuthenticationAttribute(name, convertedValue);
+                profile.addAuthenticationAttribute(internedName, convertedValue);
             } else {
-                profile.addAttribute(name, convertedValue);
+                profile.addAttribute(internedName, convertedValue);
             }
         }
     }
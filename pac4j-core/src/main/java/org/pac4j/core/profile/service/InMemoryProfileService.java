@@ -52,7 +52,7 @@ public class InMemoryProfileService<U extends CommonProfile> extends AbstractPro
         assertNotNull("passwordEncoder", getPasswordEncoder());
 
         setProfileDefinitionIfUndefined(new CommonProfileDefinition(profileFactory));
-        setSerializer(new JsonSerializer(CommonProfile.class));
+        setSerializer(new JsonSerializer(CommonProfile.class, JsonSerializer.buildOptimizedObjectMapper()));
 
         super.internalInit(forceReinit);
     }
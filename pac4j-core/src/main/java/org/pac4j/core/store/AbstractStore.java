@@ -1,8 +1,16 @@
 package org.pac4j.core.store;
 
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.metrics.MetricsHelper;
+import org.pac4j.core.metrics.Pac4jMetrics;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -11,8 +19,11 @@ import java.util.Optional;
  * @author Jerome Leleu
  * @since 2.0.0
  */
+@Slf4j
 public abstract class AbstractStore<K, O> extends InitializableObject implements Store<K, O> {
 
+    private volatile boolean timeToLiveWarned;
+
     /** {@inheritDoc} */
     @Override
     protected void internalInit(final boolean forceReinit) {
@@ -24,7 +35,15 @@ public abstract class AbstractStore<K, O> extends InitializableObject implements
         CommonHelper.assertNotNull("key", key);
         init();
 
-        return internalGet(key);
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            val value = internalGet(key);
+            outcome = MetricsHelper.outcome(value.isPresent());
+            return value;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.STORE_READ, getClass().getSimpleName(), outcome, t0);
+        }
     }
 
     /** {@inheritDoc} */
@@ -33,10 +52,17 @@ public abstract class AbstractStore<K, O> extends InitializableObject implements
         CommonHelper.assertNotNull("key", key);
         init();
 
-        if (value == null) {
-            internalRemove(key);
-        } else {
-            internalSet(key, value);
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            if (value == null) {
+                internalRemove(key);
+            } else {
+                internalSet(key, value);
+            }
+            outcome = Pac4jMetrics.Outcome.SUCCESS;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.STORE_WRITE, getClass().getSimpleName(), outcome, t0);
         }
     }
 
@@ -46,7 +72,135 @@ public abstract class AbstractStore<K, O> extends InitializableObject implements
         CommonHelper.assertNotNull("key", key);
         init();
 
-        internalRemove(key);
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            internalRemove(key);
+            outcome = Pac4jMetrics.Outcome.SUCCESS;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.STORE_WRITE, getClass().getSimpleName(), outcome, t0);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(final K key, final O value, final Duration timeToLive) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertNotNull("timeToLive", timeToLive);
+        init();
+
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            if (value == null) {
+                internalRemove(key);
+            } else {
+                internalSet(key, value, timeToLive);
+            }
+            outcome = Pac4jMetrics.Outcome.SUCCESS;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.STORE_WRITE, getClass().getSimpleName(), outcome, t0);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean setIfAbsent(final K key, final O value) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertNotNull("value", value);
+        init();
+
+        return timedSetIfAbsent(key, value, null);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean setIfAbsent(final K key, final O value, final Duration timeToLive) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertNotNull("value", value);
+        CommonHelper.assertNotNull("timeToLive", timeToLive);
+        init();
+
+        return timedSetIfAbsent(key, value, timeToLive);
+    }
+
+    private boolean timedSetIfAbsent(final K key, final O value, final Duration timeToLive) {
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            val set = internalSetIfAbsent(key, value, timeToLive);
+            outcome = MetricsHelper.outcome(set);
+            return set;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.STORE_WRITE, getClass().getSimpleName(), outcome, t0);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<K, O> getAll(final Collection<K> keys) {
+        assertNotNullKeys(keys);
+        init();
+
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            val values = internalGetAll(keys);
+            outcome = MetricsHelper.outcome(values.keySet().containsAll(keys));
+            return values;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.STORE_READ, getClass().getSimpleName(), outcome, t0);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setAll(final Map<K, O> values) {
+        CommonHelper.assertNotNull("values", values);
+        assertNotNullKeys(values.keySet());
+        init();
+
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            final Map<K, O> toSet = new LinkedHashMap<>();
+            for (val entry : values.entrySet()) {
+                if (entry.getValue() == null) {
+                    internalRemove(entry.getKey());
+                } else {
+                    toSet.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!toSet.isEmpty()) {
+                internalSetAll(toSet);
+            }
+            outcome = Pac4jMetrics.Outcome.SUCCESS;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.STORE_WRITE, getClass().getSimpleName(), outcome, t0);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeAll(final Collection<K> keys) {
+        assertNotNullKeys(keys);
+        init();
+
+        val t0 = System.nanoTime();
+        var outcome = Pac4jMetrics.Outcome.ERROR;
+        try {
+            internalRemoveAll(keys);
+            outcome = Pac4jMetrics.Outcome.SUCCESS;
+        } finally {
+            MetricsHelper.record(Pac4jMetrics.Phase.STORE_WRITE, getClass().getSimpleName(), outcome, t0);
+        }
+    }
+
+    private static void assertNotNullKeys(final Collection<?> keys) {
+        CommonHelper.assertNotNull("keys", keys);
+        for (val key : keys) {
+            CommonHelper.assertNotNull("key", key);
+        }
     }
 
     /**
@@ -71,4 +225,77 @@ public abstract class AbstractStore<K, O> extends InitializableObject implements
      * @param key a K object
      */
     protected abstract void internalRemove(final K key);
+
+    /**
+     * Set a value which expires after the given time to live. By default, the time to live is ignored (and a warning is logged
+     * once): the stores honoring it must override this method and {@link #isTimeToLiveSupported()}.
+     *
+     * @param key a K object
+     * @param value a O object
+     * @param timeToLive a {@link Duration} object
+     */
+    protected void internalSet(final K key, final O value, final Duration timeToLive) {
+        if (!timeToLiveWarned) {
+            timeToLiveWarned = true;
+            LOGGER.warn("{} does not support the time to live: the values expire according to the store configuration",
+                getClass().getSimpleName());
+        }
+        internalSet(key, value);
+    }
+
+    /**
+     * Set a value if none is associated to the key. By default, this is a non-atomic check-then-set.
+     *
+     * @param key a K object
+     * @param value a O object
+     * @param timeToLive a {@link Duration} object (optional)
+     * @return whether the value has been set
+     */
+    protected boolean internalSetIfAbsent(final K key, final O value, final Duration timeToLive) {
+        if (internalGet(key).isPresent()) {
+            return false;
+        }
+        if (timeToLive != null) {
+            internalSet(key, value, timeToLive);
+        } else {
+            internalSet(key, value);
+        }
+        return true;
+    }
+
+    /**
+     * Get multiple values. By default, the keys are read one by one.
+     *
+     * @param keys a {@link Collection} object
+     * @return a {@link Map} object
+     */
+    protected Map<K, O> internalGetAll(final Collection<K> keys) {
+        final Map<K, O> values = new LinkedHashMap<>();
+        for (val key : keys) {
+            internalGet(key).ifPresent(value -> values.put(key, value));
+        }
+        return values;
+    }
+
+    /**
+     * Set multiple (not null) values. By default, the values are written one by one.
+     *
+     * @param values a {@link Map} object
+     */
+    protected void internalSetAll(final Map<K, O> values) {
+        for (val entry : values.entrySet()) {
+            internalSet(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Remove multiple values. By default, the keys are removed one by one.
+     *
+     * @param keys a {@link Collection} object
+     */
+    protected void internalRemoveAll(final Collection<K> keys) {
+        for (val key : keys) {
+            internalRemove(key);
+        }
+    }
 }
@@ -1,20 +1,51 @@
 package org.pac4j.core.store;
 
+import com.google.common.base.Ticker;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import lombok.val;
 import org.pac4j.core.util.CommonHelper;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Store data in a Guava cache.
  *
  * Add the <code>guava</code> dependency to use this store.
  *
+ * Beyond the maximum size and the expiration after write, the store can:
+ * <ul>
+ *     <li>expire the entries after their last access ({@link #expireAfterAccess})</li>
+ *     <li>bound the total weight of the entries instead of their number ({@link #weigher}, the {@link #size} is then the maximum
+ *     weight)</li>
+ *     <li>expire each entry earlier than the timeout, for example at the expiration of a token ({@link #expiry} or
+ *     {@link #set(Object, Object, Duration)})</li>
+ *     <li>refresh asynchronously the entries read after the {@link #refreshAfterWrite} period ({@link #refresher})</li>
+ *     <li>record the hit, miss and eviction statistics ({@link #recordStats})</li>
+ *     <li>set a value only if absent, atomically ({@link #setIfAbsent(Object, Object)})</li>
+ * </ul>
+ *
  * @author Jerome Leleu
  * @since 2.0.0
  */
@@ -36,6 +67,52 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
     @Setter
     private TimeUnit timeUnit;
 
+    /** Whether the timeout applies since the last access (instead of the last write). */
+    @Getter
+    @Setter
+    private boolean expireAfterAccess;
+
+    /** The weigher of the entries: when defined, the size is the maximum total weight. */
+    @Getter
+    @Setter
+    private Weigher<K, O> weigher;
+
+    /** The time to live of each entry: when shorter than the timeout, the entry expires earlier (never stored if not positive). */
+    @Getter
+    @Setter
+    private BiFunction<K, O, Duration> expiry;
+
+    /** The function computing a fresh value for a key (an empty value keeps the current one). */
+    @Getter
+    @Setter
+    private Function<K, Optional<O>> refresher;
+
+    /** The period after which a read entry is refreshed by the refresher. */
+    @Getter
+    @Setter
+    private Duration refreshAfterWrite;
+
+    /** The executor of the refreshes (they are performed synchronously by the reading thread if none is defined). */
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private Executor refreshExecutor;
+
+    /** Whether the statistics are recorded. */
+    @Getter
+    @Setter
+    private boolean recordStats;
+
+    /** The time source. */
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private Ticker ticker = Ticker.systemTicker();
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final ConcurrentMap<K, Deadline> deadlines = new ConcurrentHashMap<>();
+
     /**
      * <p>Constructor for GuavaStore.</p>
      */
@@ -60,21 +137,151 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
         CommonHelper.assertTrue(this.size > 0, "size mut be greater than zero");
         CommonHelper.assertTrue(this.timeout >= 0, "timeout must be greater than zero");
         CommonHelper.assertNotNull("timeUnit", this.timeUnit);
+        CommonHelper.assertNotNull("ticker", this.ticker);
+
+        val builder = CacheBuilder.newBuilder().ticker(this.ticker);
+        if (this.weigher != null) {
+            builder.maximumWeight(this.size).weigher(this.weigher);
+        } else {
+            builder.maximumSize(this.size);
+        }
+        if (this.expireAfterAccess) {
+            builder.expireAfterAccess(this.timeout, this.timeUnit);
+        } else {
+            builder.expireAfterWrite(this.timeout, this.timeUnit);
+        }
+        if (this.recordStats) {
+            builder.recordStats();
+        }
+        deadlines.clear();
+        val typedBuilder = builder.<K, O>removalListener(notification -> {
+            val key = notification.getKey();
+            val value = notification.getValue();
+            // the same value stored again (or kept by a refresh) keeps its deadline
+            if (notification.getCause() != RemovalCause.REPLACED || cache.asMap().get(key) != value) {
+                deadlines.computeIfPresent(key, (k, deadline) -> deadline.value() == value ? null : deadline);
+            }
+        });
+        if (this.refresher != null) {
+            CommonHelper.assertNotNull("refreshAfterWrite", this.refreshAfterWrite);
+            typedBuilder.refreshAfterWrite(this.refreshAfterWrite);
+            final CacheLoader<K, O> loader = new CacheLoader<>() {
+                @Override
+                public O load(final K key) {
+                    // no value is reported as a null one
+                    return refresher.apply(key).orElse(null);
+                }
 
-        this.cache = CacheBuilder.newBuilder().maximumSize(this.size)
-                .expireAfterWrite(this.timeout, this.timeUnit).build();
+                @Override
+                public ListenableFuture<O> reload(final K key, final O oldValue) {
+                    val value = refresher.apply(key).orElse(oldValue);
+                    if (value != oldValue) {
+                        // the refreshed value has its own time to live (the timeout of the store without expiry)
+                        updateDeadline(key, value, expiry != null ? expiry.apply(key, value) : null, false);
+                    }
+                    return Futures.immediateFuture(value);
+                }
+            };
+            this.cache = typedBuilder.build(this.refreshExecutor != null ? CacheLoader.asyncReloading(loader, this.refreshExecutor)
+                : loader);
+        } else {
+            this.cache = typedBuilder.build();
+        }
+    }
+
+    /**
+     * Return the statistics of the store (only meaningful if they are recorded).
+     *
+     * @return the hit, miss, load and eviction statistics
+     */
+    public CacheStats getStats() {
+        init();
+        return cache.stats();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isTimeToLiveSupported() {
+        return true;
     }
 
     /** {@inheritDoc} */
     @Override
     protected Optional<O> internalGet(final K key) {
+        if (isExpired(key, ticker.read())) {
+            cache.invalidate(key);
+            return Optional.empty();
+        }
         return Optional.ofNullable(cache.getIfPresent(key));
     }
 
     /** {@inheritDoc} */
     @Override
     protected void internalSet(final K key, final O value) {
+        internalSet(key, value, expiry != null ? expiry.apply(key, value) : null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The time to live cannot exceed the timeout of the store.
+     */
+    @Override
+    protected void internalSet(final K key, final O value, final Duration timeToLive) {
+        if (isNotPositive(timeToLive)) {
+            cache.invalidate(key);
+            return;
+        }
         cache.put(key, value);
+        updateDeadline(key, value, timeToLive, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The conditional write is atomic. A value with a non-positive time to live is never stored (and <code>false</code> is returned).
+     */
+    @Override
+    protected boolean internalSetIfAbsent(final K key, final O value, final Duration timeToLive) {
+        val effectiveTimeToLive = timeToLive != null ? timeToLive : expiry != null ? expiry.apply(key, value) : null;
+        if (isNotPositive(effectiveTimeToLive)) {
+            return false;
+        }
+        val map = cache.asMap();
+        val current = map.putIfAbsent(key, value);
+        if (current == null || isExpired(key, ticker.read()) && map.replace(key, current, value)) {
+            updateDeadline(key, value, effectiveTimeToLive, true);
+            return true;
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Map<K, O> internalGetAll(final Collection<K> keys) {
+        val now = ticker.read();
+        final List<K> liveKeys = new ArrayList<>(keys.size());
+        for (val key : keys) {
+            if (isExpired(key, now)) {
+                cache.invalidate(key);
+            } else {
+                liveKeys.add(key);
+            }
+        }
+        return cache.getAllPresent(liveKeys);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void internalSetAll(final Map<K, O> values) {
+        if (expiry != null) {
+            super.internalSetAll(values);
+        } else {
+            cache.putAll(values);
+            for (val entry : values.entrySet()) {
+                updateDeadline(entry.getKey(), entry.getValue(), null, true);
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -82,4 +289,37 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
     protected void internalRemove(final K key) {
         cache.invalidate(key);
     }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void internalRemoveAll(final Collection<K> keys) {
+        cache.invalidateAll(keys);
+    }
+
+    private boolean isExpired(final K key, final long now) {
+        val deadline = deadlines.get(key);
+        return deadline != null && now - deadline.nanos() >= 0;
+    }
+
+    private void updateDeadline(final K key, final O value, final Duration timeToLive, final boolean stored) {
+        if (timeToLive != null) {
+            val deadline = new Deadline(value, ticker.read() + timeToLive.toNanos());
+            deadlines.put(key, deadline);
+            // the entry may have been removed (and notified) before its deadline was recorded
+            if (stored && cache.asMap().get(key) != value) {
+                deadlines.remove(key, deadline);
+            }
+        } else {
+            deadlines.remove(key);
+        }
+    }
+
+    private static boolean isNotPositive(final Duration timeToLive) {
+        return timeToLive != null && (timeToLive.isZero() || timeToLive.isNegative());
+    }
+
+    /**
+     * The deadline of a value (the value is compared by identity).
+     */
+    private record Deadline(Object value, long nanos) {}
 }
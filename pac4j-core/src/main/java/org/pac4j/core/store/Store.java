@@ -1,5 +1,11 @@
 package org.pac4j.core.store;
 
+import lombok.val;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,4 +38,95 @@ public interface Store<K, O> {
      * @param key the key
      */
     void remove(K key);
+
+    /**
+     * Whether the store honors the time to live passed to {@link #set(Object, Object, Duration)}
+     * and {@link #setIfAbsent(Object, Object, Duration)}.
+     *
+     * @return whether the time to live is supported (<code>false</code> by default)
+     */
+    default boolean isTimeToLiveSupported() {
+        return false;
+    }
+
+    /**
+     * Set a value by its key, which expires after the given time to live.
+     *
+     * The default implementation ignores the time to live: the value expires according to the store configuration
+     * (see {@link #isTimeToLiveSupported()}).
+     *
+     * @param key the key
+     * @param value the value
+     * @param timeToLive the time to live of the value
+     */
+    default void set(final K key, final O value, final Duration timeToLive) {
+        set(key, value);
+    }
+
+    /**
+     * Set a value by its key only if no value is associated to the key.
+     *
+     * The default implementation is not atomic: the stores should override it with a native conditional write.
+     *
+     * @param key the key
+     * @param value the value
+     * @return whether the value has been set
+     */
+    default boolean setIfAbsent(final K key, final O value) {
+        if (get(key).isPresent()) {
+            return false;
+        }
+        set(key, value);
+        return true;
+    }
+
+    /**
+     * Set a value by its key only if no value is associated to the key, the value expiring after the given time to live.
+     *
+     * The default implementation is not atomic and ignores the time to live.
+     *
+     * @param key the key
+     * @param value the value
+     * @param timeToLive the time to live of the value
+     * @return whether the value has been set
+     */
+    default boolean setIfAbsent(final K key, final O value, final Duration timeToLive) {
+        return setIfAbsent(key, value);
+    }
+
+    /**
+     * Get the values for multiple keys.
+     *
+     * @param keys the keys
+     * @return the values found by key
+     */
+    default Map<K, O> getAll(final Collection<K> keys) {
+        final Map<K, O> values = new LinkedHashMap<>();
+        for (val key : keys) {
+            get(key).ifPresent(value -> values.put(key, value));
+        }
+        return values;
+    }
+
+    /**
+     * Set multiple values by their keys.
+     *
+     * @param values the values by key
+     */
+    default void setAll(final Map<K, O> values) {
+        for (val entry : values.entrySet()) {
+            set(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Remove the values associated to multiple keys.
+     *
+     * @param keys the keys
+     */
+    default void removeAll(final Collection<K> keys) {
+        for (val key : keys) {
+            remove(key);
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package org.pac4j.core.util;
+
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Helper for the asynchronous APIs.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class AsyncHelper {
+
+    private AsyncHelper() {}
+
+    /**
+     * Wait for the result of a stage, rethrowing its failure as is (if it is a runtime exception).
+     *
+     * @param stage the stage
+     * @param <T> the type of the result
+     * @return the result
+     */
+    public static <T> T join(final CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (final CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Return the original failure of a stage (unwrapping the {@link CompletionException}) as a runtime exception.
+     *
+     * @param throwable the failure
+     * @return the runtime exception
+     */
+    public static RuntimeException unwrap(final Throwable throwable) {
+        val cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new TechnicalException(cause);
+    }
+}
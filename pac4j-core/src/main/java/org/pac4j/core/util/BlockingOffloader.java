@@ -0,0 +1,172 @@
+package org.pac4j.core.util;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Run blocking calls (to an identity provider, a LDAP server...) on a dedicated executor, with a bulkhead and a deadline.
+ *
+ * <p>At most {@link #getMaxConcurrentCalls()} calls run at the same time: beyond, the calls fail immediately instead of
+ * piling up. A call not finished within {@link #getDeadlineInMilliseconds()} fails and its thread is interrupted.</p>
+ *
+ * <p>An interrupted call may still run after its deadline, when the request is over: the blocking calls must not use
+ * the web context or the session store of the request, which the web servers may already recycle for another request.</p>
+ *
+ * <p>The default executor uses a virtual thread per task when the JVM supports them (Java 21+), or cached daemon threads
+ * otherwise.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public class BlockingOffloader {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    @ToString.Include
+    private final String name;
+
+    private final ExecutorService executor;
+
+    @ToString.Include
+    private final int maxConcurrentCalls;
+
+    @ToString.Include
+    private final long deadlineInMilliseconds;
+
+    private final Semaphore bulkhead;
+
+    /**
+     * <p>Constructor for BlockingOffloader.</p>
+     *
+     * @param name the name (for example, the client name)
+     * @param executor the executor running the blocking calls
+     * @param maxConcurrentCalls the maximum number of concurrent calls
+     * @param deadlineInMilliseconds the deadline of each call
+     */
+    public BlockingOffloader(final String name, final ExecutorService executor, final int maxConcurrentCalls,
+                             final long deadlineInMilliseconds) {
+        CommonHelper.assertNotNull("executor", executor);
+        CommonHelper.assertTrue(maxConcurrentCalls > 0, "maxConcurrentCalls must be greater than 0");
+        CommonHelper.assertTrue(deadlineInMilliseconds > 0, "deadlineInMilliseconds must be greater than 0");
+        this.name = name;
+        this.executor = executor;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.deadlineInMilliseconds = deadlineInMilliseconds;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Return the shared default executor: a virtual thread per task if available, cached daemon threads otherwise.
+     *
+     * @return the default executor
+     */
+    public static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Run a blocking call and wait for its result (within the deadline).
+     *
+     * @param call the blocking call
+     * @param <T> the type of the result
+     * @return the result
+     */
+    public <T> T call(final Supplier<T> call) {
+        return AsyncHelper.join(submit(call));
+    }
+
+    /**
+     * Submit a blocking call.
+     *
+     * @param call the blocking call
+     * @param <T> the type of the result
+     * @return the future result, failed if the bulkhead is full or the deadline is exceeded
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<T> call) {
+        if (!bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(new TechnicalException("Too many concurrent blocking calls for: " + name));
+        }
+        val result = new CompletableFuture<T>();
+        // the permit is released by the call when it has started, otherwise by the timeout
+        val started = new AtomicBoolean();
+        final Future<?> future;
+        try {
+            future = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    result.complete(call.get());
+                } catch (final RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    bulkhead.release();
+                    if (!result.isDone()) {
+                        result.completeExceptionally(new TechnicalException("Blocking call failed for: " + name));
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            bulkhead.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        result.orTimeout(deadlineInMilliseconds, TimeUnit.MILLISECONDS).whenComplete((value, e) -> {
+            if (e instanceof TimeoutException) {
+                LOGGER.warn("Blocking call exceeded its deadline of {} ms for: {}", deadlineInMilliseconds, name);
+                if (started.compareAndSet(false, true)) {
+                    bulkhead.release();
+                } else {
+                    future.cancel(true);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Return the number of calls which can still be started.
+     *
+     * @return the number of available permits
+     */
+    public int getAvailableCalls() {
+        return bulkhead.availablePermits();
+    }
+
+    private static final class DefaultExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = newDefaultExecutor();
+
+        private static ExecutorService newDefaultExecutor() {
+            try {
+                val method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                LOGGER.debug("Using virtual threads for the blocking calls");
+                return (ExecutorService) method.invoke(null);
+            } catch (final ReflectiveOperationException e) {
+                LOGGER.debug("Virtual threads are not available, using platform threads for the blocking calls");
+                return Executors.newCachedThreadPool(runnable -> {
+                    val thread = new Thread(runnable, "pac4j-blocking-" + THREAD_NUMBER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+}
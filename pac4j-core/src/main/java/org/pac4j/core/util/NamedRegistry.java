@@ -0,0 +1,201 @@
+package org.pac4j.core.util;
+
+import lombok.val;
+
+import java.util.*;
+
+/**
+ * An immutable registry of named components (authorizers, matchers...) indexed by their trimmed and case-insensitive names.
+ *
+ * As a {@link Map}, it exposes the registered entries. The {@link #lookup(String)} method also falls back to the built-in
+ * components. Lookups are performed in constant time without any allocation.
+ *
+ * @param <V> the type of the named components
+ * @author agent
+ * @since 6.0.0
+ */
+public final class NamedRegistry<V> extends AbstractMap<String, V> {
+
+    private final Map<String, V> source;
+
+    private final int sourceSize;
+
+    private final Map<String, V> entries;
+
+    private final String[] keys;
+
+    private final Object[] values;
+
+    private final boolean[] builtIns;
+
+    private final int mask;
+
+    private NamedRegistry(final Map<String, V> source, final Map<String, V> builtIns) {
+        this.source = source;
+        this.sourceSize = source.size();
+        this.entries = Collections.unmodifiableMap(new LinkedHashMap<>(source));
+
+        var capacity = 4;
+        while (capacity < (entries.size() + builtIns.size()) * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.builtIns = new boolean[capacity];
+        this.mask = capacity - 1;
+
+        // in case of conflicting names, the first registered component wins, like the former linear lookup
+        for (val entry : entries.entrySet()) {
+            put(entry.getKey(), entry.getValue(), false);
+        }
+        for (val entry : builtIns.entrySet()) {
+            put(entry.getKey(), entry.getValue(), true);
+        }
+    }
+
+    /**
+     * Build a registry from the registered components and the built-in ones.
+     *
+     * @param source the registered components
+     * @param builtIns the built-in components, used when no registered component has the same name
+     * @param <V> the type of the named components
+     * @return the registry
+     */
+    public static <V> NamedRegistry<V> of(final Map<String, V> source, final Map<String, V> builtIns) {
+        CommonHelper.assertNotNull("source", source);
+        CommonHelper.assertNotNull("builtIns", builtIns);
+        return new NamedRegistry<>(source, builtIns);
+    }
+
+    private void put(final String name, final V value, final boolean builtIn) {
+        if (name == null || value == null) {
+            return;
+        }
+        val start = trimStart(name);
+        val end = trimEnd(name, start);
+        var index = hash(name, start, end) & mask;
+        while (keys[index] != null) {
+            if (matches(keys[index], name, start, end)) {
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = name.substring(start, end);
+        values[index] = value;
+        builtIns[index] = builtIn;
+    }
+
+    private int indexOf(final String name) {
+        if (name == null) {
+            return -1;
+        }
+        val start = trimStart(name);
+        val end = trimEnd(name, start);
+        var index = hash(name, start, end) & mask;
+        while (keys[index] != null) {
+            if (matches(keys[index], name, start, end)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Find the registered or built-in component for a name (trimmed and case-insensitive).
+     *
+     * @param name the name
+     * @return the component or <code>null</code> if none is found
+     */
+    @SuppressWarnings("unchecked")
+    public V lookup(final String name) {
+        val index = indexOf(name);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    /**
+     * Find the registered component (not a built-in one) for a name (trimmed and case-insensitive).
+     *
+     * @param key the name
+     * @return the component or <code>null</code> if none is found
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        val index = indexOf(name);
+        return index >= 0 && !builtIns[index] ? (V) values[index] : null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return entries.entrySet();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Whether this registry has been built from the given map, assuming that it has not been modified since if it has the same size.
+     *
+     * @param map the map
+     * @return whether this registry has been built from the map
+     */
+    public boolean isBuiltFrom(final Map<String, V> map) {
+        return source == map && map.size() == sourceSize;
+    }
+
+    private static int trimStart(final String s) {
+        var start = 0;
+        while (start < s.length() && s.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(final String s, final int start) {
+        var end = s.length();
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static char fold(final char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int hash(final String s, final int start, final int end) {
+        var h = 0;
+        for (var i = start; i < end; i++) {
+            h = 31 * h + fold(s.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(final String key, final String s, final int start, final int end) {
+        if (key.length() != end - start) {
+            return false;
+        }
+        for (var i = 0; i < key.length(); i++) {
+            val c1 = key.charAt(i);
+            val c2 = s.charAt(start + i);
+            if (c1 != c2 && fold(c1) != fold(c2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
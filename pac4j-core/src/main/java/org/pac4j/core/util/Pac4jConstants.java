@@ -16,6 +16,10 @@ public interface Pac4jConstants {
     /** Constant <code>USER_PROFILES="pac4jUserProfiles"</code> */
     String USER_PROFILES = "pac4jUserProfiles";
 
+    /* Snapshot of the user profiles read during the current request */
+    /** Constant <code>USER_PROFILES_SNAPSHOT="pac4jUserProfilesSnapshot"</code> */
+    String USER_PROFILES_SNAPSHOT = "pac4jUserProfilesSnapshot";
+
     /* CSRF token name saved in session */
     /** Constant <code>PREVIOUS_CSRF_TOKEN="pac4jPreviousCsrfToken"</code> */
     String PREVIOUS_CSRF_TOKEN = "pac4jPreviousCsrfToken";
@@ -0,0 +1,48 @@
+package org.pac4j.core.util;
+
+import lombok.val;
+
+/**
+ * Bounded pool of the strings shared by many profiles: the attribute names, the roles and the client names.
+ *
+ * <p>It is a lossy, lock-free cache of {@link #SIZE} slots selected by the hash of the strings: a string replaces the one
+ * in its slot unless they are equal, in which case the pooled instance is returned. The pool never retains more than
+ * {@link #SIZE} strings of at most {@link #MAX_LENGTH} characters (longer strings are returned as is), so unlike
+ * {@link String#intern()}, interning arbitrary data cannot grow it.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class StringInterner {
+
+    /** The number of slots. */
+    public static final int SIZE = 4096;
+
+    /** The maximum length of the pooled strings. */
+    public static final int MAX_LENGTH = 256;
+
+    // the strings are immutable: racy reads and writes of the slots are safe
+    private static final String[] POOL = new String[SIZE];
+
+    private StringInterner() {}
+
+    /**
+     * Return the pooled instance equal to the string (and pool it if there is none).
+     *
+     * @param s the string
+     * @return the pooled instance or the string itself
+     */
+    public static String intern(final String s) {
+        if (s == null || s.length() > MAX_LENGTH) {
+            return s;
+        }
+        val h = s.hashCode();
+        val index = (h ^ (h >>> 16)) & (SIZE - 1);
+        val pooled = POOL[index];
+        if (pooled != null && pooled.equals(s)) {
+            return pooled;
+        }
+        POOL[index] = s;
+        return s;
+    }
+}
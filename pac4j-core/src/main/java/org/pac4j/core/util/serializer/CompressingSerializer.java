@@ -0,0 +1,172 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Serializer which compresses the bytes produced by another serializer.
+ *
+ * <p>The compressed bytes start with a header: a magic byte and the codec (stored or deflated). The data smaller than the
+ * {@link #threshold} or which would not shrink are stored as is. The bytes without header (for example, the data serialized
+ * before the compression was enabled) are passed as is to the underlying serializer.</p>
+ *
+ * <p>The JDK deflate codec is used by default: override the {@link #compress(byte[])} and {@link #decompress(byte[], int)}
+ * methods to use another codec. To encrypt the data, the {@link EncryptingSerializer} must wrap this serializer (and not
+ * the opposite): the encrypted data do not compress.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@ToString
+public class CompressingSerializer extends AbstractSerializer {
+
+    /** The magic byte: neither the Java (0xAC) and JSON serializations nor the {@link ProfileSerializer} start with it. */
+    protected static final byte MAGIC = (byte) 0xC5;
+
+    /** The codec of the data stored as is. */
+    protected static final byte STORED = 0;
+
+    /** The codec of the compressed data. */
+    protected static final byte COMPRESSED = 1;
+
+    private static final int HEADER_SIZE = 2;
+
+    @Getter
+    private final Serializer serializer;
+
+    /** The minimum size of the data to compress. */
+    @Getter
+    @Setter
+    private int threshold = 256;
+
+    /** The compression level (from 0 to 9). */
+    @Getter
+    @Setter
+    private int level = Deflater.BEST_SPEED;
+
+    /** The maximum size of the decompressed data, to protect against the decompression bombs. */
+    @Getter
+    @Setter
+    private int maxDecompressedSize = 1024 * 1024;
+
+    /**
+     * <p>Constructor for CompressingSerializer.</p>
+     *
+     * @param serializer the underlying serializer
+     */
+    public CompressingSerializer(final Serializer serializer) {
+        CommonHelper.assertNotNull("serializer", serializer);
+        this.serializer = serializer;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected byte[] internalSerializeToBytes(final Object obj) {
+        val data = serializer.serializeToBytes(obj);
+        if (data == null) {
+            return null;
+        }
+        if (data.length >= threshold) {
+            val compressed = compress(data);
+            if (compressed.length < data.length) {
+                return withHeader(COMPRESSED, compressed);
+            }
+        }
+        return withHeader(STORED, data);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Object internalDeserializeFromBytes(final byte[] encoded) {
+        if (encoded.length < HEADER_SIZE || encoded[0] != MAGIC) {
+            return serializer.deserializeFromBytes(encoded);
+        }
+        val payload = Arrays.copyOfRange(encoded, HEADER_SIZE, encoded.length);
+        if (encoded[1] == STORED) {
+            return serializer.deserializeFromBytes(payload);
+        } else if (encoded[1] == COMPRESSED) {
+            try {
+                return serializer.deserializeFromBytes(decompress(payload, maxDecompressedSize));
+            } catch (final TechnicalException e) {
+                LOGGER.warn("Cannot decompress data: {}", e.getMessage());
+                return null;
+            }
+        }
+        LOGGER.warn("Unknown compression codec: {}", encoded[1]);
+        return null;
+    }
+
+    /**
+     * Compress the data.
+     *
+     * @param data the data
+     * @return the compressed data
+     */
+    protected byte[] compress(final byte[] data) {
+        val deflater = new Deflater(level);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            val out = new ByteArrayOutputStream(data.length / 2 + 16);
+            val buffer = new byte[Math.min(data.length + 16, 8192)];
+            while (!deflater.finished()) {
+                val n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompress the data.
+     *
+     * @param data the compressed data
+     * @param maxSize the maximum size of the decompressed data
+     * @return the decompressed data
+     */
+    protected byte[] decompress(final byte[] data, final int maxSize) {
+        val inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            val out = new ByteArrayOutputStream(data.length * 4);
+            val buffer = new byte[8192];
+            while (!inflater.finished()) {
+                val n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new TechnicalException("Truncated compressed data");
+                }
+                if (out.size() + n > maxSize) {
+                    throw new TechnicalException("Decompressed data exceed " + maxSize + " bytes");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (final DataFormatException e) {
+            throw new TechnicalException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] withHeader(final byte codec, final byte[] payload) {
+        val bytes = new byte[HEADER_SIZE + payload.length];
+        bytes[0] = MAGIC;
+        bytes[1] = codec;
+        System.arraycopy(payload, 0, bytes, HEADER_SIZE, payload.length);
+        return bytes;
+    }
+}
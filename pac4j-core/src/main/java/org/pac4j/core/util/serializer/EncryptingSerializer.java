@@ -0,0 +1,174 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.util.CommonHelper;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializer which encrypts (and authenticates) the bytes produced by another serializer with AES-GCM.
+ *
+ * <p>The encrypted bytes are: a version byte, the identifier of the key (length-prefixed), a random 12 bytes IV and the
+ * ciphertext followed by the 16 bytes tag. The version and the key identifier are authenticated too.</p>
+ *
+ * <p>Keys rotation: the data are always encrypted with the current key while they are decrypted with the key identified in
+ * their header, so a new key can be defined via {@link #rotateKey(String, byte[])} while the data encrypted with the previous
+ * keys remain readable, until these keys are removed via {@link #removeKey(String)}.</p>
+ *
+ * <p>The data which cannot be decrypted (unknown key, tampered or truncated data) are deserialized as <code>null</code>.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@ToString(onlyExplicitlyIncluded = true)
+public class EncryptingSerializer extends AbstractSerializer {
+
+    /** The version of the format. */
+    protected static final byte VERSION = 1;
+
+    private static final String ALGORITHM = "AES";
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int IV_SIZE = 12;
+
+    private static final int TAG_SIZE_IN_BITS = 128;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Getter
+    @ToString.Include
+    private final Serializer serializer;
+
+    private final Map<String, SecretKey> keys = new ConcurrentHashMap<>();
+
+    @Getter
+    @ToString.Include
+    private volatile String currentKeyId;
+
+    /**
+     * <p>Constructor for EncryptingSerializer.</p>
+     *
+     * @param serializer the underlying serializer
+     * @param keyId the identifier of the current key
+     * @param key the current key (16, 24 or 32 bytes)
+     */
+    public EncryptingSerializer(final Serializer serializer, final String keyId, final byte[] key) {
+        CommonHelper.assertNotNull("serializer", serializer);
+        this.serializer = serializer;
+        rotateKey(keyId, key);
+    }
+
+    /**
+     * Define a key to decrypt the data, for example the key used before the last rotation.
+     *
+     * @param keyId the identifier of the key
+     * @param key the key (16, 24 or 32 bytes)
+     */
+    public void addKey(final String keyId, final byte[] key) {
+        CommonHelper.assertNotBlank("keyId", keyId);
+        CommonHelper.assertTrue(keyId.getBytes(StandardCharsets.UTF_8).length <= 255, "keyId cannot exceed 255 bytes");
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertTrue(key.length == 16 || key.length == 24 || key.length == 32, "key must be 16, 24 or 32 bytes long");
+        keys.put(keyId, new SecretKeySpec(key, ALGORITHM));
+    }
+
+    /**
+     * Define a key and use it to encrypt the data. The previous keys are kept to decrypt the existing data.
+     *
+     * @param keyId the identifier of the key
+     * @param key the key (16, 24 or 32 bytes)
+     */
+    public void rotateKey(final String keyId, final byte[] key) {
+        addKey(keyId, key);
+        this.currentKeyId = keyId;
+    }
+
+    /**
+     * Remove a key: the data encrypted with it can no longer be decrypted.
+     *
+     * @param keyId the identifier of the key
+     */
+    public void removeKey(final String keyId) {
+        CommonHelper.assertTrue(!CommonHelper.areEquals(keyId, currentKeyId), "the current key cannot be removed");
+        keys.remove(keyId);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected byte[] internalSerializeToBytes(final Object obj) {
+        val data = serializer.serializeToBytes(obj);
+        if (data == null) {
+            return null;
+        }
+        val keyId = currentKeyId;
+        val key = keys.get(keyId);
+        val header = header(keyId);
+        val iv = new byte[IV_SIZE];
+        RANDOM.nextBytes(iv);
+        try {
+            val cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_SIZE_IN_BITS, iv));
+            cipher.updateAAD(header);
+            val bytes = new byte[header.length + IV_SIZE + cipher.getOutputSize(data.length)];
+            System.arraycopy(header, 0, bytes, 0, header.length);
+            System.arraycopy(iv, 0, bytes, header.length, IV_SIZE);
+            cipher.doFinal(data, 0, data.length, bytes, header.length + IV_SIZE);
+            return bytes;
+        } catch (final GeneralSecurityException e) {
+            LOGGER.error("Cannot encrypt data", e);
+            return null;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Object internalDeserializeFromBytes(final byte[] encoded) {
+        if (encoded.length < 2 || encoded[0] != VERSION) {
+            LOGGER.warn("Unknown encryption format");
+            return null;
+        }
+        val headerSize = 2 + (encoded[1] & 0xFF);
+        if (encoded.length < headerSize + IV_SIZE + TAG_SIZE_IN_BITS / 8) {
+            LOGGER.warn("Truncated encrypted data");
+            return null;
+        }
+        val keyId = new String(encoded, 2, headerSize - 2, StandardCharsets.UTF_8);
+        val key = keys.get(keyId);
+        if (key == null) {
+            LOGGER.warn("Unknown encryption key: {}", keyId);
+            return null;
+        }
+        try {
+            val cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_SIZE_IN_BITS, encoded, headerSize, IV_SIZE));
+            cipher.updateAAD(encoded, 0, headerSize);
+            val offset = headerSize + IV_SIZE;
+            return serializer.deserializeFromBytes(cipher.doFinal(encoded, offset, encoded.length - offset));
+        } catch (final GeneralSecurityException e) {
+            LOGGER.warn("Cannot decrypt data: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] header(final String keyId) {
+        val id = keyId.getBytes(StandardCharsets.UTF_8);
+        val header = new byte[2 + id.length];
+        header[0] = VERSION;
+        header[1] = (byte) id.length;
+        System.arraycopy(id, 0, header, 2, id.length);
+        return header;
+    }
+}
@@ -2,45 +2,146 @@ package org.pac4j.core.util.serializer;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
 
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
 
 /**
  * A JSON serializer.
  *
+ * The {@link ObjectReader} and {@link ObjectWriter} are built once from the object mapper and reused. The bytes are read and
+ * written directly, without intermediate strings.
+ *
  * @author Jerome LELEU
  * @since 3.9.0
  */
 @Slf4j
 public class JsonSerializer extends AbstractSerializer {
 
+    private static final String[] OPTIMIZATION_MODULES = {
+        "com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+        "com.fasterxml.jackson.module.afterburner.AfterburnerModule"
+    };
+
     private ObjectMapper objectMapper;
 
     private Class<? extends Object> clazz;
 
+    private volatile ObjectReader reader;
+
+    private volatile ObjectWriter writer;
+
     /**
      * <p>Constructor for JsonSerializer.</p>
      *
      * @param clazz a {@link Class} object
      */
     public JsonSerializer(final Class<? extends Object> clazz) {
+        this(clazz, buildObjectMapper());
+    }
+
+    /**
+     * <p>Constructor for JsonSerializer.</p>
+     *
+     * @param clazz a {@link Class} object
+     * @param objectMapper a {@link ObjectMapper} object, like the {@link #buildOptimizedObjectMapper()}
+     */
+    public JsonSerializer(final Class<? extends Object> clazz, final ObjectMapper objectMapper) {
         assertNotNull("clazz", clazz);
+        assertNotNull("objectMapper", objectMapper);
         this.clazz = clazz;
+        this.objectMapper = objectMapper;
+    }
 
-        objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
-        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+    /**
+     * Build an object mapper serializing the fields.
+     *
+     * @return the object mapper
+     */
+    public static ObjectMapper buildObjectMapper() {
+        val mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        return mapper;
+    }
+
+    /**
+     * Build an object mapper serializing the fields and registering the Blackbird or Afterburner module if it is
+     * available in the classpath.
+     *
+     * The module is looked up once: each call returns a copy of the same prototype, so every caller (like each
+     * profile service) owns its object mapper and can reconfigure it without affecting the others.
+     *
+     * @return a new object mapper
+     */
+    public static ObjectMapper buildOptimizedObjectMapper() {
+        return OptimizedObjectMapperHolder.PROTOTYPE.copy();
+    }
+
+    /**
+     * Register the Blackbird or the Afterburner module (generating optimized accessors) if one of them is in the classpath.
+     *
+     * @param mapper the object mapper
+     * @return whether a module has been registered
+     */
+    public static boolean registerOptimizationModule(final ObjectMapper mapper) {
+        for (val moduleClassName : OPTIMIZATION_MODULES) {
+            try {
+                val module = (Module) Class.forName(moduleClassName).getDeclaredConstructor().newInstance();
+                mapper.registerModule(module);
+                LOGGER.debug("Registered the Jackson module: {}", moduleClassName);
+                return true;
+            } catch (final ClassNotFoundException e) {
+                LOGGER.trace("Jackson module not found: {}", moduleClassName);
+            } catch (final ReflectiveOperationException | LinkageError e) {
+                LOGGER.warn("Cannot register the Jackson module: {}", moduleClassName, e);
+            }
+        }
+        return false;
+    }
+
+    private ObjectReader reader() {
+        var r = reader;
+        if (r == null) {
+            r = objectMapper.readerFor(clazz);
+            reader = r;
+        }
+        return r;
+    }
+
+    private ObjectWriter writer() {
+        var w = writer;
+        if (w == null) {
+            w = objectMapper.writer();
+            writer = w;
+        }
+        return w;
     }
 
     /** {@inheritDoc} */
     @Override
     protected String internalSerializeToString(final Object obj) {
         try {
-            return objectMapper.writeValueAsString(obj);
-        } catch (final JsonProcessingException e) {
+            return writer().writeValueAsString(obj);
+        } catch (final IOException e) {
+            LOGGER.error("Cannot encode object", e);
+            return null;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected byte[] internalSerializeToBytes(final Object obj) {
+        try {
+            return writer().writeValueAsBytes(obj);
+        } catch (final IOException e) {
             LOGGER.error("Cannot encode object", e);
             return null;
         }
@@ -50,16 +151,30 @@ public class JsonSerializer extends AbstractSerializer {
     @Override
     protected Object internalDeserializeFromString(final String encoded) {
         try {
-            return objectMapper.readValue(encoded, clazz);
-        } catch (final JsonProcessingException e) {
+            return reader().readValue(encoded);
+        } catch (final IOException e) {
             LOGGER.error("Cannot decode string", e);
             return null;
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected Object internalDeserializeFromBytes(final byte[] encoded) {
+        try {
+            return reader().readValue(encoded);
+        } catch (final IOException e) {
+            LOGGER.error("Cannot decode bytes", e);
+            return null;
+        }
+    }
+
     /**
      * <p>Getter for the field <code>objectMapper</code>.</p>
      *
+     * The reader and the writer are built from the object mapper at the first use: reconfigure the object mapper
+     * before serializing, or set a new one with {@link #setObjectMapper(ObjectMapper)}.
+     *
      * @return a {@link ObjectMapper} object
      */
     public ObjectMapper getObjectMapper() {
@@ -74,5 +189,16 @@ public class JsonSerializer extends AbstractSerializer {
     public void setObjectMapper(final ObjectMapper objectMapper) {
         assertNotNull("objectMapper", objectMapper);
         this.objectMapper = objectMapper;
+        this.reader = null;
+        this.writer = null;
+    }
+
+    private static final class OptimizedObjectMapperHolder {
+
+        private static final ObjectMapper PROTOTYPE = buildObjectMapper();
+
+        static {
+            registerOptimizationModule(PROTOTYPE);
+        }
     }
 }
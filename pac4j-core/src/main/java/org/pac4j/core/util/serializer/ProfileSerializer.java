@@ -0,0 +1,611 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.BasicUserProfile;
+import org.pac4j.core.util.StringInterner;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact binary serializer for the user profiles ({@link BasicUserProfile} and subclasses), the maps of user profiles
+ * saved in the web session and the maps of session attributes ({@link LinkedHashMap} with string keys).
+ *
+ * <p>The format is versioned and made of: the lengths and counts as varints, the strings in UTF-8, the attribute values
+ * prefixed by a type tag and the names (attribute names, profile classes) replaced by their index in a shared dictionary
+ * or in a dictionary built along the message. The collections are only tagged when they are exactly an {@link ArrayList},
+ * a {@link LinkedHashSet}, a {@link HashSet}, a {@link LinkedHashMap} or a {@link HashMap} (with string keys), so that they are
+ * deserialized with the same type. The values of other types and the other objects are serialized by the {@link #javaSerializer}.</p>
+ *
+ * <p>The bytes which are not in this format (for example, the profiles previously serialized by the {@link JavaSerializer})
+ * are deserialized by the {@link #javaSerializer}.</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@ToString
+public class ProfileSerializer extends AbstractSerializer {
+
+    private static final byte MAGIC = 'P';
+
+    private static final byte VERSION = 1;
+
+    /** The names shared by all the messages of the version 1: entries can only be appended along with a new version. */
+    private static final String[] SHARED_NAMES = {
+        "org.pac4j.core.profile.CommonProfile", "org.pac4j.core.profile.AnonymousProfile", "org.pac4j.oidc.profile.OidcProfile",
+        "org.pac4j.jwt.profile.JwtProfile", "org.pac4j.cas.profile.CasProfile", "org.pac4j.oauth.profile.OAuth20Profile",
+        "org.pac4j.saml.profile.SAML2Profile", "org.pac4j.http.profile.IpProfile", "org.pac4j.http.profile.RestProfile",
+        "email", "first_name", "family_name", "display_name", "gender", "locale", "picture_url", "profile_url", "location",
+        "name", "given_name", "middle_name", "nickname", "preferred_username", "profile", "picture", "website", "email_verified",
+        "birthdate", "zoneinfo", "phone_number", "phone_number_verified", "address", "updated_at", "access_token", "id_token",
+        "refresh_token", "auth_time", "nonce", "acr", "amr", "azp", "token_expiration_advance", "expiration",
+        "sub", "iss", "aud", "exp", "nbf", "iat", "jti", "username", "roles", "groups", "scope",
+        "sessionindex", "samlNameIdFormat", "samlNameIdNameQualifier", "samlNameIdSpNameQualifier", "samlNameIdSpProviderId",
+        "authenticationDate", "authenticationMethod", "successfulAuthenticationHandlers", "longTermAuthenticationRequestTokenUsed",
+        "isFromNewLogin", "credentialType", "clientIpAddress", "serverIpAddress", "userAgent", "geoLocation"
+    };
+
+    private static final Map<String, Integer> SHARED_INDEXES = new HashMap<>();
+
+    static {
+        for (var i = 0; i < SHARED_NAMES.length; i++) {
+            SHARED_INDEXES.put(SHARED_NAMES[i], i);
+        }
+    }
+
+    private static final byte TAG_PROFILE = 1;
+    private static final byte TAG_PROFILES = 2;
+    private static final byte TAG_OBJECT = 3;
+    private static final byte TAG_ATTRIBUTES = 4;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_FALSE = 3;
+    private static final byte TAG_INT = 4;
+    private static final byte TAG_LONG = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_DATE = 7;
+    private static final byte TAG_URI = 8;
+    private static final byte TAG_LOCALE = 9;
+    private static final byte TAG_ENUM = 10;
+    private static final byte TAG_LIST = 11;
+    private static final byte TAG_SET = 12;
+    private static final byte TAG_MAP = 13;
+    private static final byte TAG_BYTES = 14;
+    private static final byte TAG_JAVA = 15;
+    private static final byte TAG_PROFILE_VALUE = 16;
+    private static final byte TAG_HASH_SET = 17;
+    private static final byte TAG_HASH_MAP = 18;
+
+    /** The serializer of the unsupported values, whose trusted packages and classes also restrict the profile and enum classes. */
+    @Getter
+    @Setter
+    private JavaSerializer javaSerializer = new JavaSerializer();
+
+    @ToString.Exclude
+    private final Map<String, Constructor<? extends BasicUserProfile>> constructors = new ConcurrentHashMap<>();
+
+    @ToString.Exclude
+    private final Map<String, Class<?>> trustedClasses = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override
+    protected byte[] internalSerializeToBytes(final Object obj) {
+        val output = new Output();
+        output.writeByte(MAGIC);
+        output.writeByte(VERSION);
+        if (obj instanceof BasicUserProfile profile) {
+            output.writeByte(TAG_PROFILE);
+            writeProfile(output, profile);
+        } else if (isProfilesMap(obj)) {
+            val profiles = (Map<?, ?>) obj;
+            output.writeByte(TAG_PROFILES);
+            output.writeVarint(profiles.size());
+            for (val entry : profiles.entrySet()) {
+                output.writeString((String) entry.getKey());
+                writeProfile(output, (BasicUserProfile) entry.getValue());
+            }
+        } else if (obj != null && obj.getClass() == LinkedHashMap.class && hasStringKeys((Map<?, ?>) obj)) {
+            val map = (Map<?, ?>) obj;
+            output.writeByte(TAG_ATTRIBUTES);
+            output.writeVarint(map.size());
+            for (val entry : map.entrySet()) {
+                output.writeName((String) entry.getKey());
+                writeValue(output, entry.getValue());
+            }
+        } else {
+            output.writeByte(TAG_OBJECT);
+            output.writeBytes(javaSerializer.serializeToBytes(obj));
+        }
+        return output.toByteArray();
+    }
+
+    private static boolean isProfilesMap(final Object obj) {
+        if (obj == null || obj.getClass() != LinkedHashMap.class) {
+            return false;
+        }
+        val map = (Map<?, ?>) obj;
+        for (val entry : map.entrySet()) {
+            if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof BasicUserProfile)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeProfile(final Output output, final BasicUserProfile profile) {
+        output.writeName(profile.getClass().getName());
+        output.writeNullableString(profile.getId());
+        output.writeNullableString(profile.getClientName());
+        output.writeNullableString(profile.getLinkedId());
+        output.writeByte(profile.isRemembered() ? TAG_TRUE : TAG_FALSE);
+        val roles = profile.getRoles();
+        output.writeVarint(roles.size());
+        for (val role : roles) {
+            output.writeString(role);
+        }
+        writeAttributes(output, profile.getAttributes());
+        writeAttributes(output, profile.getAuthenticationAttributes());
+    }
+
+    private void writeAttributes(final Output output, final Map<String, Object> attributes) {
+        output.writeVarint(attributes.size());
+        for (val entry : attributes.entrySet()) {
+            output.writeName(entry.getKey());
+            writeValue(output, entry.getValue());
+        }
+    }
+
+    private void writeValue(final Output output, final Object value) {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof String s) {
+            output.writeByte(TAG_STRING);
+            output.writeString(s);
+        } else if (value instanceof Boolean b) {
+            output.writeByte(b ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer i) {
+            output.writeByte(TAG_INT);
+            output.writeVarint(zigzag(i));
+        } else if (value instanceof Long l) {
+            output.writeByte(TAG_LONG);
+            output.writeVarint(zigzag(l));
+        } else if (value instanceof Double d) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeLong(Double.doubleToRawLongBits(d));
+        } else if (value.getClass() == Date.class) {
+            output.writeByte(TAG_DATE);
+            output.writeVarint(zigzag(((Date) value).getTime()));
+        } else if (value instanceof URI uri) {
+            output.writeByte(TAG_URI);
+            output.writeString(uri.toString());
+        } else if (value instanceof Locale locale) {
+            output.writeByte(TAG_LOCALE);
+            output.writeString(locale.toLanguageTag());
+        } else if (value instanceof Enum<?> e) {
+            output.writeByte(TAG_ENUM);
+            output.writeName(e.getDeclaringClass().getName());
+            output.writeString(e.name());
+        } else if (value.getClass() == ArrayList.class) {
+            output.writeByte(TAG_LIST);
+            writeValues(output, (List<?>) value);
+        } else if (value.getClass() == LinkedHashSet.class) {
+            output.writeByte(TAG_SET);
+            writeValues(output, (Set<?>) value);
+        } else if (value.getClass() == HashSet.class) {
+            output.writeByte(TAG_HASH_SET);
+            writeValues(output, (Set<?>) value);
+        } else if (value.getClass() == LinkedHashMap.class && hasStringKeys((Map<?, ?>) value)) {
+            output.writeByte(TAG_MAP);
+            writeEntries(output, (Map<?, ?>) value);
+        } else if (value.getClass() == HashMap.class && hasStringKeys((Map<?, ?>) value)) {
+            output.writeByte(TAG_HASH_MAP);
+            writeEntries(output, (Map<?, ?>) value);
+        } else if (value instanceof BasicUserProfile profile) {
+            output.writeByte(TAG_PROFILE_VALUE);
+            writeProfile(output, profile);
+        } else if (value instanceof byte[] bytes) {
+            output.writeByte(TAG_BYTES);
+            output.writeBytes(bytes);
+        } else {
+            val bytes = javaSerializer.serializeToBytes(value);
+            if (bytes == null) {
+                throw new TechnicalException("Cannot serialize attribute value of type: " + value.getClass().getName());
+            }
+            output.writeByte(TAG_JAVA);
+            output.writeBytes(bytes);
+        }
+    }
+
+    private void writeEntries(final Output output, final Map<?, ?> map) {
+        output.writeVarint(map.size());
+        for (val entry : map.entrySet()) {
+            output.writeName((String) entry.getKey());
+            writeValue(output, entry.getValue());
+        }
+    }
+
+    private void writeValues(final Output output, final Collection<?> values) {
+        output.writeVarint(values.size());
+        for (val value : values) {
+            writeValue(output, value);
+        }
+    }
+
+    private static boolean hasStringKeys(final Map<?, ?> map) {
+        for (val key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Object internalDeserializeFromBytes(final byte[] bytes) {
+        if (bytes.length < 3 || bytes[0] != MAGIC) {
+            return javaSerializer.deserializeFromBytes(bytes);
+        }
+        if (bytes[1] != VERSION) {
+            LOGGER.warn("Unsupported profile serialization version: {}", bytes[1]);
+            return null;
+        }
+        try {
+            val input = new Input(bytes, 2);
+            val tag = input.readByte();
+            return switch (tag) {
+                case TAG_PROFILE -> readProfile(input);
+                case TAG_PROFILES -> {
+                    val nb = input.readCount();
+                    final Map<String, Object> profiles = new LinkedHashMap<>();
+                    for (var i = 0; i < nb; i++) {
+                        profiles.put(input.readString(), readProfile(input));
+                    }
+                    yield profiles;
+                }
+                case TAG_OBJECT -> javaSerializer.deserializeFromBytes(input.readBytes());
+                case TAG_ATTRIBUTES -> readMap(input);
+                default -> throw new TechnicalException("Unknown tag: " + tag);
+            };
+        } catch (final RuntimeException e) {
+            LOGGER.warn("cannot deserialize profile", e);
+            return null;
+        }
+    }
+
+    private BasicUserProfile readProfile(final Input input) {
+        val profile = newProfile(input.readName());
+        val id = input.readNullableString();
+        if (id != null) {
+            profile.setId(id);
+        }
+        profile.setClientName(StringInterner.intern(input.readNullableString()));
+        profile.setLinkedId(input.readNullableString());
+        profile.setRemembered(input.readByte() == TAG_TRUE);
+        val nbRoles = input.readCount();
+        final Set<String> roles = new HashSet<>();
+        for (var i = 0; i < nbRoles; i++) {
+            roles.add(input.readString());
+        }
+        profile.addRoles(roles);
+        val nbAttributes = input.readCount();
+        for (var i = 0; i < nbAttributes; i++) {
+            profile.addAttribute(input.readName(), readValue(input));
+        }
+        val nbAuthenticationAttributes = input.readCount();
+        for (var i = 0; i < nbAuthenticationAttributes; i++) {
+            profile.addAuthenticationAttribute(input.readName(), readValue(input));
+        }
+        return profile;
+    }
+
+    private BasicUserProfile newProfile(final String className) {
+        val constructor = constructors.computeIfAbsent(className, name -> {
+            val clazz = loadTrustedClass(name);
+            if (!BasicUserProfile.class.isAssignableFrom(clazz)) {
+                throw new TechnicalException("Not a profile class: " + name);
+            }
+            try {
+                return clazz.asSubclass(BasicUserProfile.class).getDeclaredConstructor();
+            } catch (final NoSuchMethodException e) {
+                throw new TechnicalException(e);
+            }
+        });
+        try {
+            return constructor.newInstance();
+        } catch (final InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private Class<?> loadTrustedClass(final String name) {
+        val clazz = trustedClasses.get(name);
+        if (clazz != null) {
+            return clazz;
+        }
+        var trusted = javaSerializer.getTrustedClasses().stream().anyMatch(c -> c.getName().equals(name));
+        if (!trusted) {
+            trusted = javaSerializer.getTrustedPackages().stream().anyMatch(name::startsWith);
+        }
+        if (!trusted) {
+            throw new TechnicalException("Won't load untrusted class: " + name);
+        }
+        try {
+            val loadedClass = Class.forName(name, false, getClass().getClassLoader());
+            trustedClasses.put(name, loadedClass);
+            return loadedClass;
+        } catch (final ClassNotFoundException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Object readValue(final Input input) {
+        val tag = input.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return input.readString();
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_INT:
+                return (int) unzigzag(input.readVarint());
+            case TAG_LONG:
+                return unzigzag(input.readVarint());
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(input.readLong());
+            case TAG_DATE:
+                return new Date(unzigzag(input.readVarint()));
+            case TAG_URI:
+                return URI.create(input.readString());
+            case TAG_LOCALE:
+                return Locale.forLanguageTag(input.readString());
+            case TAG_ENUM:
+                val enumClass = loadTrustedClass(input.readName());
+                val constant = input.readString();
+                if (!enumClass.isEnum()) {
+                    throw new TechnicalException("Not an enum class: " + enumClass.getName());
+                }
+                return Enum.valueOf((Class) enumClass, constant);
+            case TAG_LIST:
+                val nbListValues = input.readCount();
+                final List<Object> list = new ArrayList<>(nbListValues);
+                for (var i = 0; i < nbListValues; i++) {
+                    list.add(readValue(input));
+                }
+                return list;
+            case TAG_SET:
+                return readValues(input, new LinkedHashSet<>());
+            case TAG_HASH_SET:
+                return readValues(input, new HashSet<>());
+            case TAG_MAP:
+                return readMap(input);
+            case TAG_HASH_MAP:
+                return readEntries(input, new HashMap<>());
+            case TAG_BYTES:
+                return input.readBytes();
+            case TAG_JAVA:
+                return javaSerializer.deserializeFromBytes(input.readBytes());
+            case TAG_PROFILE_VALUE:
+                return readProfile(input);
+            default:
+                throw new TechnicalException("Unknown value tag: " + tag);
+        }
+    }
+
+    private Map<String, Object> readMap(final Input input) {
+        return readEntries(input, new LinkedHashMap<>());
+    }
+
+    private Map<String, Object> readEntries(final Input input, final Map<String, Object> map) {
+        val nbEntries = input.readCount();
+        for (var i = 0; i < nbEntries; i++) {
+            map.put(input.readName(), readValue(input));
+        }
+        return map;
+    }
+
+    private Set<Object> readValues(final Input input, final Set<Object> set) {
+        val nbValues = input.readCount();
+        for (var i = 0; i < nbValues; i++) {
+            set.add(readValue(input));
+        }
+        return set;
+    }
+
+    private static long zigzag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * A growable output buffer, with the dictionary of the names written so far.
+     */
+    private static final class Output {
+
+        private byte[] buffer = new byte[256];
+
+        private int position;
+
+        private final Map<String, Integer> names = new HashMap<>();
+
+        private void ensureCapacity(final int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        private void writeByte(final int b) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) b;
+        }
+
+        private void writeVarint(final long value) {
+            ensureCapacity(10);
+            var v = value;
+            while ((v & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buffer[position++] = (byte) v;
+        }
+
+        private void writeLong(final long value) {
+            ensureCapacity(8);
+            for (var shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeBytes(final byte[] bytes) {
+            writeVarint(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeString(final String s) {
+            writeBytes(s.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeNullableString(final String s) {
+            if (s == null) {
+                writeByte(TAG_NULL);
+            } else {
+                writeByte(TAG_STRING);
+                writeString(s);
+            }
+        }
+
+        // 0 followed by the string for a new name, 1 + index for a shared or already written name
+        private void writeName(final String name) {
+            val sharedIndex = SHARED_INDEXES.get(name);
+            if (sharedIndex != null) {
+                writeVarint(sharedIndex + 1L);
+                return;
+            }
+            val index = names.get(name);
+            if (index != null) {
+                writeVarint(SHARED_NAMES.length + index + 1L);
+            } else {
+                names.put(name, names.size());
+                writeVarint(0);
+                writeString(name);
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * An input buffer, with the dictionary of the names read so far.
+     */
+    private static final class Input {
+
+        private final byte[] buffer;
+
+        private int position;
+
+        private final List<String> names = new ArrayList<>();
+
+        private Input(final byte[] buffer, final int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        private void check(final int length) {
+            if (length < 0 || length > buffer.length - position) {
+                throw new TechnicalException("Truncated data");
+            }
+        }
+
+        private byte readByte() {
+            check(1);
+            return buffer[position++];
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (var shift = 0; shift < 64; shift += 7) {
+                val b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new TechnicalException("Malformed varint");
+        }
+
+        private int readCount() {
+            val count = readVarint();
+            // each element takes at least one byte
+            if (count < 0 || count > buffer.length - position) {
+                throw new TechnicalException("Invalid count: " + count);
+            }
+            return (int) count;
+        }
+
+        private long readLong() {
+            check(8);
+            long value = 0;
+            for (var i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private byte[] readBytes() {
+            val length = readCount();
+            val bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        private String readString() {
+            val length = readCount();
+            val s = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return s;
+        }
+
+        private String readNullableString() {
+            return readByte() == TAG_NULL ? null : readString();
+        }
+
+        private String readName() {
+            val reference = readVarint();
+            if (reference == 0) {
+                val name = StringInterner.intern(readString());
+                names.add(name);
+                return name;
+            } else if (reference <= SHARED_NAMES.length) {
+                return SHARED_NAMES[(int) reference - 1];
+            }
+            val index = reference - SHARED_NAMES.length - 1;
+            if (index >= names.size()) {
+                throw new TechnicalException("Unknown name reference: " + reference);
+            }
+            return names.get((int) index);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.pac4j.core.authorization.authorizer;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.authorization.checker.DefaultAuthorizationChecker;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenSigner;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link HmacCsrfAuthorizer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class HmacCsrfAuthorizerTests implements TestsConstants {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private final AtomicInteger nbWrites = new AtomicInteger();
+
+    private HmacCsrfTokenGenerator generator;
+
+    private HmacCsrfAuthorizer authorizer;
+
+    private MockSessionStore sessionStore;
+
+    @Before
+    public void setUp() {
+        val signer = new HmacCsrfTokenSigner(SECRET);
+        generator = new HmacCsrfTokenGenerator(signer);
+        authorizer = new HmacCsrfAuthorizer(signer);
+        sessionStore = new MockSessionStore() {
+            @Override
+            public void set(final WebContext context, final String key, final Object value) {
+                nbWrites.incrementAndGet();
+                super.set(context, key, value);
+            }
+        };
+    }
+
+    private String generateToken() {
+        return generator.get(MockWebContext.create(), sessionStore);
+    }
+
+    @Test
+    public void testParameterOk() {
+        val token = generateToken();
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+        assertEquals(0, nbWrites.get());
+    }
+
+    @Test
+    public void testHeaderOk() {
+        val token = generateToken();
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.DELETE.name())
+            .addRequestHeader(Pac4jConstants.CSRF_TOKEN, token);
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testNoToken() {
+        generateToken();
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name());
+        assertFalse(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testGetNotChecked() {
+        assertTrue(authorizer.isAuthorized(MockWebContext.create(), sessionStore, null));
+        authorizer.setCheckAllRequests(true);
+        assertFalse(authorizer.isAuthorized(MockWebContext.create(), sessionStore, null));
+    }
+
+    @Test
+    public void testOtherSession() {
+        val token = generateToken();
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        val otherSessionStore = new MockSessionStore() {
+            {
+                id = VALUE;
+            }
+        };
+        assertFalse(authorizer.isAuthorized(context, otherSessionStore, null));
+        assertFalse(authorizer.isAuthorized(context, new MockSessionStore(), null));
+    }
+
+    @Test
+    public void testExpiredToken() {
+        generator.setTtlInSeconds(-1);
+        val token = generateToken();
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        assertFalse(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testReplacesDefaultCsrfCheck() {
+        val config = new Config();
+        config.addAuthorizer(DefaultAuthorizers.CSRF_CHECK, authorizer);
+        assertSame(authorizer, new RetrievingAuthorizationChecker().retrieve(DefaultAuthorizers.CSRF_CHECK, config));
+    }
+
+    private static final class RetrievingAuthorizationChecker extends DefaultAuthorizationChecker {
+
+        private Authorizer retrieve(final String name, final Config config) {
+            return retrieveAuthorizer(name, config.getAuthorizersRegistry());
+        }
+    }
+}
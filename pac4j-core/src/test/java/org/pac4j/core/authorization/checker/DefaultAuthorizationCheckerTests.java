@@ -83,6 +83,15 @@ public final class DefaultAuthorizationCheckerTests implements TestsConstants {
         assertFalse(checker.isAuthorized(context, new MockSessionStore(), profiles, null, new HashMap<>(), clients));
     }
 
+    @Test
+    public void testCompiledNullAuthorizerNameDependsOnClients() {
+        val compiled = checker.compile(null, new HashMap<>());
+        val context = MockWebContext.create().setRequestMethod("POST");
+        assertTrue(compiled.isAuthorized(context, new MockSessionStore(), profiles, new ArrayList<>()));
+        assertFalse(compiled.isAuthorized(context, new MockSessionStore(), profiles, List.of(new MockIndirectClient("test"))));
+        assertTrue(compiled.isAuthorized(context, new MockSessionStore(), profiles, new ArrayList<>()));
+    }
+
     @Test
     public void testBlankAuthorizerNameAProfilePostRequestNoIndirectClient() {
         val context = MockWebContext.create().setRequestMethod("POST");
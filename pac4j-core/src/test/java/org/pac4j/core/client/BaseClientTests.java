@@ -7,6 +7,7 @@ import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.credentials.MockCredentials;
 import org.pac4j.core.exception.http.FoundAction;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.exception.http.WithLocationAction;
@@ -16,9 +17,11 @@ import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * This class tests the {@link BaseClient} class.
@@ -115,4 +118,21 @@ public final class BaseClientTests implements TestsConstants {
         val context = MockWebContext.create();
         TestsHelper.expectException(() -> client.getRedirectionAction(new CallContext(context, null)));
     }
+
+    @Test
+    public void testNoAuthorizationGeneratorForDetachedContext() {
+        val client =
+            new MockIndirectClient(TYPE, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        client.setCallbackUrl(CALLBACK_URL);
+        client.addAuthorizationGenerator((ctx, profile) -> {
+            profile.addRole(ctx.webContext().getRequestHeader(NAME).orElseThrow());
+            return Optional.of(profile);
+        });
+        val credentials = new MockCredentials();
+        credentials.setUserProfile(new CommonProfile());
+        assertTrue(client.getUserProfile(CallContext.detached(), credentials).get().getRoles().isEmpty());
+        val context = MockWebContext.create().addRequestHeader(NAME, VALUE);
+        credentials.setUserProfile(new CommonProfile());
+        assertEquals(Set.of(VALUE), client.getUserProfile(new CallContext(context, new MockSessionStore()), credentials).get().getRoles());
+    }
 }
@@ -20,6 +20,9 @@ import org.pac4j.core.util.TestsHelper;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -193,6 +196,151 @@ public final class ClientsTests implements TestsConstants {
         assertTrue(fclient.getCallbackUrlResolver() instanceof NoParameterCallbackUrlResolver);
     }
 
+    @Test
+    public void testHotAddRemoveReplace() {
+        val facebookClient = newFacebookClient();
+        val authorizationGenerator = (AuthorizationGenerator) (ctx, profile) -> Optional.of(profile);
+        val clients = new Clients(CALLBACK_URL, facebookClient);
+        clients.addAuthorizationGenerator(authorizationGenerator);
+        clients.findAllClients();
+        val map = clients.getClientsMap();
+        val version = clients.getVersion();
+
+        val yahooClient = newYahooClient();
+        clients.addClient(yahooClient);
+        assertNotSame(map, clients.getClientsMap());
+        assertTrue(clients.getVersion() > version);
+        assertEquals(CALLBACK_URL, yahooClient.getCallbackUrl());
+        assertEquals(List.of(authorizationGenerator), yahooClient.getAuthorizationGenerators());
+        assertEquals(1, facebookClient.getAuthorizationGenerators().size());
+        assertEquals(yahooClient, clients.findClient("yahooclient").get());
+
+        TestsHelper.expectException(() -> clients.addClient(newYahooClient()), TechnicalException.class,
+            "Duplicate name in clients: YahooClient");
+        assertEquals(2, clients.findAllClients().size());
+
+        val newYahooClient = newYahooClient();
+        clients.replaceClient(newYahooClient);
+        assertEquals(newYahooClient, clients.findClient("YahooClient").get());
+        assertEquals(CALLBACK_URL, newYahooClient.getCallbackUrl());
+        assertEquals(List.of(facebookClient, newYahooClient), clients.findAllClients());
+
+        assertTrue(clients.removeClient(" yahooClient"));
+        assertFalse(clients.removeClient("YahooClient"));
+        assertTrue(clients.findClient("YahooClient").isEmpty());
+        assertEquals(List.of(facebookClient), clients.getClients());
+    }
+
+    @Test
+    public void testImmutableFoundClients() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        val found = clients.findAllClients();
+        TestsHelper.expectException(() -> found.add(newYahooClient()));
+        clients.getClients().add(newYahooClient());
+        assertEquals(1, found.size());
+        assertEquals(2, clients.findAllClients().size());
+        clients.getClients().removeIf(c -> "FacebookClient".equals(c.getName()));
+        assertEquals("YahooClient", clients.findAllClients().get(0).getName());
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites() throws InterruptedException {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        val running = new AtomicBoolean(true);
+        val error = new AtomicReference<Throwable>();
+        val reader = new Thread(() -> {
+            try {
+                while (running.get()) {
+                    assertTrue(clients.findClient("FacebookClient").isPresent());
+                    clients.findAllClients().forEach(Client::getName);
+                }
+            } catch (final Throwable t) {
+                error.set(t);
+            }
+        });
+        reader.start();
+        for (var i = 0; i < 2_000; i++) {
+            clients.addClient(new MockIndirectClient("Client" + i, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile()));
+            if (i % 2 == 0) {
+                clients.removeClient("Client" + i);
+            }
+        }
+        running.set(false);
+        reader.join();
+        assertNull(error.get());
+        assertEquals(1_001, clients.findAllClients().size());
+    }
+
+    @Test
+    public void testLazyClients() {
+        val nbBuilds = new AtomicInteger();
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        clients.getLazyClients().setMaxInitializedClients(2);
+        for (var i = 0; i < 10; i++) {
+            clients.addLazyClient("Tenant" + i, name -> {
+                nbBuilds.incrementAndGet();
+                return new MockIndirectClient(name, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+            });
+        }
+        assertEquals(0, nbBuilds.get());
+        assertEquals(1, clients.findAllClients().size());
+        assertFalse(clients.findClient("Unknown").isPresent());
+
+        val tenant1 = (IndirectClient) clients.findClient("tenant1").get();
+        assertEquals("Tenant1", tenant1.getName());
+        assertEquals(CALLBACK_URL, tenant1.getCallbackUrl());
+        assertTrue(tenant1.isInitialized());
+        assertSame(tenant1, clients.findClient("Tenant1").get());
+        assertEquals(1, nbBuilds.get());
+
+        clients.findClient("Tenant2");
+        clients.findClient("Tenant1");
+        clients.findClient("Tenant3");
+        assertEquals(3, nbBuilds.get());
+        assertEquals(2, clients.getLazyClients().getNbInitializedClients());
+        // the least recently used client has been evicted
+        assertSame(tenant1, clients.findClient("Tenant1").get());
+        clients.findClient("Tenant2");
+        assertEquals(4, nbBuilds.get());
+
+        assertTrue(clients.removeClient("Tenant2"));
+        assertFalse(clients.findClient("Tenant2").isPresent());
+        assertEquals(1, clients.getLazyClients().getNbInitializedClients());
+        assertEquals(9, clients.getLazyClients().getNbClients());
+    }
+
+    @Test
+    public void testLazyClientsIdleEviction() throws InterruptedException {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        clients.getLazyClients().setIdleTimeoutInMilliseconds(50);
+        clients.addLazyClient("Tenant", MockIndirectClient::new);
+        val tenant = clients.findClient("Tenant").get();
+        Thread.sleep(100);
+        assertEquals(1, clients.getLazyClients().evict());
+        assertEquals(0, clients.getLazyClients().getNbInitializedClients());
+        assertNotSame(tenant, clients.findClient("Tenant").get());
+    }
+
+    @Test
+    public void testLazyClientsDuplicateNames() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        clients.addLazyClient("Tenant", MockIndirectClient::new);
+        TestsHelper.expectException(() -> clients.addLazyClient("facebookclient", MockIndirectClient::new), TechnicalException.class,
+            "Duplicate name in clients: facebookclient");
+        TestsHelper.expectException(() -> clients.addLazyClient("TENANT", MockIndirectClient::new), TechnicalException.class,
+            "Duplicate name in clients: TENANT");
+        TestsHelper.expectException(() -> clients.addClient(new MockIndirectClient("tenant")), TechnicalException.class,
+            "Duplicate name in clients: tenant");
+        clients.addLazyClient("Other", name -> new MockIndirectClient("Another"));
+        TestsHelper.expectException(() -> clients.findClient("Other"), TechnicalException.class,
+            "The client built for: Other is named: Another");
+
+        val replacement = new MockIndirectClient("Tenant");
+        clients.replaceClient(replacement);
+        assertFalse(clients.getLazyClients().contains("Tenant"));
+        assertSame(replacement, clients.findClient("Tenant").get());
+    }
+
     @Test
     @Ignore
     public void testPerfFind() {
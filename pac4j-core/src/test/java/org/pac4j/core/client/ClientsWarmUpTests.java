@@ -0,0 +1,128 @@
+package org.pac4j.core.client;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ClientsWarmUp}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class ClientsWarmUpTests implements TestsConstants {
+
+    @Test
+    public void testParallelWarmUp() throws Exception {
+        val latch = new CountDownLatch(4);
+        val clients = new Clients(CALLBACK_URL, new WarmUpClient("c1", latch, null), new WarmUpClient("c2", latch, null),
+            new WarmUpClient("c3", latch, null), new WarmUpClient("c4", latch, null));
+        val warmUp = new ClientsWarmUp(clients).setParallelism(4);
+        val failures = warmUp.start().get(5, TimeUnit.SECONDS);
+        assertTrue(failures.isEmpty());
+        assertTrue(warmUp.isReady());
+        // the clients have waited for each other: they have been initialized at the same time
+        assertEquals(0, latch.getCount());
+        for (val client : clients.findAllClients()) {
+            assertTrue(((IndirectClient) client).isInitialized());
+        }
+        assertSame(warmUp.getReadiness(), warmUp.start());
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        val clients = new Clients(CALLBACK_URL, new WarmUpClient("ok", null, null),
+            new WarmUpClient("failing", null, new TechnicalException("metadata unavailable")),
+            new WarmUpClient("slow", new CountDownLatch(2), null));
+        val executor = Executors.newFixedThreadPool(2);
+        try {
+            val warmUp = new ClientsWarmUp(clients).setTimeoutInMilliseconds(200).setExecutor(executor);
+            val failures = warmUp.start().get(5, TimeUnit.SECONDS);
+            assertEquals(2, failures.size());
+            assertEquals("metadata unavailable", failures.get("failing").getMessage());
+            assertTrue(failures.get("slow") instanceof TimeoutException);
+            assertTrue(((IndirectClient) clients.findClient("ok").get()).isInitialized());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimeoutStartsWithInitialization() throws Exception {
+        val clients = new Clients(CALLBACK_URL, new WarmUpClient("c1", 150), new WarmUpClient("c2", 150),
+            new WarmUpClient("c3", 150), new WarmUpClient("c4", 150));
+        // the last clients wait longer than the timeout for the single thread
+        val warmUp = new ClientsWarmUp(clients).setParallelism(1).setTimeoutInMilliseconds(400);
+        val failures = warmUp.start().get(5, TimeUnit.SECONDS);
+        assertTrue(failures.isEmpty());
+        for (val client : clients.findAllClients()) {
+            assertTrue(((IndirectClient) client).isInitialized());
+        }
+    }
+
+    @Test
+    public void testConfig() throws Exception {
+        val config = new Config(CALLBACK_URL, new WarmUpClient("c1", null, null));
+        val warmUp = config.warmUpClients(2, 1000);
+        assertTrue(warmUp.getReadiness().get(5, TimeUnit.SECONDS).isEmpty());
+        assertTrue(((IndirectClient) config.getClients().findClient("c1").get()).isInitialized());
+    }
+
+    private static final class WarmUpClient extends IndirectClient {
+
+        private final CountDownLatch latch;
+
+        private final RuntimeException exception;
+
+        private final long delayInMilliseconds;
+
+        private WarmUpClient(final String name, final CountDownLatch latch, final RuntimeException exception) {
+            setName(name);
+            this.latch = latch;
+            this.exception = exception;
+            this.delayInMilliseconds = 0;
+        }
+
+        private WarmUpClient(final String name, final long delayInMilliseconds) {
+            setName(name);
+            this.latch = null;
+            this.exception = null;
+            this.delayInMilliseconds = delayInMilliseconds;
+        }
+
+        @Override
+        protected void internalInit(final boolean forceReinit) {
+            if (delayInMilliseconds > 0) {
+                try {
+                    Thread.sleep(delayInMilliseconds);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (latch != null) {
+                latch.countDown();
+                try {
+                    latch.await(2, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+            setRedirectionActionBuilderIfUndefined(ctx -> Optional.empty());
+            setCredentialsExtractorIfUndefined(ctx -> Optional.empty());
+            setAuthenticatorIfUndefined((ctx, cred) -> Optional.of(cred));
+        }
+    }
+}
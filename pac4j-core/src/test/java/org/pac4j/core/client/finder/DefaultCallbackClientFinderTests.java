@@ -4,11 +4,18 @@ import lombok.val;
 import org.junit.Test;
 import org.pac4j.core.client.*;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.http.callback.NoParameterCallbackUrlResolver;
 import org.pac4j.core.http.callback.PathParameterCallbackUrlResolver;
+import org.pac4j.core.http.callback.QueryParameterCallbackUrlResolver;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests {@link DefaultCallbackClientFinder}.
@@ -90,4 +97,75 @@ public final class DefaultCallbackClientFinderTests implements TestsConstants {
         assertEquals(1, result.size());
         assertEquals(facebook, result.get(0));
     }
+
+    @Test
+    public void testManyClients() {
+        final List<Client> list = new ArrayList<>();
+        for (var i = 0; i < 1_000; i++) {
+            list.add(new MockIndirectClient("tenant" + i));
+        }
+        final IndirectClient byPath = new MockIndirectClient("byPath");
+        byPath.setCallbackUrlResolver(new PathParameterCallbackUrlResolver());
+        list.add(byPath);
+        val clients = new Clients(CALLBACK_URL, list);
+        final ClientFinder finder = new DefaultCallbackClientFinder();
+
+        var context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "TENANT500");
+        assertEquals(List.of(list.get(500)), finder.find(clients, context, null));
+        context = MockWebContext.create().setPath("/callback/bypath");
+        assertEquals(List.of(byPath), finder.find(clients, context, null));
+        context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "unknown");
+        assertTrue(finder.find(clients, context, null).isEmpty());
+
+        final IndirectClient newTenant = new MockIndirectClient("newTenant");
+        clients.addClient(newTenant);
+        context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "newTenant");
+        assertEquals(List.of(newTenant), finder.find(clients, context, null));
+        clients.removeClient("newTenant");
+        assertTrue(finder.find(clients, context, null).isEmpty());
+    }
+
+    @Test
+    public void testCustomResolversAndOrder() {
+        final IndirectClient custom = new MockIndirectClient("custom");
+        custom.setCallbackUrlResolver(new NoParameterCallbackUrlResolver() {
+            @Override
+            public boolean matches(final String clientName, final WebContext context) {
+                return context.getRequestParameter("custom").isPresent();
+            }
+        });
+        final IndirectClient other = new MockIndirectClient("other");
+        final QueryParameterCallbackUrlResolver resolver = new QueryParameterCallbackUrlResolver();
+        resolver.setClientNameParameter("tenant");
+        other.setCallbackUrlResolver(resolver);
+        final IndirectClient facebook = new MockIndirectClient("Facebook");
+        val clients = new Clients(CALLBACK_URL, facebook, custom, other);
+        final ClientFinder finder = new DefaultCallbackClientFinder();
+
+        val context = MockWebContext.create()
+            .addRequestParameter("custom", VALUE)
+            .addRequestParameter("tenant", "other")
+            .addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "facebook");
+        assertEquals(List.of(facebook, custom, other), finder.find(clients, context, null));
+    }
+
+    @Test
+    public void testLazyClients() {
+        val clients = new Clients(CALLBACK_URL, new MockIndirectClient("Facebook"), new MockIndirectClient("Twitter"));
+        clients.addLazyClient("Tenant1", MockIndirectClient::new);
+        clients.addLazyClient("Tenant2", name -> {
+            final IndirectClient client = new MockIndirectClient(name);
+            client.setCallbackUrlResolver(new PathParameterCallbackUrlResolver());
+            return client;
+        });
+        final ClientFinder finder = new DefaultCallbackClientFinder();
+
+        var context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "tenant1");
+        assertEquals(List.of(clients.findClient("Tenant1").get()), finder.find(clients, context, null));
+        context = MockWebContext.create().setPath("/callback/tenant2");
+        assertEquals(List.of(clients.findClient("Tenant2").get()), finder.find(clients, context, null));
+        // wrong resolver
+        context = MockWebContext.create().setPath("/callback/tenant1");
+        assertTrue(finder.find(clients, context, null).isEmpty());
+    }
 }
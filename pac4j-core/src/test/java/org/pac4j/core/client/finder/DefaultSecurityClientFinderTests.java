@@ -5,6 +5,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
 import org.pac4j.core.client.MockIndirectClient;
 import org.pac4j.core.context.MockWebContext;
@@ -14,6 +15,7 @@ import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -34,9 +36,12 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
     @Parameterized.Parameter
     public String clientNameParameter;
 
+    @Parameterized.Parameter(1)
+    public boolean compiled;
+
     @Parameterized.Parameters
-    public static Object[] data() {
-        return new Object[] {null, "custom"};
+    public static Object[][] data() {
+        return new Object[][] {{null, false}, {"custom", false}, {null, true}, {"custom", true}};
     }
 
     @Before
@@ -49,7 +54,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
 
     @Test
     public void testBlankClientName() {
-        val currentClients = finder.find(new Clients(), MockWebContext.create(), "  ");
+        val currentClients = find(new Clients(), MockWebContext.create(), "  ");
         assertEquals(0, currentClients.size());
     }
 
@@ -64,7 +69,14 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
             new MockIndirectClient(NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client);
         final WebContext context = MockWebContext.create().addRequestParameter(getClientNameParameter(), FAKE_VALUE);
-        assertTrue(finder.find(clients, context, NAME).isEmpty());
+        assertTrue(find(clients, context, NAME).isEmpty());
+    }
+
+    private List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
+        if (compiled) {
+            return finder.compile(clients, clientNames).find(context);
+        }
+        return finder.find(clients, context, clientNames);
     }
 
     protected String getClientNameParameter() {
@@ -86,7 +98,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
             new MockIndirectClient(NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client);
         final WebContext context = MockWebContext.create().addRequestParameter(getClientNameParameter(), parameterName);
-        val currentClients = finder.find(clients, context, names);
+        val currentClients = find(clients, context, names);
         assertEquals(1, currentClients.size());
         assertEquals(client, currentClients.get(0));
     }
@@ -99,7 +111,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
             new MockIndirectClient(MY_CLIENT_NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client1, client2);
         final WebContext context = MockWebContext.create().addRequestParameter(getClientNameParameter(), NAME);
-        assertTrue(finder.find(clients, context, MY_CLIENT_NAME).isEmpty());
+        assertTrue(find(clients, context, MY_CLIENT_NAME).isEmpty());
     }
 
     @Test
@@ -110,7 +122,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
             new MockIndirectClient(MY_CLIENT_NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client1, client2);
         final WebContext context = MockWebContext.create().addRequestParameter(getClientNameParameter(), NAME);
-        assertTrue(finder.find(clients, context, MY_CLIENT_NAME + "," + FAKE_VALUE).isEmpty());
+        assertTrue(find(clients, context, MY_CLIENT_NAME + "," + FAKE_VALUE).isEmpty());
     }
 
     @Test
@@ -121,7 +133,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
             new MockIndirectClient(MY_CLIENT_NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client1, client2);
         final WebContext context = MockWebContext.create();
-        val currentClients = finder.find(clients, context, MY_CLIENT_NAME);
+        val currentClients = find(clients, context, MY_CLIENT_NAME);
         assertEquals(1, currentClients.size());
         assertEquals(client2, currentClients.get(0));
     }
@@ -134,7 +146,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
             new MockIndirectClient(MY_CLIENT_NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client1, client2);
         final WebContext context = MockWebContext.create();
-        assertTrue(finder.find(clients, context, FAKE_VALUE).isEmpty());
+        assertTrue(find(clients, context, FAKE_VALUE).isEmpty());
     }
 
     @Test
@@ -164,7 +176,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
             new MockIndirectClient(MY_CLIENT_NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client1, client2);
         final WebContext context = MockWebContext.create();
-        val currentClients = finder.find(clients, context, names);
+        val currentClients = find(clients, context, names);
         assertEquals(2, currentClients.size());
         assertEquals(client2, currentClients.get(0));
         assertEquals(client1, currentClients.get(1));
@@ -178,7 +190,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
             new MockIndirectClient(MY_CLIENT_NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client1, client2);
         clients.setDefaultSecurityClients(MY_CLIENT_NAME);
-        val result = finder.find(clients, MockWebContext.create(), null);
+        val result = find(clients, MockWebContext.create(), null);
         assertEquals(1, result.size());
         assertEquals(client2, result.get(0));
     }
@@ -188,7 +200,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
         val client1 =
             new MockIndirectClient(NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client1);
-        val result = finder.find(clients, MockWebContext.create(), null);
+        val result = find(clients, MockWebContext.create(), null);
         assertEquals(1, result.size());
         assertEquals(client1, result.get(0));
     }
@@ -198,7 +210,7 @@ public final class DefaultSecurityClientFinderTests implements TestsConstants, P
         val client1 =
             new MockIndirectClient(NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
         val clients = new Clients(client1);
-        val result = finder.find(clients, MockWebContext.create(), Pac4jConstants.EMPTY_STRING);
+        val result = find(clients, MockWebContext.create(), Pac4jConstants.EMPTY_STRING);
         assertEquals(0, result.size());
     }
 }
@@ -3,20 +3,34 @@ package org.pac4j.core.config;
 import lombok.val;
 import org.junit.Test;
 import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.authorization.authorizer.DefaultAuthorizers;
 import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
+import org.pac4j.core.authorization.checker.DefaultAuthorizationChecker;
 import org.pac4j.core.client.Client;
+import org.pac4j.core.client.Clients;
 import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.core.client.finder.DefaultSecurityClientFinder;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContextFactory;
+import org.pac4j.core.context.session.SessionStoreFactory;
+import org.pac4j.core.engine.CallbackLogic;
+import org.pac4j.core.engine.LogoutLogic;
+import org.pac4j.core.engine.SecurityLogic;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.http.adapter.HttpActionAdapter;
+import org.pac4j.core.matching.checker.DefaultMatchingChecker;
 import org.pac4j.core.matching.matcher.CacheControlMatcher;
+import org.pac4j.core.matching.matcher.DefaultMatchers;
 import org.pac4j.core.matching.matcher.Matcher;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.factory.ProfileManagerFactory;
 import org.pac4j.core.util.TestsConstants;
 
 import java.util.Map;
 import java.util.Optional;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  * Tests the {@link Config}.
@@ -45,6 +59,14 @@ public final class ConfigTests implements TestsConstants {
         assertEquals(authorizer, config.getAuthorizers().get(NAME));
     }
 
+    @Test
+    public void testAllArgsConstructor() throws Exception {
+        assertNotNull(Config.class.getConstructor(Clients.class, Map.class, Map.class, SecurityLogic.class, CallbackLogic.class,
+            LogoutLogic.class, WebContextFactory.class, SessionStoreFactory.class, ProfileManagerFactory.class, HttpActionAdapter.class));
+        val config = new Config();
+        assertNotNull(config.withClients(new Clients()).getProfileRenewalCoordinator());
+    }
+
     @Test
     public void testConstructor() {
         val client =
@@ -68,4 +90,103 @@ public final class ConfigTests implements TestsConstants {
         assertEquals(1, config.getMatchers().size());
         assertEquals(matcher, config.getMatchers().get(NAME));
     }
+
+    @Test
+    public void testSecurityPlanCached() {
+        val config = new Config(CALLBACK_URL, new MockIndirectClient(NAME));
+        val finder = new DefaultSecurityClientFinder();
+        val matchingChecker = new DefaultMatchingChecker();
+        val authorizationChecker = new DefaultAuthorizationChecker();
+        val plan = config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null);
+        assertSame(plan, config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null));
+        assertNotSame(plan, config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, NAME, null));
+        assertNotSame(plan, config.getSecurityPlan(new DefaultSecurityClientFinder(), matchingChecker, authorizationChecker,
+            NAME, null, null));
+    }
+
+    @Test
+    public void testSecurityPlansBounded() {
+        val config = new Config(CALLBACK_URL, new MockIndirectClient(NAME));
+        val finder = new DefaultSecurityClientFinder();
+        val matchingChecker = new DefaultMatchingChecker();
+        val authorizationChecker = new DefaultAuthorizationChecker();
+        val plan = config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null);
+        for (var i = 1; i < Config.MAX_SECURITY_PLANS; i++) {
+            config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, DefaultMatchers.NONE + i);
+        }
+        assertSame(plan, config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null));
+        val uncompiledPlan = config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, NAME, null);
+        assertNotSame(uncompiledPlan, config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, NAME, null));
+    }
+
+    @Test
+    public void testSecurityPlanRecompiledOnChanges() {
+        val config = new Config(CALLBACK_URL, new MockIndirectClient(NAME));
+        val finder = new DefaultSecurityClientFinder();
+        val matchingChecker = new DefaultMatchingChecker();
+        val authorizationChecker = new DefaultAuthorizationChecker();
+        var plan = config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null);
+
+        config.addAuthorizer(NAME, new RequireAnyRoleAuthorizer());
+        var newPlan = config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null);
+        assertNotSame(plan, newPlan);
+
+        plan = newPlan;
+        config.getMatchers().put(NAME, new CacheControlMatcher());
+        newPlan = config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null);
+        assertNotSame(plan, newPlan);
+
+        plan = newPlan;
+        config.getClients().getClients().add(new MockIndirectClient(VALUE));
+        newPlan = config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null);
+        assertNotSame(plan, newPlan);
+        assertSame(newPlan, config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null));
+    }
+
+    @Test
+    public void testSecurityPlanKeptWhenLazyClientsBuiltOrEvicted() {
+        val config = new Config(CALLBACK_URL, new MockIndirectClient(NAME));
+        val lazyClients = config.getClients().getLazyClients();
+        config.getClients().addLazyClient(VALUE, MockIndirectClient::new);
+        val finder = new DefaultSecurityClientFinder();
+        val matchingChecker = new DefaultMatchingChecker();
+        val authorizationChecker = new DefaultAuthorizationChecker();
+        val plan = config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null);
+        val lazyPlan = config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME + "," + VALUE, null, null);
+        assertEquals(0, lazyClients.getNbInitializedClients());
+
+        val clients = lazyPlan.getClientFinder().find(MockWebContext.create());
+        assertEquals(2, clients.size());
+        assertEquals(1, lazyClients.getNbInitializedClients());
+        lazyClients.setMaxInitializedClients(0);
+        assertEquals(1, lazyClients.evict());
+
+        assertSame(plan, config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null));
+        assertSame(lazyPlan, config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME + "," + VALUE, null, null));
+        val newClients = lazyPlan.getClientFinder().find(MockWebContext.create());
+        assertEquals(VALUE, newClients.get(1).getName());
+        assertNotSame(clients.get(1), newClients.get(1));
+
+        config.getClients().addLazyClient(KEY, MockIndirectClient::new);
+        assertNotSame(plan, config.getSecurityPlan(finder, matchingChecker, authorizationChecker, NAME, null, null));
+    }
+
+    @Test
+    public void testRegistries() {
+        val config = new Config();
+        val authorizer = new RequireAnyRoleAuthorizer();
+        config.addAuthorizer("myAuthorizer", authorizer);
+        val authorizers = config.getAuthorizersRegistry();
+        assertSame(authorizer, authorizers.lookup(" MYAUTHORIZER"));
+        assertNotNull(authorizers.lookup(DefaultAuthorizers.IS_AUTHENTICATED.toUpperCase()));
+        assertSame(authorizers, config.getAuthorizersRegistry());
+
+        config.getMatchers().put(NAME, new CacheControlMatcher());
+        val matchers = config.getMatchersRegistry();
+        assertNotNull(matchers.lookup(NAME.toUpperCase()));
+        assertNotNull(matchers.lookup(DefaultMatchers.CSRF_TOKEN));
+        config.getMatchers().put(VALUE, new CacheControlMatcher());
+        assertNotSame(matchers, config.getMatchersRegistry());
+        assertNotNull(config.getMatchersRegistry().lookup(VALUE));
+    }
 }
@@ -0,0 +1,227 @@
+package org.pac4j.core.context.session;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CookieSessionStore}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class CookieSessionStoreTests implements TestsConstants {
+
+    private static final byte[] SECRET = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private final CookieSessionStore store = new CookieSessionStore("k1", SECRET);
+
+    private MockWebContext nextRequest(final MockWebContext previous) {
+        store.commit(previous);
+        final Map<String, Cookie> cookies = new LinkedHashMap<>();
+        for (val cookie : previous.getRequestCookies()) {
+            cookies.put(cookie.getName(), cookie);
+        }
+        for (val cookie : previous.getResponseCookies()) {
+            if (cookie.getMaxAge() == 0) {
+                cookies.remove(cookie.getName());
+            } else {
+                cookies.put(cookie.getName(), cookie);
+            }
+        }
+        val context = MockWebContext.create();
+        context.getRequestCookies().addAll(cookies.values());
+        return context;
+    }
+
+    private static LinkedHashMap<String, UserProfile> getProfiles(final int nbAttributes) {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(MY_CLIENT_NAME);
+        for (var i = 0; i < nbAttributes; i++) {
+            profile.addAttribute("attribute" + i, "value" + i + "-" + Integer.toHexString(i * 7_919));
+        }
+        val profiles = new LinkedHashMap<String, UserProfile>();
+        profiles.put(MY_CLIENT_NAME, profile);
+        return profiles;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        val context = MockWebContext.create();
+        assertTrue(store.getSessionId(context, false).isEmpty());
+        store.set(context, Pac4jConstants.USER_PROFILES, getProfiles(5));
+        store.set(context, Pac4jConstants.REQUESTED_URL, PAC4J_URL);
+        val sessionId = store.getSessionId(context, false).get();
+        assertTrue(context.getResponseCookies().isEmpty());
+        store.commit(context);
+        assertEquals(1, context.getResponseCookies().size());
+        val cookie = context.getResponseCookies().iterator().next();
+        assertTrue(cookie.isHttpOnly());
+        assertTrue(cookie.isSecure());
+        assertEquals("Lax", cookie.getSameSitePolicy());
+        assertFalse(cookie.getValue().contains(PAC4J_URL));
+
+        val nextContext = nextRequest(context);
+        assertEquals(sessionId, store.getSessionId(nextContext, false).get());
+        assertEquals(PAC4J_URL, store.get(nextContext, Pac4jConstants.REQUESTED_URL).get());
+        val profiles = (Map<String, UserProfile>) store.get(nextContext, Pac4jConstants.USER_PROFILES).get();
+        assertEquals(ID, profiles.get(MY_CLIENT_NAME).getId());
+        assertEquals("value3-" + Integer.toHexString(3 * 7_919), profiles.get(MY_CLIENT_NAME).getAttribute("attribute3"));
+    }
+
+    @Test
+    public void testLazyWrites() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        store.commit(context);
+        assertEquals(1, context.getResponseCookies().size());
+
+        val nextContext = nextRequest(context);
+        store.set(nextContext, KEY, VALUE);
+        store.set(nextContext, NAME, null);
+        assertEquals(VALUE, store.get(nextContext, KEY).get());
+        store.commit(nextContext);
+        assertTrue(nextContext.getResponseCookies().isEmpty());
+
+        store.set(nextContext, KEY, null);
+        store.commit(nextContext);
+        store.commit(nextContext);
+        assertEquals(1, nextContext.getResponseCookies().size());
+        assertTrue(store.get(nextRequest(nextContext), KEY).isEmpty());
+    }
+
+    @Test
+    public void testChunksAndOverflow() {
+        store.setMaxChunkSize(200);
+        val context = MockWebContext.create();
+        store.set(context, Pac4jConstants.USER_PROFILES, getProfiles(30));
+        store.commit(context);
+        val names = context.getResponseCookies().stream().map(Cookie::getName).toList();
+        assertTrue(names.contains("pac4jSession.1"));
+        val nextContext = nextRequest(context);
+        assertEquals(1, ((Map<?, ?>) store.get(nextContext, Pac4jConstants.USER_PROFILES).get()).size());
+
+        val largeContext = MockWebContext.create();
+        store.set(largeContext, Pac4jConstants.USER_PROFILES, getProfiles(300));
+        val e = TestsHelper.expectException(() -> store.commit(largeContext));
+        assertTrue(e instanceof TechnicalException);
+        assertTrue(e.getMessage().startsWith("Session too large for the cookies"));
+
+        store.setOverflowStore(new GuavaStore<>(100, 10, TimeUnit.MINUTES));
+        store.set(nextContext, Pac4jConstants.USER_PROFILES, getProfiles(300));
+        store.commit(nextContext);
+        assertTrue(nextContext.getResponseCookies().stream().anyMatch(c -> c.getMaxAge() == 0));
+        assertTrue(store.getTrackableSession(nextContext).isPresent());
+        val overflowedContext = nextRequest(nextContext);
+        val profiles = (Map<String, UserProfile>) store.get(overflowedContext, Pac4jConstants.USER_PROFILES).get();
+        assertEquals(300, profiles.get(MY_CLIENT_NAME).getAttributes().size());
+
+        val trackableSession = store.getTrackableSession(overflowedContext).get();
+        store.buildFromTrackableSession(overflowedContext, trackableSession).get().destroySession(overflowedContext);
+        assertTrue(store.get(nextRequest(nextContext), Pac4jConstants.USER_PROFILES).isEmpty());
+    }
+
+    @Test
+    public void testRenewAndDestroy() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        val sessionId = store.getSessionId(context, false).get();
+
+        val nextContext = nextRequest(context);
+        assertTrue(store.renewSession(nextContext));
+        val newSessionId = store.getSessionId(nextContext, false).get();
+        assertNotEquals(sessionId, newSessionId);
+        val renewedContext = nextRequest(nextContext);
+        assertEquals(newSessionId, store.getSessionId(renewedContext, false).get());
+        assertEquals(VALUE, store.get(renewedContext, KEY).get());
+
+        assertTrue(store.destroySession(renewedContext));
+        assertTrue(store.get(renewedContext, KEY).isEmpty());
+        val destroyedContext = nextRequest(renewedContext);
+        assertTrue(destroyedContext.getRequestCookies().isEmpty());
+        assertTrue(store.getSessionId(destroyedContext, false).isEmpty());
+    }
+
+    @Test
+    public void testExpiredSession() {
+        store.setMaxLifetime(1);
+        store.setMaxChunkSize(200);
+        val overflowStore = new GuavaStore<String, Object>(100, 10, TimeUnit.MINUTES);
+        store.setOverflowStore(overflowStore);
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        val smallContext = nextRequest(context);
+        val largeContext = MockWebContext.create();
+        store.set(largeContext, Pac4jConstants.USER_PROFILES, getProfiles(300));
+        val sessionId = store.getSessionId(largeContext, false).get();
+        val overflowedContext = nextRequest(largeContext);
+        assertTrue(overflowStore.get(sessionId).isPresent());
+
+        TestsHelper.wait(1_100);
+        assertTrue(overflowStore.get(sessionId).isEmpty());
+        assertTrue(store.get(smallContext, KEY).isEmpty());
+        assertTrue(store.getSessionId(smallContext, false).isEmpty());
+        store.commit(smallContext);
+        assertEquals(0, smallContext.getResponseCookies().iterator().next().getMaxAge());
+        assertTrue(store.get(overflowedContext, Pac4jConstants.USER_PROFILES).isEmpty());
+    }
+
+    @Test
+    public void testOverflowStoreMustSupportTimeToLive() {
+        final Store<String, Object> overflowStore = new Store<>() {
+            @Override
+            public Optional<Object> get(final String key) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void set(final String key, final Object value) {
+            }
+
+            @Override
+            public void remove(final String key) {
+            }
+        };
+        assertFalse(overflowStore.isTimeToLiveSupported());
+        TestsHelper.expectException(() -> store.setOverflowStore(overflowStore), TechnicalException.class,
+            "the overflow store must support the time to live");
+        assertNull(store.getOverflowStore());
+
+        val guavaStore = new GuavaStore<String, Object>(100, 10, TimeUnit.MINUTES);
+        assertTrue(guavaStore.isTimeToLiveSupported());
+        store.setOverflowStore(guavaStore);
+        assertSame(guavaStore, store.getOverflowStore());
+    }
+
+    @Test
+    public void testTamperedOrForeignCookies() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+
+        val otherStore = new CookieSessionStore("k1", "fedcba9876543210".getBytes(StandardCharsets.UTF_8));
+        assertTrue(otherStore.get(nextRequest(context), KEY).isEmpty());
+
+        val tamperedContext = MockWebContext.create();
+        tamperedContext.getRequestCookies().add(new Cookie("pac4jSession", "not-base64!"));
+        assertTrue(store.get(tamperedContext, KEY).isEmpty());
+        assertTrue(store.getSessionId(tamperedContext, false).isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+package org.pac4j.core.credentials.authenticator;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.creator.AsyncProfileCreator;
+import org.pac4j.core.profile.creator.ProfileCreator;
+import org.pac4j.core.util.AsyncHelper;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link AsyncAuthenticator} and {@link AsyncProfileCreator}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class AsyncAuthenticatorTests implements TestsConstants {
+
+    private final CallContext ctx = new CallContext(MockWebContext.create(), new MockSessionStore());
+
+    @Test
+    public void testFromBlocking() {
+        val executor = Executors.newSingleThreadExecutor();
+        try {
+            val thread = new Thread[1];
+            final Authenticator authenticator = (ctx, credentials) -> {
+                thread[0] = Thread.currentThread();
+                return Optional.of(credentials);
+            };
+            val credentials = new TokenCredentials(VALUE);
+            val asyncAuthenticator = AsyncAuthenticator.fromBlocking(authenticator, executor);
+            assertEquals(credentials, AsyncHelper.join(asyncAuthenticator.validateAsync(ctx, credentials)).get());
+            assertNotSame(Thread.currentThread(), thread[0]);
+
+            final Authenticator failing = (ctx, creds) -> {
+                throw new CredentialsException("bad token");
+            };
+            TestsHelper.expectException(() -> AsyncHelper.join(AsyncAuthenticator.fromBlocking(failing, executor)
+                .validateAsync(ctx, credentials)), CredentialsException.class, "bad token");
+
+            final ProfileCreator profileCreator = (ctx, creds) -> Optional.of(new CommonProfile());
+            assertTrue(AsyncHelper.join(AsyncProfileCreator.fromBlocking(profileCreator, executor).createAsync(ctx, credentials))
+                .isPresent());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testToBlocking() {
+        final AsyncAuthenticator asyncAuthenticator = (ctx, credentials) -> CompletableFuture.completedFuture(Optional.of(credentials));
+        val credentials = new TokenCredentials(VALUE);
+        assertEquals(credentials, AsyncAuthenticator.toBlocking(asyncAuthenticator).validate(ctx, credentials).get());
+
+        final AsyncProfileCreator asyncProfileCreator = (ctx, creds) -> CompletableFuture.failedFuture(new IOException("down"));
+        val e = TestsHelper.expectException(() -> AsyncProfileCreator.toBlocking(asyncProfileCreator).create(ctx, credentials));
+        assertTrue(e instanceof TechnicalException);
+        assertTrue(e.getCause() instanceof IOException);
+    }
+
+    @Test
+    public void testAlreadyAsync() {
+        val authenticator = new BothAuthenticator();
+        assertSame(authenticator, AsyncAuthenticator.fromBlocking(authenticator, null));
+    }
+
+    private static final class BothAuthenticator implements Authenticator, AsyncAuthenticator {
+
+        @Override
+        public Optional<Credentials> validate(final CallContext ctx, final Credentials credentials) {
+            return AsyncHelper.join(validateAsync(ctx, credentials));
+        }
+
+        @Override
+        public CompletionStage<Optional<Credentials>> validateAsync(final CallContext ctx, final Credentials credentials) {
+            return CompletableFuture.completedFuture(Optional.of(credentials));
+        }
+    }
+}
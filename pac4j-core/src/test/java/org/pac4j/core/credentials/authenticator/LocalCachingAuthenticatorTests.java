@@ -6,14 +6,22 @@ import org.pac4j.core.context.CallContext;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.credentials.UsernamePasswordCredentials;
 import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.UserProfile;
 
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.util.TestsHelper;
+
+import java.io.Serial;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * Test cases for {@link LocalCachingAuthenticator}.
@@ -137,6 +145,155 @@ public class LocalCachingAuthenticatorTests {
         assertFalse(authenticator.isCached(this.credentials));
     }
 
+    @Test
+    public void testHashedCredentials() {
+        val authenticator = new OnlyOneCallAuthenticator();
+        val localCachingAuthenticator = new LocalCachingAuthenticator(authenticator, 10, 10, TimeUnit.SECONDS);
+        localCachingAuthenticator.setHashCredentials(true);
+        localCachingAuthenticator.init();
+        localCachingAuthenticator.validate(null, new UsernamePasswordCredentials("a", "a"));
+        val credentials2 = new UsernamePasswordCredentials("a", "a");
+        localCachingAuthenticator.validate(null, credentials2);
+        assertNotNull(credentials2.getUserProfile());
+        assertTrue(localCachingAuthenticator.isCached(new UsernamePasswordCredentials("a", "a")));
+        assertFalse(localCachingAuthenticator.isCached(new UsernamePasswordCredentials("a", "b")));
+        assertFalse(localCachingAuthenticator.isCached(new UsernamePasswordCredentials("aa", "")));
+        assertFalse(localCachingAuthenticator.isCached(new TokenCredentials("a")));
+
+        val keys = ((GuavaStore<Credentials, UserProfile>) localCachingAuthenticator.getStore()).getCache().asMap().keySet();
+        assertEquals(1, keys.size());
+        assertTrue(keys.iterator().next() instanceof LocalCachingAuthenticator.HashedCredentials);
+
+        localCachingAuthenticator.removeFromCache(new UsernamePasswordCredentials("a", "a"));
+        assertFalse(localCachingAuthenticator.isCached(this.credentials));
+    }
+
+    @Test
+    public void testNegativeCaching() {
+        val nbCalls = new AtomicInteger();
+        final Authenticator countingThrowingAuthenticator = (ctx, credentials) -> {
+            nbCalls.incrementAndGet();
+            throw new CredentialsException("bad credentials");
+        };
+        val authenticator = new LocalCachingAuthenticator(countingThrowingAuthenticator, 10, 10, TimeUnit.SECONDS);
+        authenticator.setNegativeTimeout(1);
+        authenticator.init();
+
+        TestsHelper.expectException(() -> authenticator.validate(null, this.credentials), CredentialsException.class,
+            "bad credentials");
+        TestsHelper.expectException(() -> authenticator.validate(null, new UsernamePasswordCredentials("a", "a")),
+            CredentialsException.class, "bad credentials");
+        assertEquals(1, nbCalls.get());
+        assertFalse(authenticator.isCached(this.credentials));
+
+        authenticator.removeFromCache(this.credentials);
+        TestsHelper.expectException(() -> authenticator.validate(null, this.credentials), CredentialsException.class,
+            "bad credentials");
+        assertEquals(2, nbCalls.get());
+    }
+
+    @Test
+    public void testNoNegativeCachingOfTechnicalErrors() {
+        val nbCalls = new AtomicInteger();
+        final Authenticator failingAuthenticator = (ctx, credentials) -> {
+            nbCalls.incrementAndGet();
+            throw new IllegalStateException("backend down");
+        };
+        val authenticator = new LocalCachingAuthenticator(failingAuthenticator, 10, 10, TimeUnit.SECONDS);
+        authenticator.setNegativeTimeout(1);
+        authenticator.init();
+
+        TestsHelper.expectException(() -> authenticator.validate(null, this.credentials), IllegalStateException.class, "backend down");
+        TestsHelper.expectException(() -> authenticator.validate(null, this.credentials), IllegalStateException.class, "backend down");
+        assertEquals(2, nbCalls.get());
+    }
+
+    @Test
+    public void testCoalescedRequests() throws InterruptedException {
+        val nbCalls = new AtomicInteger();
+        val release = new CountDownLatch(1);
+        final Authenticator slowAuthenticator = (ctx, credentials) -> {
+            nbCalls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            credentials.setUserProfile(new CommonProfile());
+            return Optional.of(credentials);
+        };
+        val authenticator = new LocalCachingAuthenticator(slowAuthenticator, 10, 10, TimeUnit.SECONDS);
+        assertFalse(authenticator.isCoalesceRequests());
+        authenticator.setCoalesceRequests(true);
+        authenticator.init();
+
+        val nbProfiles = new AtomicInteger();
+        val executor = Executors.newFixedThreadPool(8);
+        for (var i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                val credentials = new TokenCredentials("token");
+                authenticator.validate(null, credentials);
+                if (credentials.getUserProfile() != null) {
+                    nbProfiles.incrementAndGet();
+                }
+            });
+        }
+        Thread.sleep(300);
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, nbCalls.get());
+        assertEquals(8, nbProfiles.get());
+    }
+
+    @Test
+    public void testHashedNotSerializableCredentials() {
+        val authenticator = new LocalCachingAuthenticator(delegate, 10, 10, TimeUnit.SECONDS);
+        authenticator.setHashCredentials(true);
+        TestsHelper.expectException(() -> authenticator.validate(null, new NotSerializableCredentials()), TechnicalException.class,
+            "Cannot hash the credentials (not serializable): " + NotSerializableCredentials.class.getName());
+    }
+
+    @Test
+    public void testCoalescedRequestTimeout() throws InterruptedException {
+        val started = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        final Authenticator hungAuthenticator = (ctx, credentials) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            credentials.setUserProfile(new CommonProfile());
+            return Optional.of(credentials);
+        };
+        val authenticator = new LocalCachingAuthenticator(hungAuthenticator, 10, 10, TimeUnit.SECONDS);
+        authenticator.setCoalesceRequests(true);
+        authenticator.setCoalesceTimeout(100);
+        authenticator.setCoalesceTimeUnit(TimeUnit.MILLISECONDS);
+        authenticator.init();
+
+        val executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.execute(() -> authenticator.validate(null, new TokenCredentials("token")));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            TestsHelper.expectException(() -> authenticator.validate(null, new TokenCredentials("token")), TechnicalException.class,
+                "No result of the in-flight authentication of the same credentials after: 100 MILLISECONDS");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static final class NotSerializableCredentials extends Credentials {
+
+        @Serial
+        private static final long serialVersionUID = -5705457545389357893L;
+
+        final Object value = new Object();
+    }
+
     private static class ThrowingAuthenticator implements Authenticator {
 
         @Override
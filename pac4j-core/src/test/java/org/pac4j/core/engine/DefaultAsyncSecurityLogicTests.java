@@ -0,0 +1,229 @@
+package org.pac4j.core.engine;
+
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.adapter.FrameworkAdapter;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.client.IndirectClient;
+import org.pac4j.core.client.MockDirectClient;
+import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.credentials.MockCredentials;
+import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.exception.http.HttpAction;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.AsyncHelper;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests {@link DefaultAsyncSecurityLogic} and {@link DefaultAsyncCallbackLogic}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class DefaultAsyncSecurityLogicTests implements TestsConstants {
+
+    private static final String THREAD_NAME = "pac4j-test-async";
+
+    private static final String CALLER_THREAD_NAME = "pac4j-test-caller";
+
+    private ExecutorService executor;
+
+    private ExecutorService callerExecutor;
+
+    private Config config;
+
+    private MockWebContext context;
+
+    private HttpAction action;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(r, THREAD_NAME));
+        callerExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, CALLER_THREAD_NAME));
+        config = new Config();
+        context = MockWebContext.create();
+        config.setWebContextFactory(p -> context);
+        val sessionStore = new MockSessionStore();
+        config.setSessionStoreFactory(p -> sessionStore);
+        config.setHttpActionAdapter((act, ctx) -> {
+            action = act;
+            return Thread.currentThread().getName();
+        });
+        FrameworkAdapter.INSTANCE.applyDefaultSettingsIfUndefined(config);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        callerExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testGrantedAccessOnCaller() throws Exception {
+        config.setClients(new Clients(CALLBACK_URL, new MockIndirectClient(NAME)));
+        config.addMatcher(NAME, ctx -> false);
+        val logic = new DefaultAsyncSecurityLogic(executor);
+        val result = logic.performAsync(config, (ctx, store, profiles) -> Thread.currentThread().getName(), null, null, NAME,
+            mock(FrameworkParameters.class)).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(Thread.currentThread().getName(), result);
+    }
+
+    @Test
+    public void testGrantedAccessOnExecutorForAnotherLogic() throws Exception {
+        config.setClients(new Clients(CALLBACK_URL, new MockIndirectClient(NAME)));
+        config.addMatcher(NAME, ctx -> false);
+        val logic = new DefaultAsyncSecurityLogic(new DefaultSecurityLogic().setLoadProfilesFromSession(false), executor);
+        val result = logic.performAsync(config, (ctx, store, profiles) -> Thread.currentThread().getName(), null, null, NAME,
+            mock(FrameworkParameters.class)).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(THREAD_NAME, result);
+    }
+
+    @Test
+    public void testConfinedContext() throws Exception {
+        val confinedContext = confined(WebContext.class, context);
+        config.setWebContextFactory(p -> confinedContext);
+        val confinedStore = confined(SessionStore.class, new MockSessionStore());
+        config.setSessionStoreFactory(p -> confinedStore);
+        val validationThread = new AtomicReference<String>();
+        val client = new MockDirectClient(NAME, Optional.of(new MockCredentials()), null);
+        client.setAuthenticator((ctx, cred) -> {
+            validationThread.set(Thread.currentThread().getName());
+            cred.setUserProfile(new CommonProfile());
+            return Optional.of(cred);
+        });
+        config.setClients(new Clients(CALLBACK_URL, client));
+        val logic = new DefaultAsyncSecurityLogic(executor).setCallerExecutor(callerExecutor);
+        val result = callerExecutor.submit(() -> logic.performAsync(config, (ctx, store, profiles) -> {
+            assertEquals(1, profiles.size());
+            return Thread.currentThread().getName();
+        }, NAME, null, null, mock(FrameworkParameters.class))).get(5, TimeUnit.SECONDS)
+            .toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(THREAD_NAME, validationThread.get());
+        assertEquals(CALLER_THREAD_NAME, result);
+    }
+
+    @Test
+    public void testMatchersEvaluatedOnce() throws Exception {
+        val nbMatches = new AtomicInteger();
+        config.addMatcher(NAME, ctx -> {
+            nbMatches.incrementAndGet();
+            return true;
+        });
+        final Authenticator authenticator = (ctx, cred) -> {
+            cred.setUserProfile(new CommonProfile());
+            return Optional.of(cred);
+        };
+        val client = new MockDirectClient(NAME, Optional.of(new MockCredentials()), null);
+        client.setAuthenticator(authenticator);
+        config.setClients(new Clients(CALLBACK_URL, client));
+        val logic = new DefaultAsyncSecurityLogic(executor);
+        val result = logic.performAsync(config, (ctx, store, profiles) -> profiles.size(), NAME, null, NAME,
+            mock(FrameworkParameters.class)).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(1, result);
+        assertEquals(1, nbMatches.get());
+    }
+
+    @Test
+    public void testGrantedAccessStage() throws Exception {
+        config.setClients(new Clients(CALLBACK_URL, new MockIndirectClient(NAME)));
+        config.addMatcher(NAME, ctx -> false);
+        val logic = new DefaultAsyncSecurityLogic(executor);
+        val result = logic.performAsync(config, (ctx, store, profiles) -> CompletableFuture.supplyAsync(() -> VALUE), null, null, NAME,
+            mock(FrameworkParameters.class)).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(VALUE, result);
+    }
+
+    @Test
+    public void testUnauthorized() throws Exception {
+        final IndirectClient client = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, client));
+        val logic = new DefaultAsyncSecurityLogic(executor);
+        val result = logic.performAsync(config, (ctx, store, profiles) -> null, Pac4jConstants.EMPTY_STRING, null, null,
+            mock(FrameworkParameters.class)).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(Thread.currentThread().getName(), result);
+        assertEquals(401, action.getCode());
+    }
+
+    @Test
+    public void testFailure() {
+        val logic = new DefaultAsyncSecurityLogic(executor);
+        val stage = logic.performAsync(null, (ctx, store, profiles) -> null, null, null, null, mock(FrameworkParameters.class));
+        TestsHelper.expectException(() -> AsyncHelper.join(stage), TechnicalException.class, "config cannot be null");
+    }
+
+    @Test
+    public void testAsyncDelegate() {
+        final AsyncSecurityLogic asyncLogic = (cfg, adapter, clients, authorizers, matchers, parameters) ->
+            CompletableFuture.completedFuture(VALUE);
+        final SecurityLogic logic = new AsyncBlockingSecurityLogic(asyncLogic);
+        assertEquals(VALUE, AsyncHelper.join(new DefaultAsyncSecurityLogic(logic, null)
+            .performAsync(config, null, null, null, null, null)));
+    }
+
+    @Test
+    public void testCallback() throws Exception {
+        final IndirectClient client = new MockIndirectClient(NAME, new FoundAction(PAC4J_URL), Optional.of(new MockCredentials()),
+            new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, client));
+        val logic = new DefaultAsyncCallbackLogic(executor).setCallerExecutor(callerExecutor);
+        val result = logic.performAsync(config, null, null, null, mock(FrameworkParameters.class))
+            .toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(CALLER_THREAD_NAME, result);
+        assertEquals(302, action.getCode());
+    }
+
+    private static <T> T confined(final Class<T> type, final T delegate) {
+        return mock(type, invocation -> {
+            if (!CALLER_THREAD_NAME.equals(Thread.currentThread().getName())) {
+                throw new IllegalStateException(type.getSimpleName() + " accessed outside of the caller thread");
+            }
+            try {
+                return invocation.getMethod().invoke(delegate, invocation.getArguments());
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private record AsyncBlockingSecurityLogic(AsyncSecurityLogic asyncLogic) implements SecurityLogic, AsyncSecurityLogic {
+
+        @Override
+        public Object perform(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
+                              final String clients, final String authorizers, final String matchers,
+                              final FrameworkParameters parameters) {
+            return AsyncHelper.join(performAsync(config, securityGrantedAccessAdapter, clients, authorizers, matchers, parameters));
+        }
+
+        @Override
+        public CompletionStage<Object> performAsync(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
+                                                    final String clients, final String authorizers, final String matchers,
+                                                    final FrameworkParameters parameters) {
+            return asyncLogic.performAsync(config, securityGrantedAccessAdapter, clients, authorizers, matchers, parameters);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.pac4j.core.client.finder.DefaultCallbackClientFinder;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.FrameworkParameters;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.CookieSessionStore;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.credentials.MockCredentials;
 import org.pac4j.core.exception.TechnicalException;
@@ -25,6 +26,7 @@ import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -136,6 +138,28 @@ public final class DefaultCallbackLogicTests implements TestsConstants {
         assertEquals(Pac4jConstants.DEFAULT_URL_VALUE, ((FoundAction) action).getLocation());
     }
 
+    @Test
+    public void testCallbackWithCookieSessionStore() {
+        val cookieSessionStore = new CookieSessionStore("k1", "0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+        config.setSessionStoreFactory(p -> cookieSessionStore);
+        cookieSessionStore.set(context, Pac4jConstants.REQUESTED_URL, new FoundAction(PAC4J_URL));
+        context.addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, NAME);
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), profile);
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        call();
+        assertEquals(PAC4J_URL, ((FoundAction) action).getLocation());
+        assertEquals(1, context.getResponseCookies().size());
+
+        val nextContext = MockWebContext.create();
+        nextContext.getRequestCookies().addAll(context.getResponseCookies());
+        Map<String, CommonProfile> profiles =
+            (LinkedHashMap<String, CommonProfile>) cookieSessionStore.get(nextContext, Pac4jConstants.USER_PROFILES).get();
+        assertEquals(ID, profiles.values().iterator().next().getId());
+        assertTrue(cookieSessionStore.get(nextContext, Pac4jConstants.REQUESTED_URL).isEmpty());
+    }
+
     @Test
     public void testCallbackWithOriginallyRequestedUrl() {
         internalTestCallbackWithOriginallyRequestedUrl(302);
@@ -5,9 +5,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.pac4j.core.adapter.FrameworkAdapter;
 import org.pac4j.core.client.*;
+import org.pac4j.core.authorization.authorizer.DefaultAuthorizers;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.CookieSessionStore;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.MockCredentials;
@@ -15,14 +18,20 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.exception.http.FoundAction;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.exception.http.StatusAction;
+import org.pac4j.core.matching.matcher.DefaultMatchers;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenSigner;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -157,6 +166,37 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         assertEquals(302, action.getCode());
     }
 
+    @Test
+    public void testHmacCsrfTokens() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        val signer = new HmacCsrfTokenSigner("01234567890123456789012345678901");
+        config.useHmacCsrfTokens(signer);
+        authorizers = DefaultAuthorizers.CSRF_CHECK;
+        matchers = DefaultMatchers.CSRF_TOKEN;
+        call();
+        assertEquals(1, nbCall);
+        val token = (String) context.getRequestAttribute(Pac4jConstants.CSRF_TOKEN).get();
+        val sessionId = sessionStore.getSessionId(context, false).get();
+        assertTrue(signer.verify(token, sessionId, System.currentTimeMillis() / 1000));
+        assertFalse(sessionStore.get(context, Pac4jConstants.CSRF_TOKEN).isPresent());
+
+        context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        call();
+        assertEquals(2, nbCall);
+
+        context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name());
+        call();
+        assertEquals(2, nbCall);
+        assertEquals(403, action.getCode());
+    }
+
     @Test
     public void testAlreadyAuthenticatedAndAuthorized() {
         val profile = new CommonProfile();
@@ -221,6 +261,41 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         assertTrue(profiles.containsValue(profile));
     }
 
+    @Test
+    public void testEvictedLazyClientBuiltAgain() {
+        val nbBuilds = new AtomicInteger();
+        val configClients = new Clients(CALLBACK_URL, new MockDirectClient(VALUE));
+        configClients.addLazyClient(NAME, name -> {
+            val profile = new CommonProfile();
+            profile.setId(ID + nbBuilds.incrementAndGet());
+            return new MockDirectClient(name, Optional.of(new MockCredentials()), profile);
+        });
+        config.setClients(configClients);
+        clients = NAME + "," + VALUE;
+        call();
+        assertEquals(1, nbCall);
+        assertEquals(ID + 1, getProfileId());
+
+        for (val forceClient : List.of(false, true)) {
+            configClients.getLazyClients().setMaxInitializedClients(0);
+            assertEquals(1, configClients.getLazyClients().evict());
+            configClients.getLazyClients().setMaxInitializedClients(1);
+            context = MockWebContext.create();
+            if (forceClient) {
+                context.addRequestParameter(Pac4jConstants.DEFAULT_FORCE_CLIENT_PARAMETER, NAME);
+            }
+            call();
+            assertEquals(forceClient ? 3 : 2, nbCall);
+            assertEquals(ID + nbBuilds.get(), getProfileId());
+        }
+    }
+
+    private String getProfileId() {
+        Map<String, CommonProfile> profiles =
+            (LinkedHashMap<String, CommonProfile>) context.getRequestAttribute(Pac4jConstants.USER_PROFILES).get();
+        return profiles.values().iterator().next().getId();
+    }
+
     @Test
     public void testDirectClientThrowsRequiresHttpAction() {
         val profile = new CommonProfile();
@@ -302,6 +377,27 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         assertEquals(PAC4J_URL, ((FoundAction) action).getLocation());
     }
 
+    @Test
+    public void testSessionTooLargeHandled() {
+        val cookieSessionStore = new CookieSessionStore("k1", "0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+        cookieSessionStore.setMaxChunkSize(200);
+        cookieSessionStore.setMaxChunks(1);
+        sessionStore = cookieSessionStore;
+        val value = new StringBuilder();
+        for (var i = 0; i < 20; i++) {
+            value.append(UUID.randomUUID());
+        }
+        sessionStore.set(context, KEY, value.toString());
+        final IndirectClient indirectClient =
+            new MockIndirectClient(NAME, new FoundAction(PAC4J_URL), Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        clients = NAME;
+        logic.setErrorUrl(LOGIN_URL);
+        call();
+        assertEquals(302, action.getCode());
+        assertEquals(LOGIN_URL, ((FoundAction) action).getLocation());
+    }
+
     @Test
     public void testDoubleIndirectClientOneChosen() {
         final IndirectClient indirectClient =
@@ -328,4 +424,29 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         call();
         assertEquals(401, action.getCode());
     }
+
+    @Test
+    public void testSecurityPlanRecompiledAfterConfigChange() {
+        val profile = new CommonProfile();
+        Map<String, CommonProfile> profiles = new LinkedHashMap<>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        authorizers = NAME;
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addAuthorizer(NAME, (context, store, prof) -> ID.equals(prof.get(0).getId()));
+        call();
+        assertEquals(403, action.getCode());
+        action = null;
+        config.addAuthorizer(NAME, (context, store, prof) -> true);
+        call();
+        assertNull(action);
+        assertEquals(1, nbCall);
+    }
+
+    @Test
+    public void testAlreadyAuthenticatedAndAuthorizedWithoutSecurityPlans() {
+        logic.setUseSecurityPlans(false);
+        testAlreadyAuthenticatedAndAuthorized();
+    }
 }
@@ -261,6 +261,38 @@ public final class DefaultMatchingCheckerTests implements TestsConstants {
         assertNotNull(WebContextHelper.getCookie(context.getResponseCookies(), Pac4jConstants.CSRF_TOKEN));
     }
 
+    @Test
+    public void testCompiledCsrfTokenDefaultDependsOnSession() {
+        val compiled = checker.compile(Pac4jConstants.EMPTY_STRING, new HashMap<>());
+        var context = MockWebContext.create();
+        assertTrue(compiled.matches(new CallContext(context, new MockSessionStore()), new ArrayList<>()));
+        assertFalse(context.getRequestAttribute(Pac4jConstants.CSRF_TOKEN).isPresent());
+
+        context = MockWebContext.create();
+        final SessionStore sessionStore = new MockSessionStore();
+        sessionStore.getSessionId(context, true);
+        assertTrue(compiled.matches(new CallContext(context, sessionStore), new ArrayList<>()));
+        assertTrue(context.getRequestAttribute(Pac4jConstants.CSRF_TOKEN).isPresent());
+    }
+
+    @Test
+    public void testCompiledSubclassDependingOnRequest() {
+        val requestChecker = new DefaultMatchingChecker() {
+            @Override
+            protected List<Matcher> computeMatchers(final CallContext ctx, final String matchersValue,
+                                                    final Map<String, Matcher> matchersMap, final List<Client> clients) {
+                if (ctx.webContext().getRequestParameter(NAME).isPresent()) {
+                    return List.of(new AlwaysFalseMatcher());
+                }
+                return List.of();
+            }
+        };
+        val compiled = requestChecker.compile(DefaultMatchers.NONE, new HashMap<>());
+        assertTrue(compiled.matches(new CallContext(MockWebContext.create(), new MockSessionStore()), new ArrayList<>()));
+        assertFalse(compiled.matches(new CallContext(MockWebContext.create().addRequestParameter(NAME, VALUE),
+            new MockSessionStore()), new ArrayList<>()));
+    }
+
     @Test
     public void testCsrfTokenDefaultButIndirectClient() {
         val context = MockWebContext.create();
@@ -10,6 +10,7 @@ import org.pac4j.core.util.TestsHelper;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import static org.junit.Assert.assertFalse;
@@ -127,4 +128,68 @@ public class PathMatcherTests {
         assertFalse(matcher.matches(new CallContext(MockWebContext.create().setPath("/callback"), new MockSessionStore())));
         assertFalse(matcher.matches(new CallContext(MockWebContext.create().setPath("/notprotected"), new MockSessionStore())));
     }
+
+    @Test
+    public void testManyBranchesAndPaths() {
+        val matcher = new PathMatcher();
+        for (var i = 0; i < 300; i++) {
+            matcher.excludeBranch("/static" + i);
+            matcher.excludePath("/health" + i);
+        }
+        matcher.excludeRegex("^/img/.*$");
+        matcher.excludeRegex("^/(css|js)/.*\\.map$");
+
+        assertFalse(matcher.matches("/static0"));
+        assertFalse(matcher.matches("/static299/app.js"));
+        assertFalse(matcher.matches("/static12/"));
+        assertTrue(matcher.matches("/static12.js"));
+        assertTrue(matcher.matches("/static300/app.js"));
+        assertTrue(matcher.matches("/static"));
+        assertFalse(matcher.matches("/health42"));
+        assertTrue(matcher.matches("/health42/"));
+        assertTrue(matcher.matches("/health"));
+        assertFalse(matcher.matches("/img/logo.png"));
+        assertFalse(matcher.matches("/js/app.js.map"));
+        assertTrue(matcher.matches("/js/app.js"));
+        assertTrue(matcher.matches("/"));
+    }
+
+    @Test
+    public void testBranchWithRegexCharacters() {
+        val matcher = new PathMatcher().excludeBranch("/foo.bar");
+        assertFalse(matcher.matches("/foo.bar/baz"));
+        assertFalse(matcher.matches("/fooxbar"));
+        assertTrue(matcher.matches("/foo.barbaz"));
+    }
+
+    @Test
+    public void testBranchWithLineTerminator() {
+        val matcher = new PathMatcher().excludeBranch("/foo");
+        assertTrue(matcher.matches("/foo/bar\nbaz"));
+        assertFalse(matcher.matches("/foo/bar"));
+    }
+
+    @Test
+    public void testModificationsThroughGetters() {
+        val matcher = new PathMatcher().excludePath("/foo");
+        assertTrue(matcher.matches("/bar"));
+        matcher.getExcludedPaths().add("/bar");
+        assertFalse(matcher.matches("/bar"));
+        matcher.getExcludedPatterns().add(Pattern.compile("^/baz/.*$"));
+        assertFalse(matcher.matches("/baz/1"));
+    }
+
+    @Test
+    public void testModificationsAfterMatching() {
+        val matcher = new PathMatcher().excludeBranch("/foo");
+        assertTrue(matcher.matches("/bar/1"));
+        matcher.excludeBranch("/bar");
+        assertFalse(matcher.matches("/bar/1"));
+        matcher.setExcludedPattern("^/baz$");
+        assertTrue(matcher.matches("/bar/1"));
+        assertFalse(matcher.matches("/baz"));
+        matcher.includePath("/protected");
+        assertTrue(matcher.matches("/protected/baz"));
+        assertFalse(matcher.matches("/baz"));
+    }
 }
@@ -0,0 +1,69 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link HmacCsrfTokenSigner}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class HmacCsrfTokenSignerTests implements TestsConstants {
+
+    private static final String SECRET1 = "12345678901234567890123456789012";
+
+    private static final String SECRET2 = "abcdefghijklmnopqrstuvwxyzabcdef";
+
+    private static final long NOW = 1_700_000_000L;
+
+    @Test
+    public void testSignAndVerify() {
+        val signer = new HmacCsrfTokenSigner(SECRET1);
+        val token = signer.sign(ID, NOW + 10);
+        assertTrue(token.startsWith((NOW + 10) + "."));
+        assertTrue(signer.verify(token, ID, NOW));
+        assertTrue(signer.verify(token, ID, NOW + 10));
+        assertFalse(signer.verify(token, ID, NOW + 11));
+        assertFalse(signer.verify(token, VALUE, NOW));
+        assertFalse(signer.verify(null, ID, NOW));
+        assertFalse(signer.verify(token, null, NOW));
+    }
+
+    @Test
+    public void testTamperedTokens() {
+        val signer = new HmacCsrfTokenSigner(SECRET1);
+        val token = signer.sign(ID, NOW + 10);
+        val mac = token.substring(token.indexOf('.'));
+        assertFalse(signer.verify(NOW + 1000 + mac, ID, NOW));
+        assertFalse(signer.verify(token + "A", ID, NOW));
+        assertFalse(signer.verify("." + mac, ID, NOW));
+        assertFalse(signer.verify("abc" + mac, ID, NOW));
+        assertFalse(signer.verify((NOW + 10) + ".%%%", ID, NOW));
+        assertFalse(signer.verify(VALUE, ID, NOW));
+    }
+
+    @Test
+    public void testKeyRotation() {
+        val oldToken = new HmacCsrfTokenSigner(SECRET1).sign(ID, NOW + 10);
+        val rotatedSigner = new HmacCsrfTokenSigner(SECRET2, SECRET1);
+        assertTrue(rotatedSigner.verify(oldToken, ID, NOW));
+        val newToken = rotatedSigner.sign(ID, NOW + 10);
+        assertNotEquals(oldToken, newToken);
+        assertTrue(rotatedSigner.verify(newToken, ID, NOW));
+        assertFalse(new HmacCsrfTokenSigner(SECRET1).verify(newToken, ID, NOW));
+        assertFalse(new HmacCsrfTokenSigner(SECRET2).verify(oldToken, ID, NOW));
+    }
+
+    @Test
+    public void testSecrets() {
+        TestsHelper.expectException(HmacCsrfTokenSigner::new, TechnicalException.class, "at least one secret must be defined");
+        TestsHelper.expectException(() -> new HmacCsrfTokenSigner(VALUE), TechnicalException.class,
+            "secrets must be at least 32 bytes long");
+    }
+}
@@ -0,0 +1,126 @@
+package org.pac4j.core.metrics;
+
+import lombok.val;
+import org.junit.After;
+import org.junit.Test;
+import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.util.TestsConstants;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link InMemoryPac4jMetrics}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class InMemoryPac4jMetricsTests implements TestsConstants {
+
+    @After
+    public void tearDown() {
+        MetricsHelper.setMetrics(Pac4jMetrics.NOOP);
+    }
+
+    @Test
+    public void testHistogram() {
+        val histogram = new InMemoryPac4jMetrics.Histogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        for (var i = 1; i <= 1_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        assertEquals(1_000, histogram.getCount());
+        assertEquals(1_000_000L, histogram.getMax());
+        assertEquals(500_500.0, histogram.getMean(), 0.1);
+        assertPercentile(500_000L, histogram.getValueAtPercentile(50));
+        assertPercentile(990_000L, histogram.getValueAtPercentile(99));
+        assertEquals(1_000_000L, histogram.getValueAtPercentile(100));
+        assertEquals(1_000L, histogram.getValueAtPercentile(0), 125.0);
+    }
+
+    private static void assertPercentile(final long expected, final long actual) {
+        assertTrue(actual + " vs " + expected, actual >= expected && actual <= expected * 1.125);
+    }
+
+    @Test
+    public void testBuckets() {
+        for (val value : new long[] {0, 1, 15, 16, 17, 18, 100, 1_000_000, Long.MAX_VALUE}) {
+            val index = InMemoryPac4jMetrics.Histogram.bucketIndex(value);
+            assertTrue(InMemoryPac4jMetrics.Histogram.bucketUpperBound(index) >= value);
+            if (index > 0) {
+                assertTrue(InMemoryPac4jMetrics.Histogram.bucketUpperBound(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void testClientAndStorePhases() {
+        val metrics = new InMemoryPac4jMetrics();
+        MetricsHelper.setMetrics(metrics);
+        val client = new MockIndirectClient(NAME, new FoundAction(LOGIN_URL), Optional.of(new TokenCredentials(VALUE)),
+            new CommonProfile());
+        client.setCallbackUrl(CALLBACK_URL);
+        client.addAuthorizationGenerator((ctx, profile) -> Optional.of(profile));
+        val ctx = new CallContext(MockWebContext.create(), new MockSessionStore());
+        val credentials = client.getCredentials(ctx).get();
+        client.validateCredentials(ctx, credentials);
+        client.getUserProfile(ctx, credentials);
+        for (val phase : new Pac4jMetrics.Phase[] {Pac4jMetrics.Phase.CREDENTIALS_EXTRACTION, Pac4jMetrics.Phase.CREDENTIALS_VALIDATION,
+            Pac4jMetrics.Phase.PROFILE_CREATION, Pac4jMetrics.Phase.AUTHORIZATION_GENERATION}) {
+            assertEquals(phase.name(), 1, metrics.getHistogram(phase, NAME, Pac4jMetrics.Outcome.SUCCESS).getCount());
+        }
+
+        val store = new GuavaStore<String, String>(10, 1, TimeUnit.MINUTES);
+        store.get(KEY);
+        store.set(KEY, VALUE);
+        store.get(KEY);
+        val name = GuavaStore.class.getSimpleName();
+        assertEquals(1, metrics.getHistogram(Pac4jMetrics.Phase.STORE_READ, name, Pac4jMetrics.Outcome.FAILURE).getCount());
+        assertEquals(1, metrics.getHistogram(Pac4jMetrics.Phase.STORE_READ, name, Pac4jMetrics.Outcome.SUCCESS).getCount());
+        assertEquals(1, metrics.getHistogram(Pac4jMetrics.Phase.STORE_WRITE, name, Pac4jMetrics.Outcome.SUCCESS).getCount());
+
+        metrics.reset();
+        assertTrue(metrics.getHistograms().isEmpty());
+    }
+
+    @Test
+    public void testBulkStoreOperations() {
+        val metrics = new InMemoryPac4jMetrics();
+        MetricsHelper.setMetrics(metrics);
+        val store = new GuavaStore<String, String>(10, 1, TimeUnit.MINUTES);
+        store.set(KEY, VALUE, Duration.ofMinutes(1));
+        assertFalse(store.setIfAbsent(KEY, VALUE));
+        assertTrue(store.setIfAbsent(NAME, VALUE, Duration.ofMinutes(1)));
+        store.setAll(Map.of(ID, VALUE));
+        assertEquals(3, store.getAll(List.of(KEY, NAME, ID)).size());
+        store.removeAll(List.of(NAME, ID));
+        store.getAll(List.of(KEY, NAME));
+        val name = GuavaStore.class.getSimpleName();
+        assertEquals(4, metrics.getHistogram(Pac4jMetrics.Phase.STORE_WRITE, name, Pac4jMetrics.Outcome.SUCCESS).getCount());
+        assertEquals(1, metrics.getHistogram(Pac4jMetrics.Phase.STORE_WRITE, name, Pac4jMetrics.Outcome.FAILURE).getCount());
+        assertEquals(1, metrics.getHistogram(Pac4jMetrics.Phase.STORE_READ, name, Pac4jMetrics.Outcome.SUCCESS).getCount());
+        assertEquals(1, metrics.getHistogram(Pac4jMetrics.Phase.STORE_READ, name, Pac4jMetrics.Outcome.FAILURE).getCount());
+    }
+
+    @Test
+    public void testFailingMetrics() {
+        MetricsHelper.setMetrics((phase, name, outcome, durationInNanos) -> {
+            throw new IllegalStateException();
+        });
+        val store = new GuavaStore<String, String>(10, 1, TimeUnit.MINUTES);
+        store.set(KEY, VALUE);
+        assertEquals(VALUE, store.get(KEY).get());
+    }
+}
@@ -177,14 +177,14 @@ public final class CommonProfileTests implements TestsConstants {
         assertEquals(VALUE, userProfile.getAuthenticationAttributes().get(KEY));
     }
 
-    @Test
-    public void testUnsafeAddAttribute() throws UnsupportedOperationException {
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnsafeAddAttribute() {
         UserProfile userProfile = new CommonProfile();
         userProfile.getAttributes().put(KEY, VALUE);
     }
 
-    @Test
-    public void testUnsafeAddAuthenticationAttribute() throws UnsupportedOperationException {
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnsafeAddAuthenticationAttribute() {
         val userProfile = new CommonProfile();
         userProfile.getAuthenticationAttributes().put(KEY, VALUE);
     }
@@ -0,0 +1,91 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.serializer.JavaSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CompactAttributeMap}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class CompactAttributeMapTests implements TestsConstants {
+
+    @Test
+    public void testLikeHashMap() {
+        final Map<String, Object> expected = new HashMap<>();
+        val map = new CompactAttributeMap();
+        for (var i = 0; i < CompactAttributeMap.MAX_ARRAY_SIZE * 3; i++) {
+            assertEquals(expected.put(KEY + i, i), map.put(KEY + i, i));
+            assertEquals(expected.put(KEY + (i / 2), VALUE), map.put(KEY + (i / 2), VALUE));
+            if (i % 3 == 0) {
+                assertEquals(expected.remove(KEY + (i / 3)), map.remove(KEY + (i / 3)));
+            }
+            assertEquals(expected, map);
+            assertEquals(expected.hashCode(), map.hashCode());
+        }
+        assertNull(map.get(null));
+        assertNull(map.remove("missing"));
+        assertFalse(map.containsKey("missing"));
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testArrayEntries() {
+        val map = new CompactAttributeMap();
+        map.put(KEY, VALUE);
+        map.put(NAME, ID);
+        map.put(PASSWORD, NAME);
+        assertEquals(3, map.size());
+        assertEquals(NAME, map.get(PASSWORD));
+
+        val iterator = map.entrySet().iterator();
+        assertEquals(KEY, iterator.next().getKey());
+        iterator.remove();
+        assertEquals(NAME, iterator.next().getKey());
+        assertEquals(PASSWORD, iterator.next().getKey());
+        assertFalse(iterator.hasNext());
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey(KEY));
+    }
+
+    @Test
+    public void testInternedKeys() {
+        val map = new CompactAttributeMap();
+        map.put(new String(KEY.toCharArray()), VALUE);
+        val otherMap = new CompactAttributeMap();
+        otherMap.put(new String(KEY.toCharArray()), VALUE);
+        assertSame(map.keySet().iterator().next(), otherMap.keySet().iterator().next());
+        assertTrue(map.containsKey(new String(KEY.toCharArray())));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullValue() {
+        new CompactAttributeMap().put(KEY, null);
+    }
+
+    @Test
+    public void testProfileViews() {
+        val profile = new CommonProfile();
+        profile.addAttribute(KEY, VALUE);
+        profile.addAuthenticationAttribute(NAME, ID);
+        val attributes = profile.getAttributes();
+        profile.addAttribute(PASSWORD, ID);
+        assertEquals(2, attributes.size());
+        assertEquals(ID, attributes.get(PASSWORD));
+        assertEquals(ID, profile.getAuthenticationAttributes().get(NAME));
+
+        val javaSerializer = new JavaSerializer();
+        val decoded = (CommonProfile) javaSerializer.deserializeFromBytes(javaSerializer.serializeToBytes(profile));
+        assertEquals(profile.getAttributes(), decoded.getAttributes());
+        assertEquals(profile.getAuthenticationAttributes(), decoded.getAuthenticationAttributes());
+    }
+}
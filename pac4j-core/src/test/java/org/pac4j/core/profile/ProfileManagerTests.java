@@ -7,14 +7,21 @@ import org.pac4j.core.client.BaseClient;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -115,6 +122,73 @@ public final class ProfileManagerTests {
         assertEquals(profile2, profiles.get(CLIENT1));
     }
 
+    @Test
+    public void testGetOneProfileRenewedAheadFromSession() {
+        profile1 = mock(CommonProfile.class);
+        when(profile1.getId()).thenReturn(ID1);
+        when(profile1.getClientName()).thenReturn(CLIENT1);
+        when(profile1.willExpireWithin(Duration.ofMinutes(1))).thenReturn(true);
+        profiles.put(CLIENT1, profile1);
+        val client1 = mock(BaseClient.class);
+        when(client1.getName()).thenReturn(CLIENT1);
+        val config = new Config(client1);
+        config.getProfileRenewalCoordinator().setRefreshAheadWindow(Duration.ofMinutes(1));
+        profileManager.setConfig(config);
+        when(client1.renewUserProfile(new CallContext(context, sessionStore), profile1)).thenReturn(Optional.of(profile2));
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile2, profileManager.getProfile().get());
+        Map<String, UserProfile> profiles =
+            (LinkedHashMap<String, UserProfile>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get();
+        assertEquals(profile2, profiles.get(CLIENT1));
+    }
+
+    @Test
+    public void testGetOneProfileRenewedAheadInBackgroundFromSession() {
+        profile1 = mock(CommonProfile.class);
+        when(profile1.getId()).thenReturn(ID1);
+        when(profile1.getClientName()).thenReturn(CLIENT1);
+        when(profile1.willExpireWithin(Duration.ofMinutes(1))).thenReturn(true);
+        when(profile1.getRoles()).thenReturn(Set.of(TestsConstants.ROLE));
+        profiles.put(CLIENT1, profile1);
+        val client1 = mock(BaseClient.class);
+        when(client1.getName()).thenReturn(CLIENT1);
+        val config = new Config(client1);
+        final List<Runnable> tasks = new ArrayList<>();
+        config.getProfileRenewalCoordinator().setRefreshAheadWindow(Duration.ofMinutes(1));
+        config.getProfileRenewalCoordinator().setExecutor(tasks::add);
+        profileManager.setConfig(config);
+        // the background renewal does not use the context of the request
+        when(client1.renewUserProfile(CallContext.detached(), profile1)).thenReturn(Optional.of(profile2));
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile1, profileManager.getProfile().get());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        // next request
+        val nextProfileManager = new ProfileManager(MockWebContext.create(), sessionStore);
+        nextProfileManager.setConfig(config);
+        assertEquals(profile2, nextProfileManager.getProfile().get());
+        Map<String, UserProfile> profiles =
+            (LinkedHashMap<String, UserProfile>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get();
+        assertEquals(profile2, profiles.get(CLIENT1));
+        // the roles are kept as the authorization generators are not run in the background
+        assertEquals(Set.of(TestsConstants.ROLE), profile2.getRoles());
+    }
+
+    @Test
+    public void testGetOneProfileNotRenewedAheadWithoutWindow() {
+        profile1 = mock(CommonProfile.class);
+        when(profile1.getId()).thenReturn(ID1);
+        when(profile1.getClientName()).thenReturn(CLIENT1);
+        when(profile1.willExpireWithin(Duration.ZERO)).thenReturn(true);
+        profiles.put(CLIENT1, profile1);
+        val client1 = mock(BaseClient.class);
+        when(client1.getName()).thenReturn(CLIENT1);
+        profileManager.setConfig(new Config(client1));
+        when(client1.renewUserProfile(new CallContext(context, sessionStore), profile1)).thenReturn(Optional.of(profile2));
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile1, profileManager.getProfile().get());
+    }
+
     @Test
     public void testGetOneRenewedProfileFromSessionButNoConfig() {
         profile1 = mock(CommonProfile.class);
@@ -276,4 +350,64 @@ public final class ProfileManagerTests {
         assertEquals(AnonymousProfile.INSTANCE, profileManager.getProfiles().get(0));
         assertFalse(profileManager.isAuthenticated());
     }
+
+    @Test
+    public void testProfilesReadOnceFromSessionPerRequest() {
+        profiles.put(CLIENT1, profile1);
+        val nbReads = new AtomicInteger();
+        val countingSessionStore = new MockSessionStore(Map.of(Pac4jConstants.USER_PROFILES, profiles)) {
+            @Override
+            public Optional get(final WebContext context, final String key) {
+                nbReads.incrementAndGet();
+                return super.get(context, key);
+            }
+        };
+        val manager1 = new ProfileManager(context, countingSessionStore);
+        assertEquals(profile1, manager1.getProfile().get());
+        assertEquals(profile1, manager1.getProfiles().get(0));
+        assertTrue(manager1.isAuthenticated());
+        val manager2 = new ProfileManager(context, countingSessionStore);
+        assertEquals(profile1, manager2.getProfile().get());
+        assertEquals(1, nbReads.get());
+    }
+
+    @Test
+    public void testProfilesSnapshotInvalidatedBySave() {
+        assertFalse(profileManager.getProfile().isPresent());
+        new ProfileManager(context, sessionStore).save(true, profile1, false);
+        assertEquals(profile1, profileManager.getProfile().get());
+        profileManager.save(true, profile2, true);
+        assertEquals(2, profileManager.getProfiles().size());
+    }
+
+    @Test
+    public void testProfilesSnapshotInvalidatedByRemove() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile1, profileManager.getProfile().get());
+        new ProfileManager(context, sessionStore).removeProfiles();
+        assertFalse(profileManager.getProfile().isPresent());
+    }
+
+    @Test
+    public void testProfilesSnapshotInvalidatedByExpiration() {
+        profile1 = mock(CommonProfile.class);
+        when(profile1.getId()).thenReturn(ID1);
+        when(profile1.getClientName()).thenReturn(CLIENT1);
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile1, profileManager.getProfile().get());
+        when(profile1.isExpired()).thenReturn(true);
+        assertFalse(profileManager.getProfile().isPresent());
+    }
+
+    @Test
+    public void testProfilesSnapshotDisabled() {
+        profileManager.setUseProfilesSnapshot(false);
+        assertFalse(profileManager.getProfile().isPresent());
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile1, profileManager.getProfile().get());
+        assertFalse(context.getRequestAttribute(Pac4jConstants.USER_PROFILES_SNAPSHOT).isPresent());
+    }
 }
@@ -0,0 +1,149 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests {@link ProfileRenewalCoordinator}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class ProfileRenewalCoordinatorTests implements TestsConstants {
+
+    private final ProfileRenewalCoordinator coordinator = new ProfileRenewalCoordinator();
+
+    private final AtomicInteger nbRenewals = new AtomicInteger();
+
+    private Optional<UserProfile> renewal() {
+        nbRenewals.incrementAndGet();
+        val profile = new CommonProfile();
+        profile.setId(ID + nbRenewals.get());
+        return Optional.of(profile);
+    }
+
+    @Test
+    public void testConcurrentRenewalsAreDeduplicated() throws Exception {
+        val started = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val executor = Executors.newFixedThreadPool(5);
+        try {
+            final List<Future<Optional<UserProfile>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> coordinator.renew(KEY, MY_CLIENT_NAME, () -> {
+                started.countDown();
+                try {
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return renewal();
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (var i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> coordinator.renew(KEY, MY_CLIENT_NAME, this::renewal)));
+            }
+            release.countDown();
+            for (val result : results) {
+                assertEquals(ID + 1, result.get(5, TimeUnit.SECONDS).get().getId());
+            }
+            assertEquals(1, nbRenewals.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRecentRenewalIsReused() {
+        assertEquals(ID + 1, coordinator.renew(KEY, MY_CLIENT_NAME, this::renewal).get().getId());
+        assertEquals(ID + 1, coordinator.renew(KEY, MY_CLIENT_NAME, this::renewal).get().getId());
+        assertEquals(ID + 2, coordinator.renew(VALUE, MY_CLIENT_NAME, this::renewal).get().getId());
+        coordinator.forget(KEY, MY_CLIENT_NAME);
+        assertEquals(ID + 3, coordinator.renew(KEY, MY_CLIENT_NAME, this::renewal).get().getId());
+    }
+
+    @Test
+    public void testExpiredRenewalIsNotReused() {
+        coordinator.setResultTimeToLive(Duration.ZERO);
+        coordinator.renew(KEY, MY_CLIENT_NAME, this::renewal);
+        coordinator.renew(KEY, MY_CLIENT_NAME, this::renewal);
+        assertEquals(2, nbRenewals.get());
+    }
+
+    @Test
+    public void testFailedRenewalIsNotReused() {
+        TestsHelper.expectException(() -> coordinator.renew(KEY, MY_CLIENT_NAME, () -> {
+            throw new IllegalStateException(VALUE);
+        }), IllegalStateException.class, VALUE);
+        assertEquals(ID + 1, coordinator.renew(KEY, MY_CLIENT_NAME, this::renewal).get().getId());
+    }
+
+    @Test
+    public void testRenewAheadInRequest() {
+        assertFalse(coordinator.isRefreshAheadEnabled());
+        coordinator.setRefreshAheadWindow(Duration.ofMinutes(1));
+        assertTrue(coordinator.isRefreshAheadEnabled());
+        assertEquals(ID + 1, coordinator.renewAhead(KEY, MY_CLIENT_NAME, this::renewal).get().getId());
+        assertEquals(ID + 1, coordinator.renewAhead(KEY, MY_CLIENT_NAME, this::renewal).get().getId());
+        assertEquals(1, nbRenewals.get());
+    }
+
+    @Test
+    public void testRenewAheadInBackground() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        coordinator.setRefreshAheadWindow(Duration.ofMinutes(1));
+        coordinator.setExecutor(tasks::add);
+        assertFalse(coordinator.renewAhead(KEY, MY_CLIENT_NAME, this::renewal).isPresent());
+        assertFalse(coordinator.renewAhead(KEY, MY_CLIENT_NAME, this::renewal).isPresent());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals(ID + 1, coordinator.renewAhead(KEY, MY_CLIENT_NAME, this::renewal).get().getId());
+        assertEquals(ID + 1, coordinator.renew(KEY, MY_CLIENT_NAME, this::renewal).get().getId());
+        assertEquals(1, nbRenewals.get());
+    }
+
+    @Test
+    public void testRenewedInBackgroundKeptUntilConsumed() {
+        final List<Runnable> tasks = new ArrayList<>();
+        coordinator.setRefreshAheadWindow(Duration.ofMinutes(1));
+        coordinator.setExecutor(tasks::add);
+        coordinator.setResultTimeToLive(Duration.ZERO);
+        assertFalse(coordinator.renewAhead(KEY, MY_CLIENT_NAME, this::renewal).isPresent());
+        tasks.get(0).run();
+        TestsHelper.wait(10);
+        // not consumed yet: kept beyond the time to live
+        assertEquals(ID + 1, coordinator.renewAhead(KEY, MY_CLIENT_NAME, this::renewal).get().getId());
+        TestsHelper.wait(10);
+        // consumed: a new renewal is started
+        assertFalse(coordinator.renewAhead(KEY, MY_CLIENT_NAME, this::renewal).isPresent());
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    public void testExpiredRenewedProfileIsNotKept() {
+        final List<Runnable> tasks = new ArrayList<>();
+        coordinator.setRefreshAheadWindow(Duration.ofMinutes(1));
+        coordinator.setExecutor(tasks::add);
+        final UserProfile expiredProfile = mock(CommonProfile.class);
+        when(expiredProfile.isExpired()).thenReturn(true);
+        assertFalse(coordinator.renewAhead(KEY, MY_CLIENT_NAME, () -> Optional.of(expiredProfile)).isPresent());
+        tasks.get(0).run();
+        assertFalse(coordinator.renewAhead(KEY, MY_CLIENT_NAME, this::renewal).isPresent());
+        assertEquals(2, tasks.size());
+    }
+}
@@ -6,8 +6,13 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test a store.
@@ -73,4 +78,38 @@ public abstract class AbstractStoreTests<S extends Store> implements TestsConsta
         val store = buildStore();
         TestsHelper.expectException(() -> store.remove(null), TechnicalException.class, "key cannot be null");
     }
+
+    @Test
+    public void testSetAllGetAllRemoveAll() {
+        val store = buildStore();
+        store.setAll(Map.of(KEY, VALUE, NAME, FIRSTNAME));
+        assertEquals(Map.of(KEY, VALUE, NAME, FIRSTNAME), store.getAll(List.of(KEY, NAME, ID)));
+        store.removeAll(List.of(KEY, ID));
+        assertEquals(Map.of(NAME, FIRSTNAME), store.getAll(List.of(KEY, NAME)));
+        final Map<Object, Object> values = new HashMap<>();
+        values.put(NAME, null);
+        store.setAll(values);
+        assertTrue(store.getAll(List.of(KEY, NAME)).isEmpty());
+    }
+
+    @Test
+    public void testSetIfAbsent() {
+        val store = buildStore();
+        assertTrue(store.setIfAbsent(KEY, VALUE));
+        assertFalse(store.setIfAbsent(KEY, NAME));
+        assertEquals(VALUE, store.get(KEY).get());
+        store.remove(KEY);
+        assertTrue(store.setIfAbsent(KEY, NAME));
+        assertEquals(NAME, store.get(KEY).get());
+    }
+
+    @Test
+    public void testNullKeysBulk() {
+        val store = buildStore();
+        TestsHelper.expectException(() -> store.getAll(null), TechnicalException.class, "keys cannot be null");
+        TestsHelper.expectException(() -> store.removeAll(null), TechnicalException.class, "keys cannot be null");
+        final Map<Object, Object> values = new HashMap<>();
+        values.put(null, VALUE);
+        TestsHelper.expectException(() -> store.setAll(values), TechnicalException.class, "key cannot be null");
+    }
 }
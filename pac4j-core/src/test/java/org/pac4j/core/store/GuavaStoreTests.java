@@ -1,11 +1,21 @@
 package org.pac4j.core.store;
 
+import com.google.common.base.Ticker;
 import lombok.val;
 import org.junit.Test;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsHelper;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
 
 /**
  * Test {@link GuavaStore}.
@@ -43,4 +53,179 @@ public final class GuavaStoreTests extends AbstractStoreTests<GuavaStore> {
         store.setTimeout(20);
         TestsHelper.expectException(store::init, TechnicalException.class, "timeUnit cannot be null");
     }
+
+    @Test
+    public void testExpireAfterAccess() {
+        val ticker = new FakeTicker();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setTicker(ticker);
+        store.setExpireAfterAccess(true);
+        store.set(KEY, VALUE);
+        for (var i = 0; i < 5; i++) {
+            ticker.advance(Duration.ofSeconds(6));
+            assertEquals(VALUE, store.get(KEY).get());
+        }
+        ticker.advance(Duration.ofSeconds(11));
+        assertFalse(store.get(KEY).isPresent());
+    }
+
+    @Test
+    public void testWeigher() {
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setWeigher((key, value) -> value.length());
+        store.set(KEY, "12345678");
+        store.set(NAME, "1234");
+        assertTrue(store.get(NAME).isPresent());
+        assertEquals(1, store.getCache().size());
+        store.set(VALUE, "12345678901");
+        assertFalse(store.get(VALUE).isPresent());
+    }
+
+    @Test
+    public void testVariableExpiry() {
+        val ticker = new FakeTicker();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setTicker(ticker);
+        store.setExpiry((key, value) -> KEY.equals(key) ? Duration.ofSeconds(2) : NAME.equals(key) ? Duration.ZERO : null);
+        store.set(KEY, VALUE);
+        store.set(NAME, VALUE);
+        store.set(ID, VALUE);
+        assertEquals(VALUE, store.get(KEY).get());
+        assertFalse(store.get(NAME).isPresent());
+        ticker.advance(Duration.ofSeconds(3));
+        assertFalse(store.get(KEY).isPresent());
+        assertEquals(VALUE, store.get(ID).get());
+        ticker.advance(Duration.ofSeconds(8));
+        assertFalse(store.get(ID).isPresent());
+    }
+
+    @Test
+    public void testRefreshAfterWrite() {
+        val ticker = new FakeTicker();
+        val nbRefreshes = new AtomicInteger();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setTicker(ticker);
+        store.setRefreshAfterWrite(Duration.ofSeconds(5));
+        store.setRefresher(key -> Optional.of(VALUE + nbRefreshes.incrementAndGet()));
+        store.setRecordStats(true);
+        store.set(KEY, VALUE);
+        ticker.advance(Duration.ofSeconds(4));
+        assertEquals(VALUE, store.get(KEY).get());
+        ticker.advance(Duration.ofSeconds(2));
+        assertEquals(VALUE + 1, store.get(KEY).get());
+        assertEquals(VALUE + 1, store.get(KEY).get());
+        ticker.advance(Duration.ofSeconds(6));
+        assertEquals(VALUE + 2, store.get(KEY).get());
+        assertFalse(store.get(NAME).isPresent());
+        assertEquals(2, store.getStats().loadSuccessCount());
+        assertEquals(1, store.getStats().missCount());
+    }
+
+    @Test
+    public void testRefreshedValueHasItsOwnDeadline() {
+        val ticker = new FakeTicker();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setTicker(ticker);
+        store.setRefreshAfterWrite(Duration.ofSeconds(1));
+        store.setRefresher(key -> Optional.of(NAME));
+        store.setExpiry((key, value) -> VALUE.equals(value) ? Duration.ofSeconds(2) : Duration.ofSeconds(6));
+        store.set(KEY, VALUE);
+        ticker.advance(Duration.ofMillis(1500));
+        assertEquals(NAME, store.get(KEY).get());
+        ticker.advance(Duration.ofSeconds(2));
+        // the deadline of the previous value does not apply to the refreshed one
+        assertEquals(NAME, store.get(KEY).get());
+    }
+
+    @Test
+    public void testRefreshWithoutNewValueKeepsDeadline() {
+        val ticker = new FakeTicker();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setTicker(ticker);
+        store.setRefreshAfterWrite(Duration.ofSeconds(1));
+        store.setRefresher(key -> Optional.empty());
+        store.set(KEY, VALUE, Duration.ofSeconds(2));
+        ticker.advance(Duration.ofMillis(1500));
+        assertEquals(VALUE, store.get(KEY).get());
+        ticker.advance(Duration.ofSeconds(1));
+        assertFalse(store.get(KEY).isPresent());
+    }
+
+    @Test
+    public void testStats() {
+        final GuavaStore<String, String> store = new GuavaStore<>(1, 10, TimeUnit.SECONDS);
+        store.setRecordStats(true);
+        store.set(KEY, VALUE);
+        store.get(KEY);
+        store.get(NAME);
+        store.set(NAME, VALUE);
+        val stats = store.getStats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.evictionCount());
+    }
+
+    @Test
+    public void testSetWithTimeToLive() {
+        val ticker = new FakeTicker();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setTicker(ticker);
+        store.set(KEY, VALUE, Duration.ofSeconds(2));
+        store.set(NAME, VALUE, Duration.ofSeconds(-1));
+        store.set(ID, VALUE);
+        assertEquals(Map.of(KEY, VALUE, ID, VALUE), store.getAll(List.of(KEY, NAME, ID)));
+        ticker.advance(Duration.ofSeconds(3));
+        assertEquals(Map.of(ID, VALUE), store.getAll(List.of(KEY, NAME, ID)));
+        store.set(KEY, VALUE);
+        ticker.advance(Duration.ofSeconds(3));
+        assertEquals(VALUE, store.get(KEY).get());
+    }
+
+    @Test
+    public void testSetIfAbsentWithTimeToLive() {
+        val ticker = new FakeTicker();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setTicker(ticker);
+        assertTrue(store.setIfAbsent(KEY, VALUE, Duration.ofSeconds(2)));
+        assertFalse(store.setIfAbsent(KEY, NAME, Duration.ofSeconds(2)));
+        ticker.advance(Duration.ofSeconds(3));
+        // the expired value is replaced even if it has not been evicted yet
+        assertTrue(store.setIfAbsent(KEY, NAME, Duration.ofSeconds(5)));
+        ticker.advance(Duration.ofSeconds(3));
+        assertEquals(NAME, store.get(KEY).get());
+        assertFalse(store.setIfAbsent(ID, VALUE, Duration.ZERO));
+        assertFalse(store.get(ID).isPresent());
+    }
+
+    @Test
+    public void testConcurrentSetIfAbsent() throws InterruptedException {
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        val nbSet = new AtomicInteger();
+        val executor = Executors.newFixedThreadPool(8);
+        for (var i = 0; i < 100; i++) {
+            val value = VALUE + i;
+            executor.execute(() -> {
+                if (store.setIfAbsent(KEY, value)) {
+                    nbSet.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, nbSet.get());
+    }
+
+    private static final class FakeTicker extends Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        private void advance(final Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
 }
@@ -0,0 +1,163 @@
+package org.pac4j.core.util;
+
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.CallContext;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.credentials.authenticator.BlockingOffloadAuthenticator;
+import org.pac4j.core.credentials.authenticator.LocalCachingAuthenticator;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.creator.BlockingOffloadProfileCreator;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link BlockingOffloader}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class BlockingOffloaderTests implements TestsConstants {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCall() {
+        val offloader = new BlockingOffloader(NAME, executor, 2, 1000);
+        val caller = Thread.currentThread();
+        assertNotSame(caller, offloader.call(Thread::currentThread));
+        TestsHelper.expectException(() -> offloader.call(() -> {
+            throw new CredentialsException(VALUE);
+        }), CredentialsException.class, VALUE);
+        assertEquals(2, offloader.getAvailableCalls());
+    }
+
+    @Test
+    public void testBulkhead() throws Exception {
+        val offloader = new BlockingOffloader(NAME, executor, 1, 5000);
+        val release = new CountDownLatch(1);
+        val first = offloader.submit(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return VALUE;
+        });
+        TestsHelper.expectException(() -> offloader.call(() -> VALUE), TechnicalException.class,
+            "Too many concurrent blocking calls for: " + NAME);
+        release.countDown();
+        assertEquals(VALUE, first.get(5, TimeUnit.SECONDS));
+        assertEquals(VALUE, offloader.call(() -> VALUE));
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        val offloader = new BlockingOffloader(NAME, executor, 1, 100);
+        val interrupted = new CountDownLatch(1);
+        val e = TestsHelper.expectException(() -> offloader.call(() -> {
+            try {
+                Thread.sleep(5000);
+            } catch (final InterruptedException ie) {
+                interrupted.countDown();
+            }
+            return VALUE;
+        }));
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        // the permit is released by the interrupted call
+        for (var i = 0; i < 50 && offloader.getAvailableCalls() == 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, offloader.getAvailableCalls());
+    }
+
+    @Test
+    public void testDefaultExecutor() {
+        assertSame(BlockingOffloader.defaultExecutor(), BlockingOffloader.defaultExecutor());
+        val offloader = new BlockingOffloader(NAME, BlockingOffloader.defaultExecutor(), 1, 1000);
+        assertEquals(VALUE, offloader.call(() -> VALUE));
+    }
+
+    @Test
+    public void testConfigWiring() {
+        final Authenticator authenticator = (ctx, credentials) -> {
+            credentials.setUserProfile(new CommonProfile());
+            return Optional.of(credentials);
+        };
+        val client = new MockIndirectClient(NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        client.setAuthenticator(authenticator);
+        client.setProfileCreator((ctx, credentials) -> Optional.of(new CommonProfile()));
+        val cachingClient = new MockIndirectClient(KEY, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        val cachingAuthenticator = new LocalCachingAuthenticator(authenticator, 10, 1, TimeUnit.MINUTES);
+        cachingClient.setAuthenticator(cachingAuthenticator);
+        val config = new Config(CALLBACK_URL, client, cachingClient);
+
+        config.offloadBlockingCalls(10, 1000);
+        config.offloadBlockingCalls(10, 1000);
+
+        val offloadAuthenticator = (BlockingOffloadAuthenticator) client.getAuthenticator();
+        assertSame(authenticator, offloadAuthenticator.getDelegate());
+        assertEquals(NAME, offloadAuthenticator.getOffloader().getName());
+        val offloadProfileCreator = (BlockingOffloadProfileCreator) client.getProfileCreator();
+        assertSame(offloadAuthenticator.getOffloader(), offloadProfileCreator.getOffloader());
+        assertSame(cachingAuthenticator, cachingClient.getAuthenticator());
+        assertTrue(cachingAuthenticator.getDelegate() instanceof BlockingOffloadAuthenticator);
+
+        val ctx = new CallContext(MockWebContext.create(), new MockSessionStore());
+        val credentials = new TokenCredentials(VALUE);
+        assertTrue(client.validateCredentials(ctx, credentials).isPresent());
+        assertTrue(client.getUserProfile(ctx, credentials).isPresent());
+    }
+
+    @Test
+    public void testLaterAndLazyClients() {
+        val builtLazyClient = newClient(ID);
+        val config = new Config(CALLBACK_URL, newClient(NAME));
+        config.getClients().addLazyClient(ID, name -> builtLazyClient);
+        config.getClients().findClient(ID);
+        config.getClients().addLazyClient(KEY, MockIndirectClient::new);
+
+        config.offloadBlockingCalls(10, 1000);
+
+        assertTrue(builtLazyClient.getAuthenticator() instanceof BlockingOffloadAuthenticator);
+        val addedClient = newClient(VALUE);
+        config.addClient(addedClient);
+        assertTrue(addedClient.getAuthenticator() instanceof BlockingOffloadAuthenticator);
+        val lazyClient = (MockIndirectClient) config.getClients().findClient(KEY).get();
+        assertTrue(lazyClient.getAuthenticator() instanceof BlockingOffloadAuthenticator);
+    }
+
+    private static MockIndirectClient newClient(final String name) {
+        val client = new MockIndirectClient(name, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        client.setAuthenticator((ctx, credentials) -> Optional.of(credentials));
+        return client;
+    }
+}
@@ -0,0 +1,71 @@
+package org.pac4j.core.util;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class tests the {@link NamedRegistry} class.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class NamedRegistryTests implements TestsConstants {
+
+    @Test
+    public void testLookupIsTrimmedAndCaseInsensitive() {
+        val registry = NamedRegistry.of(Map.of("myAuthorizer", VALUE), Map.of());
+        assertEquals(VALUE, registry.lookup("myAuthorizer"));
+        assertEquals(VALUE, registry.lookup("MYAUTHORIZER"));
+        assertEquals(VALUE, registry.lookup("  myauthorizer "));
+        assertNull(registry.lookup("myAuthorizer2"));
+        assertNull(registry.lookup(null));
+    }
+
+    @Test
+    public void testRegisteredEntriesOverrideBuiltIns() {
+        val registry = NamedRegistry.of(Map.of(" Key ", VALUE), Map.of(KEY, NAME, ID, NAME));
+        assertEquals(VALUE, registry.lookup(KEY));
+        assertEquals(NAME, registry.lookup(ID));
+        assertEquals(VALUE, registry.get("KEY"));
+        assertNull(registry.get(ID));
+        assertEquals(1, registry.size());
+        assertEquals(Map.of(" Key ", VALUE), registry);
+    }
+
+    @Test
+    public void testFirstRegisteredEntryWins() {
+        final Map<String, String> source = new LinkedHashMap<>();
+        source.put(KEY, VALUE);
+        source.put("KEY", NAME);
+        assertEquals(VALUE, NamedRegistry.of(source, Map.of()).lookup("kEy"));
+    }
+
+    @Test
+    public void testManyEntries() {
+        final Map<String, String> source = new HashMap<>();
+        for (var i = 0; i < 100; i++) {
+            source.put(NAME + i, VALUE + i);
+        }
+        val registry = NamedRegistry.of(source, Map.of());
+        for (var i = 0; i < 100; i++) {
+            assertEquals(VALUE + i, registry.lookup(NAME.toUpperCase() + i));
+        }
+    }
+
+    @Test
+    public void testIsBuiltFrom() {
+        final Map<String, String> source = new HashMap<>();
+        val registry = NamedRegistry.of(source, Map.of());
+        assertTrue(registry.isBuiltFrom(source));
+        assertFalse(registry.isBuiltFrom(new HashMap<>()));
+        source.put(KEY, VALUE);
+        assertFalse(registry.isBuiltFrom(source));
+        assertNull(registry.lookup(KEY));
+    }
+}
@@ -0,0 +1,58 @@
+package org.pac4j.core.util;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.ProfileSerializer;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link StringInterner}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class StringInternerTests implements TestsConstants {
+
+    private static String copy(final String s) {
+        return new String(s.toCharArray());
+    }
+
+    @Test
+    public void testIntern() {
+        val first = copy(VALUE);
+        assertSame(first, StringInterner.intern(first));
+        assertSame(first, StringInterner.intern(copy(VALUE)));
+        assertNull(StringInterner.intern(null));
+    }
+
+    @Test
+    public void testTooLong() {
+        val s = "x".repeat(StringInterner.MAX_LENGTH + 1);
+        StringInterner.intern(s);
+        val other = copy(s);
+        assertSame(other, StringInterner.intern(other));
+    }
+
+    @Test
+    public void testDeserializedProfiles() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(copy(MY_CLIENT_NAME));
+        profile.addRoles(List.of(copy("admin")));
+        profile.addAttribute(copy("department"), VALUE);
+
+        for (val serializer : List.of(new JavaSerializer(), new ProfileSerializer())) {
+            val profile1 = (CommonProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(profile));
+            val profile2 = (CommonProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(profile));
+            assertNotSame(profile1, profile2);
+            assertSame(profile1.getClientName(), profile2.getClientName());
+            assertSame(profile1.getRoles().iterator().next(), profile2.getRoles().iterator().next());
+            assertSame(profile1.getAttributes().keySet().iterator().next(), profile2.getAttributes().keySet().iterator().next());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.pac4j.core.util.generator;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SecureRandomValueGenerator}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class SecureRandomValueGeneratorTests implements TestsConstants {
+
+    @Test
+    public void testDefaultSize() {
+        val value = new SecureRandomValueGenerator().generateValue(null);
+        assertEquals(32, value.length());
+        assertTrue(value.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    public void testSizes() {
+        for (var size = 1; size < 1200; size += 37) {
+            val value = new SecureRandomValueGenerator(size).generateValue(null);
+            assertEquals(size, value.length());
+            assertTrue(value.matches("[A-Za-z0-9_-]+"));
+        }
+    }
+
+    @Test
+    public void testAllCharactersAreUsed() {
+        final Set<Character> chars = new HashSet<>();
+        val value = SecureRandomValueGenerator.randomString(10000);
+        for (var i = 0; i < value.length(); i++) {
+            chars.add(value.charAt(i));
+        }
+        assertEquals(64, chars.size());
+    }
+
+    @Test
+    public void testConcurrentValuesAreUnique() throws InterruptedException {
+        final Set<String> values = ConcurrentHashMap.newKeySet();
+        val executor = Executors.newFixedThreadPool(8);
+        for (var i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (var j = 0; j < 1000; j++) {
+                    values.add(SecureRandomValueGenerator.randomString(16));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(8000, values.size());
+    }
+
+    @Test
+    public void testBadSize() {
+        TestsHelper.expectException(() -> new SecureRandomValueGenerator(0), TechnicalException.class,
+            "size must be greater than 0");
+        TestsHelper.expectException(() -> SecureRandomValueGenerator.randomString(-1), TechnicalException.class,
+            "size must be greater than 0");
+    }
+}
@@ -0,0 +1,92 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CompressingSerializer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class CompressingSerializerTests implements TestsConstants {
+
+    private static CommonProfile getUserProfile(final int nbGroups) {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        val groups = new ArrayList<String>();
+        for (var i = 0; i < nbGroups; i++) {
+            groups.add("cn=group" + i + ",ou=groups,dc=example,dc=org");
+        }
+        profile.addAttribute("memberOf", groups);
+        return profile;
+    }
+
+    @Test
+    public void testCompressLargeData() {
+        val profileSerializer = new ProfileSerializer();
+        val serializer = new CompressingSerializer(profileSerializer);
+        val profile = getUserProfile(200);
+
+        val uncompressed = profileSerializer.serializeToBytes(profile);
+        val compressed = serializer.serializeToBytes(profile);
+        assertTrue(compressed.length * 4 < uncompressed.length);
+
+        val decoded = (CommonProfile) serializer.deserializeFromBytes(compressed);
+        assertEquals(profile.getAttribute("memberOf"), decoded.getAttribute("memberOf"));
+        assertEquals(ID, ((CommonProfile) serializer.deserializeFromString(serializer.serializeToString(profile))).getId());
+    }
+
+    @Test
+    public void testStoreSmallData() {
+        val profileSerializer = new ProfileSerializer();
+        val serializer = new CompressingSerializer(profileSerializer);
+        val profile = getUserProfile(1);
+
+        val uncompressed = profileSerializer.serializeToBytes(profile);
+        val stored = serializer.serializeToBytes(profile);
+        assertEquals(uncompressed.length + 2, stored.length);
+        assertArrayEquals(uncompressed, Arrays.copyOfRange(stored, 2, stored.length));
+        assertEquals(ID, ((CommonProfile) serializer.deserializeFromBytes(stored)).getId());
+    }
+
+    @Test
+    public void testReadUncompressedData() {
+        val javaSerializer = new JavaSerializer();
+        val serializer = new CompressingSerializer(javaSerializer);
+        val profile = getUserProfile(10);
+
+        val legacy = javaSerializer.serializeToBytes(profile);
+        assertEquals(ID, ((CommonProfile) serializer.deserializeFromBytes(legacy)).getId());
+    }
+
+    @Test
+    public void testDecompressionBomb() {
+        val serializer = new CompressingSerializer(new JsonSerializer(String.class));
+        serializer.setLevel(Deflater.BEST_COMPRESSION);
+        val compressed = serializer.serializeToBytes("a".repeat(100_000));
+        assertEquals(100_000, ((String) serializer.deserializeFromBytes(compressed)).length());
+
+        serializer.setMaxDecompressedSize(10_000);
+        assertNull(serializer.deserializeFromBytes(compressed));
+    }
+
+    @Test
+    public void testCorruptedData() {
+        val serializer = new CompressingSerializer(new ProfileSerializer());
+        val compressed = serializer.serializeToBytes(getUserProfile(100));
+
+        assertNull(serializer.deserializeFromBytes(Arrays.copyOf(compressed, compressed.length / 2)));
+        compressed[1] = 9;
+        assertNull(serializer.deserializeFromBytes(compressed));
+        assertNull(serializer.serializeToBytes(null));
+    }
+}
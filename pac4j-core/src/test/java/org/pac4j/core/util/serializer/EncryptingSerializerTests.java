@@ -0,0 +1,103 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link EncryptingSerializer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class EncryptingSerializerTests implements TestsConstants {
+
+    private static final byte[] KEY1 = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] KEY2 = "fedcba9876543210".getBytes(StandardCharsets.UTF_8);
+
+    private static CommonProfile getUserProfile() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute(KEY, VALUE);
+        return profile;
+    }
+
+    @Test
+    public void testEncryptDecrypt() {
+        val serializer = new EncryptingSerializer(new ProfileSerializer(), "k1", KEY1);
+        val profile = getUserProfile();
+
+        val encrypted = serializer.serializeToBytes(profile);
+        assertFalse(new String(encrypted, StandardCharsets.ISO_8859_1).contains(VALUE));
+        assertNotEquals(new String(encrypted, StandardCharsets.ISO_8859_1),
+            new String(serializer.serializeToBytes(profile), StandardCharsets.ISO_8859_1));
+
+        val decoded = (CommonProfile) serializer.deserializeFromBytes(encrypted);
+        assertEquals(ID, decoded.getId());
+        assertEquals(VALUE, decoded.getAttribute(KEY));
+        assertEquals(ID, ((CommonProfile) serializer.deserializeFromString(serializer.serializeToString(profile))).getId());
+    }
+
+    @Test
+    public void testKeyRotation() {
+        val serializer = new EncryptingSerializer(new ProfileSerializer(), "k1", KEY1);
+        val profile = getUserProfile();
+        val encryptedWithKey1 = serializer.serializeToBytes(profile);
+
+        serializer.rotateKey("k2", KEY2);
+        assertEquals("k2", serializer.getCurrentKeyId());
+        val encryptedWithKey2 = serializer.serializeToBytes(profile);
+        assertEquals(ID, ((CommonProfile) serializer.deserializeFromBytes(encryptedWithKey1)).getId());
+        assertEquals(ID, ((CommonProfile) serializer.deserializeFromBytes(encryptedWithKey2)).getId());
+
+        serializer.removeKey("k1");
+        assertNull(serializer.deserializeFromBytes(encryptedWithKey1));
+        assertEquals(ID, ((CommonProfile) serializer.deserializeFromBytes(encryptedWithKey2)).getId());
+        TestsHelper.expectException(() -> serializer.removeKey("k2"), TechnicalException.class, "the current key cannot be removed");
+    }
+
+    @Test
+    public void testTamperedData() {
+        val serializer = new EncryptingSerializer(new ProfileSerializer(), "k1", KEY1);
+        val encrypted = serializer.serializeToBytes(getUserProfile());
+
+        encrypted[encrypted.length - 20] ^= 1;
+        assertNull(serializer.deserializeFromBytes(encrypted));
+        assertNull(serializer.deserializeFromBytes(new byte[] {1, 2, 'k', '1', 0}));
+        assertNull(serializer.deserializeFromBytes(new byte[] {7}));
+        assertNull(new EncryptingSerializer(new ProfileSerializer(), "k1", KEY2)
+            .deserializeFromBytes(serializer.serializeToBytes(getUserProfile())));
+    }
+
+    @Test
+    public void testCompressThenEncrypt() {
+        val serializer = new EncryptingSerializer(new CompressingSerializer(new ProfileSerializer()), "k1", KEY1);
+        val profile = getUserProfile();
+        val groups = new ArrayList<String>();
+        for (var i = 0; i < 100; i++) {
+            groups.add("cn=group" + i + ",ou=groups,dc=example,dc=org");
+        }
+        profile.addAttribute("memberOf", groups);
+
+        val encrypted = serializer.serializeToBytes(profile);
+        assertTrue(encrypted.length < new ProfileSerializer().serializeToBytes(profile).length / 2);
+        assertEquals(groups, ((CommonProfile) serializer.deserializeFromBytes(encrypted)).getAttribute("memberOf"));
+    }
+
+    @Test
+    public void testInvalidKey() {
+        TestsHelper.expectException(() -> new EncryptingSerializer(new ProfileSerializer(), "k1", new byte[10]),
+            TechnicalException.class, "key must be 16, 24 or 32 bytes long");
+        TestsHelper.expectException(() -> new EncryptingSerializer(new ProfileSerializer(), "", KEY1),
+            TechnicalException.class, "keyId cannot be blank");
+    }
+}
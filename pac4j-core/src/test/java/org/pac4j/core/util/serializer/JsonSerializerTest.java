@@ -1,12 +1,13 @@
 package org.pac4j.core.util.serializer;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.val;
 import org.junit.Test;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.TestsConstants;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  * Tests {@link Serializer}.
@@ -45,4 +46,38 @@ public class JsonSerializerTest implements TestsConstants {
         assertEquals(1, profile.getAttributes().size());
         assertEquals(VALUE, profile.getAttribute(KEY));
     }
+
+    @Test
+    public void testOptimizedObjectMapper() {
+        UserProfile profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute(KEY, VALUE);
+
+        val serializer = new JsonSerializer(CommonProfile.class, JsonSerializer.buildOptimizedObjectMapper());
+        assertNotSame(serializer.getObjectMapper(), JsonSerializer.buildOptimizedObjectMapper());
+        val encoded = serializer.serializeToBytes(profile);
+        assertArrayEquals(encoded, new JsonSerializer(CommonProfile.class).serializeToBytes(profile));
+        UserProfile decoded = (CommonProfile) serializer.deserializeFromBytes(encoded);
+
+        assertEquals(profile.getId(), decoded.getId());
+        assertEquals(VALUE, decoded.getAttribute(KEY));
+        assertNull(serializer.deserializeFromBytes(new byte[] {'{', 'x'}));
+    }
+
+    @Test
+    public void testReconfiguredObjectMapper() {
+        UserProfile profile = new CommonProfile();
+        profile.setId(ID);
+
+        val serializer = new JsonSerializer(CommonProfile.class);
+        assertSame(serializer.getObjectMapper(), serializer.getObjectMapper());
+        val compact = serializer.serializeToString(profile);
+        serializer.setObjectMapper(JsonSerializer.buildObjectMapper().enable(SerializationFeature.INDENT_OUTPUT));
+        val indented = serializer.serializeToString(profile);
+        assertNotEquals(compact, indented);
+        assertEquals(ID, ((UserProfile) serializer.deserializeFromString(indented)).getId());
+
+        serializer.setObjectMapper(JsonSerializer.buildObjectMapper());
+        assertEquals(compact, serializer.serializeToString(profile));
+    }
 }
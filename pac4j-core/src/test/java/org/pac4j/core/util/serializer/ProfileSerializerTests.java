@@ -0,0 +1,185 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.AnonymousProfile;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.Gender;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.profile.definition.CommonProfileDefinition;
+import org.pac4j.core.util.TestsConstants;
+
+import java.awt.Color;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ProfileSerializer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class ProfileSerializerTests implements TestsConstants {
+
+    private final ProfileSerializer serializer = new ProfileSerializer();
+
+    private static CommonProfile getUserProfile() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(MY_CLIENT_NAME);
+        profile.setLinkedId(VALUE);
+        profile.setRemembered(true);
+        profile.addRoles(List.of("admin", "user"));
+        profile.addAttribute(CommonProfileDefinition.EMAIL, "jle@pac4j.org");
+        profile.addAttribute(CommonProfileDefinition.GENDER, Gender.MALE);
+        profile.addAttribute(CommonProfileDefinition.LOCALE, Locale.FRANCE);
+        profile.addAttribute(CommonProfileDefinition.PICTURE_URL, java.net.URI.create("https://pac4j.org/logo.png"));
+        profile.addAttribute("age", 42);
+        profile.addAttribute("counter", -3_000_000_000L);
+        profile.addAttribute("ratio", 0.25d);
+        profile.addAttribute("admin", false);
+        profile.addAttribute("birthday", new Date(1_000_000_000L));
+        profile.addAttribute("groups", List.of("g1", "g2"));
+        profile.addAttribute("scopes", new LinkedHashSet<>(List.of("openid", "profile")));
+        profile.addAttribute("address", Map.of("city", "Paris", "zip", 75001));
+        profile.addAttribute("raw", new byte[] {1, 2, 3});
+        profile.addAttribute("color", Color.RED);
+        profile.addAuthenticationAttribute("auth_time", 123L);
+        return profile;
+    }
+
+    private static void assertSameProfile(final CommonProfile expected, final UserProfile userProfile) {
+        val actual = (CommonProfile) userProfile;
+        assertEquals(CommonProfile.class, actual.getClass());
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getClientName(), actual.getClientName());
+        assertEquals(expected.getLinkedId(), actual.getLinkedId());
+        assertEquals(expected.isRemembered(), actual.isRemembered());
+        assertEquals(expected.getRoles(), actual.getRoles());
+        assertEquals(expected.getAuthenticationAttributes(), actual.getAuthenticationAttributes());
+        val attributes = new HashMap<>(actual.getAttributes());
+        assertArrayEquals((byte[]) expected.getAttribute("raw"), (byte[]) attributes.remove("raw"));
+        val expectedAttributes = new HashMap<>(expected.getAttributes());
+        expectedAttributes.remove("raw");
+        assertEquals(expectedAttributes, attributes);
+    }
+
+    @Test
+    public void testBytesSerialization() {
+        val profile = getUserProfile();
+        val profile2 = (UserProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(profile));
+        assertSameProfile(profile, profile2);
+    }
+
+    @Test
+    public void testStringSerialization() {
+        val profile = getUserProfile();
+        val profile2 = (UserProfile) serializer.deserializeFromString(serializer.serializeToString(profile));
+        assertSameProfile(profile, profile2);
+    }
+
+    @Test
+    public void testProfilesSerialization() {
+        final Map<String, UserProfile> profiles = new LinkedHashMap<>();
+        val profile = getUserProfile();
+        profiles.put(MY_CLIENT_NAME, profile);
+        val anonymous = new AnonymousProfile();
+        anonymous.setId("anonymous");
+        profiles.put("AnonymousClient", anonymous);
+        val profiles2 = (Map<String, UserProfile>) serializer.deserializeFromBytes(serializer.serializeToBytes(profiles));
+        assertEquals(List.of(MY_CLIENT_NAME, "AnonymousClient"), new ArrayList<>(profiles2.keySet()));
+        assertSameProfile(profile, profiles2.get(MY_CLIENT_NAME));
+        assertEquals(AnonymousProfile.class, profiles2.get("AnonymousClient").getClass());
+    }
+
+    @Test
+    public void testOtherObject() {
+        val action = new FoundAction(PAC4J_URL);
+        val action2 = (FoundAction) serializer.deserializeFromBytes(serializer.serializeToBytes(action));
+        assertEquals(PAC4J_URL, action2.getLocation());
+    }
+
+    @Test
+    public void testAttributesSerialization() {
+        final Map<String, UserProfile> profiles = new LinkedHashMap<>();
+        profiles.put(MY_CLIENT_NAME, getUserProfile());
+        final Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("pac4jUserProfiles", profiles);
+        attributes.put("pac4jRequestedUrl", new FoundAction(PAC4J_URL));
+        attributes.put("pac4jCsrfToken", VALUE);
+
+        val decoded = (Map<String, Object>) serializer.deserializeFromBytes(serializer.serializeToBytes(attributes));
+        assertTrue(decoded instanceof LinkedHashMap);
+        assertEquals(VALUE, decoded.get("pac4jCsrfToken"));
+        assertEquals(PAC4J_URL, ((FoundAction) decoded.get("pac4jRequestedUrl")).getLocation());
+        val decodedProfile = (CommonProfile) ((Map<String, Object>) decoded.get("pac4jUserProfiles")).get(MY_CLIENT_NAME);
+        assertEquals(ID, decodedProfile.getId());
+        assertEquals(Gender.MALE, decodedProfile.getGender());
+    }
+
+    @Test
+    public void testCollectionTypesPreserved() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute("list", new ArrayList<>(List.of("a", "b")));
+        profile.addAttribute("linkedList", new LinkedList<>(List.of("a", "b")));
+        profile.addAttribute("unmodifiableList", Collections.unmodifiableList(new ArrayList<>(List.of("a"))));
+        profile.addAttribute("hashSet", new HashSet<>(List.of("a", "b")));
+        profile.addAttribute("treeSet", new TreeSet<>(List.of("b", "a")));
+        profile.addAttribute("hashMap", new HashMap<>(Map.of(KEY, VALUE)));
+        profile.addAttribute("treeMap", new TreeMap<>(Map.of(KEY, VALUE)));
+        profile.addAttribute("customMap", new CustomMap());
+        val profile2 = (UserProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(profile));
+        for (val entry : profile.getAttributes().entrySet()) {
+            val value = profile2.getAttribute(entry.getKey());
+            assertEquals(entry.getKey(), entry.getValue().getClass(), value.getClass());
+            assertEquals(entry.getKey(), entry.getValue(), value);
+        }
+    }
+
+    private static final class CustomMap extends LinkedHashMap<String, Object> {
+
+        private static final long serialVersionUID = 3029472936262883014L;
+
+        private CustomMap() {
+            put(KEY, VALUE);
+        }
+    }
+
+    @Test
+    public void testJavaSerializedProfile() {
+        val profile = getUserProfile();
+        val profile2 = (UserProfile) serializer.deserializeFromBytes(new JavaSerializer().serializeToBytes(profile));
+        assertSameProfile(profile, profile2);
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute(CommonProfileDefinition.EMAIL, "jle@pac4j.org");
+        profile.addAttribute(CommonProfileDefinition.FIRST_NAME, FIRSTNAME_VALUE);
+        val binarySize = serializer.serializeToBytes(profile).length;
+        val javaSize = new JavaSerializer().serializeToBytes(profile).length;
+        assertTrue(binarySize + " vs " + javaSize, binarySize * 5 < javaSize);
+    }
+
+    @Test
+    public void testUntrustedProfileClass() {
+        val untrustingSerializer = new ProfileSerializer();
+        val javaSerializer = new JavaSerializer();
+        javaSerializer.clearTrustedPackages();
+        untrustingSerializer.setJavaSerializer(javaSerializer);
+        assertNull(untrustingSerializer.deserializeFromBytes(serializer.serializeToBytes(getUserProfile())));
+    }
+
+    @Test
+    public void testCorruptedData() {
+        val bytes = serializer.serializeToBytes(getUserProfile());
+        assertNull(serializer.deserializeFromBytes(Arrays.copyOf(bytes, bytes.length / 2)));
+        bytes[1] = 9;
+        assertNull(serializer.deserializeFromBytes(bytes));
+    }
+}
@@ -101,7 +101,7 @@ public class CouchProfileService extends AbstractProfileService<CouchProfile> {
         assertNotNull("couchDbConnector", this.couchDbConnector);
 
         setProfileDefinitionIfUndefined(new CommonProfileDefinition(x -> new CouchProfile()));
-        setSerializer(new JsonSerializer(CouchProfile.class));
+        setSerializer(new JsonSerializer(CouchProfile.class, JsonSerializer.buildOptimizedObjectMapper()));
 
         super.internalInit(forceReinit);
     }
@@ -2,6 +2,7 @@ package org.pac4j.jwt.credentials.authenticator;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jwt.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -27,8 +28,12 @@ import org.pac4j.jwt.profile.JwtProfileDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.pac4j.core.util.CommonHelper.assertNotBlank;
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
@@ -37,6 +42,12 @@ import static org.pac4j.core.util.CommonHelper.assertNotNull;
  * Authenticator for JWT. It creates the user profile and stores it in the credentials
  * for the {@link org.pac4j.core.profile.creator.AuthenticatorProfileCreator}.
  *
+ * <p>When the {@link #verifiedTokensCacheSize} is positive, the successfully verified JWT are cached by the
+ * SHA-256 digest of the token until they expire (or the {@link #verifiedTokensCacheTimeToLiveInSeconds} elapses), so that
+ * the same token is not parsed, decrypted and verified again: only the profile is built from the cached JWT (the one
+ * verified, so decrypted if it was encrypted). The cache is cleared when the signature or encryption configurations are set or added;
+ * call {@link #clearVerifiedTokens()} after changing them otherwise.</p>
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -57,6 +68,14 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
     private ValueGenerator identifierGenerator;
 
+    private int verifiedTokensCacheSize;
+
+    private long verifiedTokensCacheTimeToLiveInSeconds = 300;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
     /**
      * <p>Constructor for JwtAuthenticator.</p>
      */
@@ -166,6 +185,20 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
         }
 
         try {
+            String cacheKey = null;
+            if (verifiedTokensCacheSize > 0) {
+                cacheKey = computeCacheKey(token);
+                val verifiedToken = verifiedTokens.get(cacheKey);
+                if (verifiedToken != null) {
+                    if (verifiedToken.expiresAt() > System.currentTimeMillis()) {
+                        logger.debug("JWT found in the verified tokens cache");
+                        createJwtProfile(ctx, credentials, verifiedToken.jwt());
+                        return Optional.of(credentials);
+                    }
+                    verifiedTokens.remove(cacheKey, verifiedToken);
+                }
+            }
+
             // Parse the token
             var jwt = JWTParser.parse(token);
 
@@ -243,6 +276,10 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
             createJwtProfile(ctx, credentials, jwt);
 
+            if (cacheKey != null && credentials.getUserProfile() != null) {
+                cacheVerifiedToken(cacheKey, jwt);
+            }
+
         } catch (final ParseException e) {
             throw new CredentialsException("Cannot decrypt / verify JWT", e);
         }
@@ -250,6 +287,52 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
         return Optional.of(credentials);
     }
 
+    /**
+     * Compute the key of the verified tokens cache: the Base64 SHA-256 digest of the token.
+     *
+     * @param token the JWT
+     * @return the cache key
+     */
+    protected String computeCacheKey(final String token) {
+        try {
+            val digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private void cacheVerifiedToken(final String cacheKey, final JWT jwt) throws ParseException {
+        val claimSet = jwt.getJWTClaimsSet();
+        val now = System.currentTimeMillis();
+        var expiresAt = now + verifiedTokensCacheTimeToLiveInSeconds * 1000;
+        val expTime = claimSet.getExpirationTime();
+        if (expTime != null) {
+            expiresAt = Math.min(expiresAt, expTime.getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedTokensCacheSize) {
+            verifiedTokens.values().removeIf(verifiedToken -> verifiedToken.expiresAt() <= now);
+            // still full: evict a quarter of the tokens so that the next insertions do not scan the cache again
+            val target = verifiedTokensCacheSize - Math.max(1, verifiedTokensCacheSize / 4);
+            val iterator = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        verifiedTokens.put(cacheKey, new VerifiedToken(jwt, expiresAt));
+    }
+
+    /**
+     * Clear the verified tokens cache.
+     */
+    public void clearVerifiedTokens() {
+        verifiedTokens.clear();
+    }
+
     /**
      * <p>createJwtProfile.</p>
      *
@@ -322,6 +405,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void addSignatureConfiguration(final SignatureConfiguration signatureConfiguration) {
         assertNotNull("signatureConfiguration", signatureConfiguration);
         signatureConfigurations.add(signatureConfiguration);
+        clearVerifiedTokens();
     }
 
     /**
@@ -332,6 +416,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void setSignatureConfigurations(final List<SignatureConfiguration> signatureConfigurations) {
         assertNotNull("signatureConfigurations", signatureConfigurations);
         this.signatureConfigurations = signatureConfigurations;
+        clearVerifiedTokens();
     }
 
     /**
@@ -351,6 +436,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void addEncryptionConfiguration(final EncryptionConfiguration encryptionConfiguration) {
         assertNotNull("encryptionConfiguration", encryptionConfiguration);
         encryptionConfigurations.add(encryptionConfiguration);
+        clearVerifiedTokens();
     }
 
     /**
@@ -361,6 +447,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void setEncryptionConfigurations(final List<EncryptionConfiguration> encryptionConfigurations) {
         assertNotNull("encryptionConfigurations", encryptionConfigurations);
         this.encryptionConfigurations = encryptionConfigurations;
+        clearVerifiedTokens();
     }
 
     /**
@@ -380,4 +467,6 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public Date getExpirationTime() {
         return new Date(expirationTime.getTime());
     }
+
+    private record VerifiedToken(JWT jwt, long expiresAt) {}
 }
@@ -1,9 +1,13 @@
 package org.pac4j.jwt;
 
 import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.SignedJWT;
 import lombok.val;
 import org.junit.Test;
+import org.pac4j.core.context.CallContext;
 import org.pac4j.core.credentials.TokenCredentials;
 import org.pac4j.core.credentials.authenticator.Authenticator;
 import org.pac4j.core.exception.CredentialsException;
@@ -30,7 +34,9 @@ import org.pac4j.oauth.profile.twitter.TwitterProfileDefinition;
 
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -257,6 +263,103 @@ public final class JwtTests implements TestsConstants {
         return new Date(yesterday);
     }
 
+    @Test
+    public void testVerifiedTokensCache() {
+        val verifications = new AtomicInteger();
+        val signatureConfiguration = new CountingSignatureConfiguration(MAC_SECRET, verifications);
+        val generator = new JwtGenerator(signatureConfiguration);
+        val token = generator.generate(createProfile());
+        val authenticator = new JwtAuthenticator(signatureConfiguration);
+        authenticator.setVerifiedTokensCacheSize(10);
+
+        val profile1 = authenticator.validateToken(token);
+        val profile2 = authenticator.validateToken(token);
+        assertEquals(1, verifications.get());
+        assertNotSame(profile1, profile2);
+        assertEquals(profile1.getId(), profile2.getId());
+        assertEquals(profile1.getAttributes(), profile2.getAttributes());
+        assertEquals(profile1.getRoles(), profile2.getRoles());
+
+        authenticator.setVerifiedTokensCacheSize(0);
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void testVerifiedTokensCacheKeepsVerifiedJwt() {
+        final List<JWT> jwts = new ArrayList<>();
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        val token = generator.generate(createProfile());
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET)) {
+            @Override
+            protected void createJwtProfile(final CallContext ctx, final TokenCredentials credentials, final JWT jwt)
+                throws ParseException {
+                jwts.add(jwt);
+                super.createJwtProfile(ctx, credentials, jwt);
+            }
+        };
+        authenticator.setVerifiedTokensCacheSize(10);
+        assertNotNull(authenticator.validateToken(token));
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(2, jwts.size());
+        assertTrue(jwts.get(1) instanceof SignedJWT);
+        assertSame(jwts.get(0), jwts.get(1));
+    }
+
+    @Test
+    public void testVerifiedTokensCacheClearedOnNewSignatureConfiguration() {
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        val token = generator.generate(createProfile());
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        authenticator.setVerifiedTokensCacheSize(10);
+        assertNotNull(authenticator.validateToken(token));
+
+        authenticator.setSignatureConfigurations(new ArrayList<>(List.of(new SecretSignatureConfiguration(KEY2))));
+        assertNull(authenticator.validateToken(token));
+    }
+
+    @Test
+    public void testVerifiedTokensCacheBoundedByExpiration() {
+        val verifications = new AtomicInteger();
+        val signatureConfiguration = new CountingSignatureConfiguration(MAC_SECRET, verifications);
+        val generator = new JwtGenerator(signatureConfiguration);
+        generator.setExpirationTime(new Date(System.currentTimeMillis() + 2500));
+        val token = generator.generate(createProfile());
+        val authenticator = new JwtAuthenticator(signatureConfiguration);
+        authenticator.setVerifiedTokensCacheSize(10);
+        assertNotNull(authenticator.validateToken(token));
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(1, verifications.get());
+
+        TestsHelper.wait(3000);
+        assertNull(authenticator.validateToken(token));
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void testVerifiedTokensCacheBoundedBySize() {
+        val verifications = new AtomicInteger();
+        val signatureConfiguration = new CountingSignatureConfiguration(MAC_SECRET, verifications);
+        val generator = new JwtGenerator(signatureConfiguration);
+        val authenticator = new JwtAuthenticator(signatureConfiguration);
+        authenticator.setVerifiedTokensCacheSize(4);
+        final List<String> tokens = new ArrayList<>();
+        for (var i = 0; i < 20; i++) {
+            val profile = createProfile();
+            profile.setId(ID + i);
+            tokens.add(generator.generate(profile));
+        }
+        for (val token : tokens) {
+            assertNotNull(authenticator.validateToken(token));
+        }
+        assertEquals(20, verifications.get());
+        for (val token : tokens) {
+            assertNotNull(authenticator.validateToken(token));
+        }
+        // at most 4 tokens are cached at any time
+        assertTrue(verifications.get() >= 36);
+    }
+
     @Test
     public void testGenerateAuthenticateDifferentSecrets() {
         final SignatureConfiguration signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
@@ -401,6 +504,22 @@ public final class JwtTests implements TestsConstants {
         assertNotNull(g1);
     }
 
+    private static final class CountingSignatureConfiguration extends SecretSignatureConfiguration {
+
+        private final AtomicInteger verifications;
+
+        private CountingSignatureConfiguration(final String secret, final AtomicInteger verifications) {
+            super(secret);
+            this.verifications = verifications;
+        }
+
+        @Override
+        public boolean verify(final SignedJWT jwt) throws JOSEException {
+            verifications.incrementAndGet();
+            return super.verify(jwt);
+        }
+    }
+
     private ECSignatureConfiguration buildECSignatureConfiguration() throws NoSuchAlgorithmException {
         val keyGen = KeyPairGenerator.getInstance("EC");
         val keyPair = keyGen.generateKeyPair();
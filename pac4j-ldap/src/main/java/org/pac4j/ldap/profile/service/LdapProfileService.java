@@ -108,7 +108,7 @@ public class LdapProfileService extends AbstractProfileService<LdapProfile> {
         assertNotBlank("usersDn", usersDn);
 
         setProfileDefinitionIfUndefined(new CommonProfileDefinition(x -> new LdapProfile()));
-        setSerializer(new JsonSerializer(LdapProfile.class));
+        setSerializer(new JsonSerializer(LdapProfile.class, JsonSerializer.buildOptimizedObjectMapper()));
 
         super.internalInit(forceReinit);
     }
@@ -95,7 +95,7 @@ public class MongoProfileService extends AbstractProfileService<MongoProfile> {
         CommonHelper.assertNotBlank("usersCollection", this.usersCollection);
 
         setProfileDefinitionIfUndefined(new CommonProfileDefinition(x -> new MongoProfile()));
-        setSerializer(new JsonSerializer(MongoProfile.class));
+        setSerializer(new JsonSerializer(MongoProfile.class, JsonSerializer.buildOptimizedObjectMapper()));
 
         super.internalInit(forceReinit);
     }
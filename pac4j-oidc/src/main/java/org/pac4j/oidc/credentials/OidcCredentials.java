@@ -41,6 +41,9 @@ public class OidcCredentials extends Credentials {
 
     private String idToken;
 
+    /** Whether the tokens have been obtained by a refresh token grant (and not at the authentication). */
+    private boolean refreshed;
+
     @JsonIgnore
     public AuthorizationCode toAuthorizationCode() {
         return code != null ? new AuthorizationCode(this.code) : null;
@@ -82,6 +82,7 @@ public class OidcAuthenticator implements Authenticator {
             try {
                 val request = createTokenRequest(new RefreshTokenGrant(refreshToken));
                 executeTokenRequest(request, credentials);
+                credentials.setRefreshed(true);
             } catch (final IOException | ParseException e) {
                 throw new OidcException(e);
             }
@@ -17,6 +17,7 @@ import java.io.Serial;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Date;
@@ -246,12 +247,17 @@ public class OidcProfile extends AbstractJwtProfile {
 
     @JsonIgnore
     public boolean isExpired() {
+        return willExpireWithin(Duration.ZERO);
+    }
+
+    @Override
+    public boolean willExpireWithin(final Duration window) {
         var tokenExpirationAdvance = getTokenExpirationAdvance();
         if (tokenExpirationAdvance < 0) {
             return false;
         }
         var expiration = getExpiration();
         return expiration != null
-            && expiration.toInstant().isBefore(Instant.now().plusSeconds(tokenExpirationAdvance));
+            && expiration.toInstant().isBefore(Instant.now().plusSeconds(tokenExpirationAdvance).plus(window));
     }
 }
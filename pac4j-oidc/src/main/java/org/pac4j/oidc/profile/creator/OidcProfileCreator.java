@@ -105,8 +105,10 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
 
         try {
 
+            // the ID token of a refresh token grant is not tied to the nonce (nor the session) of the authentication
+            val refreshed = oidcCredentials != null && oidcCredentials.isRefreshed();
             final Nonce nonce;
-            if (configuration.isUseNonce()) {
+            if (configuration.isUseNonce() && !refreshed) {
                 nonce = new Nonce((String) ctx.sessionStore().get(ctx.webContext(), client.getNonceSessionAttributeName()).orElse(null));
             } else {
                 nonce = null;
@@ -119,7 +121,7 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
 
                 // keep the session ID if provided
                 val sid = (String) claimsSet.getClaim(Pac4jConstants.OIDC_CLAIM_SESSIONID);
-                if (isNotBlank(sid)) {
+                if (isNotBlank(sid) && !refreshed) {
                     configuration.findSessionLogoutHandler().recordSession(ctx, sid);
                 }
             }
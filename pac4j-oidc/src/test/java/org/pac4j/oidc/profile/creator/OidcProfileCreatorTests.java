@@ -6,6 +6,7 @@ import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.PlainJWT;
 import com.nimbusds.oauth2.sdk.id.Issuer;
 import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
+import com.nimbusds.openid.connect.sdk.Nonce;
 import com.nimbusds.openid.connect.sdk.claims.IDTokenClaimsSet;
 import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import lombok.val;
@@ -26,9 +27,8 @@ import java.net.URI;
 import java.util.*;
 
 import static org.junit.Assert.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Tests {@link OidcProfileCreatorTests}.
@@ -43,6 +43,8 @@ public class OidcProfileCreatorTests implements TestsConstants {
 
     private List<JWSAlgorithm> algorithms;
 
+    private TokenValidator tokenValidator;
+
     @Before
     public void setUp() throws Exception {
         this.idTokenClaims = new IDTokenClaimsSet(new JWTClaimsSet.Builder()
@@ -61,7 +63,7 @@ public class OidcProfileCreatorTests implements TestsConstants {
         when(metadataResolver.load()).thenReturn(metadata);
         when(configuration.getOpMetadataResolver()).thenReturn(metadataResolver);
 
-        var tokenValidator = mock(TokenValidator.class);
+        tokenValidator = mock(TokenValidator.class);
         when(tokenValidator.validate(any(), any())).thenAnswer(
                 a -> IDTokenClaimsSet.parse(((JWT) a.getArgument(0)).getJWTClaimsSet().toString()));
 
@@ -118,4 +120,39 @@ public class OidcProfileCreatorTests implements TestsConstants {
         assertTrue(profile.isPresent());
         assertEquals("pac4j", profile.get().getAttribute("client"));
     }
+
+    @Test
+    public void testNonceChecked() throws Exception {
+        when(configuration.isUseNonce()).thenReturn(true);
+        val client = new OidcClient(configuration);
+        ProfileCreator creator = new OidcProfileCreator(configuration, client);
+        val webContext = MockWebContext.create();
+        val sessionStore = new MockSessionStore();
+        sessionStore.set(webContext, client.getNonceSessionAttributeName(), VALUE);
+        val credentials = new OidcCredentials();
+        credentials.setIdToken(new PlainJWT(idTokenClaims.toJWTClaimsSet()).serialize());
+        assertTrue(creator.create(new CallContext(webContext, sessionStore), credentials).isPresent());
+        verify(tokenValidator).validate(any(), eq(new Nonce(VALUE)));
+    }
+
+    @Test
+    public void testNonceNotCheckedForRefreshedTokens() throws Exception {
+        when(configuration.isUseNonce()).thenReturn(true);
+        ProfileCreator creator = new OidcProfileCreator(configuration, new OidcClient(configuration));
+        val credentials = new OidcCredentials();
+        credentials.setIdToken(new PlainJWT(idTokenClaims.toJWTClaimsSet()).serialize());
+        credentials.setRefreshed(true);
+        assertTrue(creator.create(CallContext.detached(), credentials).isPresent());
+        verify(tokenValidator).validate(any(), isNull());
+    }
+
+    @Test
+    public void testNonceRequiredWithoutContext() throws Exception {
+        when(configuration.isUseNonce()).thenReturn(true);
+        ProfileCreator creator = new OidcProfileCreator(configuration, new OidcClient(configuration));
+        val credentials = new OidcCredentials();
+        credentials.setIdToken(new PlainJWT(idTokenClaims.toJWTClaimsSet()).serialize());
+        assertThrows(NullPointerException.class, () -> creator.create(CallContext.detached(), credentials));
+        verifyNoInteractions(tokenValidator);
+    }
 }
@@ -95,7 +95,7 @@ public class DbProfileService extends AbstractProfileService<DbProfile> {
         this.dbi = new DBI(this.dataSource);
 
         setProfileDefinitionIfUndefined(new CommonProfileDefinition(x -> new DbProfile()));
-        setSerializer(new JsonSerializer(DbProfile.class));
+        setSerializer(new JsonSerializer(DbProfile.class, JsonSerializer.buildOptimizedObjectMapper()));
 
         super.internalInit(forceReinit);
     }